@@ -0,0 +1,66 @@
+#!/bin/sh
+# Тренировочный прогон для AOT-кэша JDK (Dockerfile) — или любого другого архива, который JVM
+# пишет при выходе: приложение стартует на настоящей БД, проходит короткую смесь запросов и
+# останавливается по SIGTERM. В кэш попадают классы и профили не только подъёма контекста,
+# но и пути запроса: фильтры Security, JWT, MVC, Jackson, Hibernate, Flyway, ответы 4xx.
+#
+# Использование:  aot/train.sh <команда запуска java ...>
+#   TRAIN_URL    — адрес приложения (по умолчанию http://localhost:8080)
+#   TRAIN_ROUNDS — сколько раз пройти смесь (по умолчанию 50)
+set -eu
+
+URL="${TRAIN_URL:-http://localhost:8080}"
+ROUNDS="${TRAIN_ROUNDS:-50}"
+
+"$@" &
+APP_PID=$!
+trap 'kill -TERM "$APP_PID" 2>/dev/null || true' EXIT
+
+# readiness = UP только после прогрева и миграций
+tries=0
+until curl -fs -o /dev/null "$URL/actuator/health/readiness"; do
+  tries=$((tries + 1))
+  if [ "$tries" -gt 600 ] || ! kill -0 "$APP_PID" 2>/dev/null; then
+    echo "application did not become ready" >&2
+    exit 1
+  fi
+  sleep 0.2
+done
+
+json() { curl -s -H 'Content-Type: application/json' -H "Authorization: Bearer ${TOKEN:-}" "$@"; }
+# статус без тела — для путей, где ответ не нужен (в т.ч. ожидаемые 4xx)
+hit() { curl -s -o /dev/null -H 'Content-Type: application/json' -H "Authorization: Bearer $TOKEN" "$@"; }
+
+EMAIL="aot-training-$$@example.com"
+CREDENTIALS="{\"email\":\"$EMAIL\",\"password\":\"Training_123\"}"
+TOKEN=
+json -X POST "$URL/api/auth/register" -d "$CREDENTIALS" >/dev/null
+TOKEN=$(json -X POST "$URL/api/auth/login" -d "$CREDENTIALS" | sed -n 's/.*"accessToken":"\([^"]*\)".*/\1/p')
+[ -n "$TOKEN" ] || { echo "login failed" >&2; exit 1; }
+
+i=0
+while [ "$i" -lt "$ROUNDS" ]; do
+  i=$((i + 1))
+  ID=$(json -X POST "$URL/api/projects" -d "{\"name\":\"aot-$$-$i\",\"description\":\"training $i\"}" \
+       | sed -n 's/^{"id":\([0-9]*\).*/\1/p')
+  hit "$URL/api/projects?size=20&sort=createdAt,desc"
+  hit "$URL/api/projects?name=aot&size=50"
+  hit "$URL/api/projects?fields=id,name&size=20"
+  hit "$URL/api/projects/$ID"
+  hit "$URL/api/projects?ids=$ID,0"
+  hit -X PUT "$URL/api/projects/$ID" -d "{\"name\":\"aot-$$-$i-renamed\",\"description\":\"updated\"}"
+  hit -X POST "$URL/api/batch" -d "{\"requests\":[{\"method\":\"GET\",\"path\":\"/api/projects/$ID\"},{\"method\":\"GET\",\"path\":\"/api/me\"}]}"
+  hit "$URL/api/me"
+  # 404, 409, 400 и запрос без токена — тоже штатные пути
+  hit "$URL/api/projects/0"
+  hit -X POST "$URL/api/projects" -d "{\"name\":\"aot-$$-$i-renamed\",\"description\":\"dup\"}"
+  hit -X POST "$URL/api/projects" -d '{"name":""}'
+  curl -s -o /dev/null "$URL/api/projects"
+  hit -X DELETE "$URL/api/projects/$ID"
+  curl -s -o /dev/null -H 'Content-Type: application/json' -X POST "$URL/api/auth/login" -d "$CREDENTIALS"
+done
+
+trap - EXIT
+kill -TERM "$APP_PID"
+# код выхода JVM после SIGTERM — 143; кэш к этому моменту записан
+wait "$APP_PID" || true
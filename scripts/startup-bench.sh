@@ -0,0 +1,93 @@
+#!/usr/bin/env bash
+# Бенчмарк старта контейнера: время до первого успешного запроса и RSS после него.
+# Сравнивает два образа:
+#   baseline — обычный jar, без AOT-кэша JDK и без Spring AOT
+#   aot      — mvn -Paot package + Spring AOT + AOT-кэш JDK (app.aot)
+#
+# Использование:  scripts/startup-bench.sh [runs]      (по умолчанию 5 прогонов на вариант)
+# Результат:      target/startup-bench.csv + сводка (медианы) в stdout
+#
+# Профиль prod: в образе только application-prod.example.yml из ресурсов, отдельного
+# application-prod.yml нет — он монтируется в /app/config/, откуда Spring Boot читает его сам.
+# Порт, БД и JWT перекрываются переменными окружения.
+set -euo pipefail
+
+RUNS="${1:-5}"
+NET=ai-entrepreneur-bench
+DB=ai-entrepreneur-bench-db
+APP=ai-entrepreneur-bench-app
+PORT=18080
+OUT=target/startup-bench.csv
+PROD_CONFIG=src/main/resources/application-prod.example.yml
+JWT_SECRET="$(head -c 32 /dev/urandom | base64)"
+
+cd "$(dirname "$0")/.."
+
+cleanup() {
+  docker rm -f "$APP" "$DB" >/dev/null 2>&1 || true
+  docker network rm "$NET" >/dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() { date +%s%3N; }
+
+build_images() {
+  mvn -B -q -DskipTests package
+  docker build -q -t ai-entrepreneur:baseline --build-arg SPRING_AOT=false --build-arg JDK_AOT_CACHE=false . >/dev/null
+
+  mvn -B -q -DskipTests -Paot package
+  docker build -q -t ai-entrepreneur:aot --build-arg SPRING_AOT=true --build-arg JDK_AOT_CACHE=true . >/dev/null
+}
+
+start_db() {
+  docker network create "$NET" >/dev/null
+  docker run -d --name "$DB" --network "$NET" \
+    -e POSTGRES_DB=ai_entrepreneur -e POSTGRES_USER=postgres -e POSTGRES_PASSWORD=postgres \
+    postgres:16 >/dev/null
+  until docker exec "$DB" pg_isready -U postgres -d ai_entrepreneur >/dev/null 2>&1; do sleep 0.5; done
+}
+
+# один прогон: печатает "<ms до первого ответа>,<RSS в KiB>"
+run_once() {
+  local image="$1"
+  local t0 t1 rss
+  t0=$(now_ms)
+  docker run -d --name "$APP" --network "$NET" -p "$PORT:8080" \
+    -v "$PWD/$PROD_CONFIG:/app/config/application-prod.yml:ro" \
+    -e SPRING_PROFILES_ACTIVE=prod \
+    -e SERVER_PORT=8080 \
+    -e SPRING_DATASOURCE_URL="jdbc:postgresql://$DB:5432/ai_entrepreneur" \
+    -e SPRING_DATASOURCE_USERNAME=postgres \
+    -e SPRING_DATASOURCE_PASSWORD=postgres \
+    -e APP_SECURITY_JWT_SECRET="$JWT_SECRET" \
+    -e APP_SECURITY_JWT_EXPIRES_IN=900 \
+    -e APP_SECURITY_JWT_ISSUER=ai-entrepreneur \
+    "$image" >/dev/null
+  until curl -fs -o /dev/null "http://localhost:$PORT/api/ping"; do sleep 0.05; done
+  t1=$(now_ms)
+  rss=$(docker exec "$APP" sh -c "grep VmRSS /proc/1/status" | awk '{print $2}')
+  docker rm -f "$APP" >/dev/null
+  echo "$((t1 - t0)),$rss"
+}
+
+median() { sort -n | awk '{a[NR]=$1} END {print (NR % 2) ? a[(NR+1)/2] : (a[NR/2] + a[NR/2+1]) / 2}'; }
+
+build_images
+start_db
+
+mkdir -p target
+echo "variant,run,time_to_first_request_ms,rss_kib" > "$OUT"
+for variant in baseline aot; do
+  # первый прогон прогревает Flyway-миграции и page cache — не учитываем
+  run_once "ai-entrepreneur:$variant" >/dev/null
+  for i in $(seq 1 "$RUNS"); do
+    echo "$variant,$i,$(run_once "ai-entrepreneur:$variant")" >> "$OUT"
+  done
+done
+
+echo "variant  ttfr_ms(median)  rss_mib(median)"
+for variant in baseline aot; do
+  ttfr=$(grep "^$variant," "$OUT" | cut -d, -f3 | median)
+  rss=$(grep "^$variant," "$OUT" | cut -d, -f4 | median)
+  printf "%-8s %16s %16.1f\n" "$variant" "$ttfr" "$(echo "$rss / 1024" | bc -l)"
+done
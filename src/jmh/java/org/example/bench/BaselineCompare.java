@@ -0,0 +1,131 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сравнивает результат JMH (json) с закоммиченным baseline.
+ * Ключ — имя бенчмарка + параметры. Для AverageTime регрессия — доверительные интервалы
+ * (score ± scoreError из JMH) не пересекаются и score вырос больше maxRegression: на шумном
+ * бенчмарке (интервал шире самого score) одного роста среднего мало, а на стабильном ловится
+ * и небольшой рост. Рост без разделения интервалов печатается как NOISY и сборку не валит.
+ *
+ * Код выхода 1, если есть регрессии; 2 — нет baseline (молча создавать его нельзя: сравнение
+ * прошло бы зелёным, ничего не сравнив) или baseline снят на другой major-версии JDK —
+ * такие числа не сравнимы, baseline нужно переснять на JDK проекта.
+ *
+ * Аргументы: [--init] baseline.json result.json [maxRegression]. С --init результат записывается
+ * в baseline (новый или взамен старого) без сравнения — только явно, при смене железа/JDK.
+ */
+public final class BaselineCompare {
+
+    /** Оценка JMH с полушириной 99.9% доверительного интервала; NaN (одна итерация) — как 0. */
+    private record Score(double score, double error) {
+        double low() {
+            return score - error;
+        }
+
+        double high() {
+            return score + error;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        boolean init = args.length > 0 && "--init".equals(args[0]);
+        int offset = init ? 1 : 0;
+        if (args.length < offset + 2) {
+            System.err.println("Usage: BaselineCompare [--init] <baseline.json> <result.json> [maxRegression]");
+            System.exit(2);
+        }
+        File baselineFile = new File(args[offset]);
+        File resultFile = new File(args[offset + 1]);
+        double maxRegression = args.length > offset + 2 ? Double.parseDouble(args[offset + 2]) : 0.05;
+
+        ObjectMapper mapper = new ObjectMapper();
+        if (init) {
+            File dir = baselineFile.getAbsoluteFile().getParentFile();
+            dir.mkdirs();
+            mapper.writerWithDefaultPrettyPrinter().writeValue(baselineFile, mapper.readTree(resultFile));
+            System.out.println("Baseline written from " + resultFile + " → " + baselineFile);
+            return;
+        }
+        if (!baselineFile.exists()) {
+            System.err.println("Baseline " + baselineFile + " not found; create it with --init"
+                    + " (mvn -Pbenchmarks exec:exec@jmh-baseline) and commit it");
+            System.exit(2);
+        }
+
+        JsonNode result = mapper.readTree(resultFile);
+        JsonNode base = mapper.readTree(baselineFile);
+        String resultJdk = jdkMajor(result);
+        String baselineJdk = jdkMajor(base);
+        if (!resultJdk.equals(baselineJdk)) {
+            System.err.println("Baseline " + baselineFile + " was recorded on JDK " + baselineJdk
+                    + ", result on JDK " + resultJdk + "; re-record it on the project JDK"
+                    + " (mvn -Pbenchmarks exec:exec@jmh-baseline) and commit it");
+            System.exit(2);
+        }
+
+        Map<String, Score> current = scores(result);
+        Map<String, Score> baseline = scores(base);
+
+        int regressions = 0;
+        for (var e : current.entrySet()) {
+            Score was = baseline.get(e.getKey());
+            Score now = e.getValue();
+            if (was == null || was.score() == 0) {
+                System.out.printf("NEW   %-80s %12.3f ± %.3f%n", e.getKey(), now.score(), now.error());
+                continue;
+            }
+            double delta = (now.score() - was.score()) / was.score();
+            String verdict = "ok";
+            if (delta > maxRegression) {
+                if (now.low() > was.high()) {
+                    verdict = "SLOW";
+                    regressions++;
+                } else {
+                    verdict = "NOISY";
+                }
+            }
+            System.out.printf("%-5s %-80s %12.3f ± %-10.3f → %12.3f ± %-10.3f (%+.1f%%)%n",
+                    verdict, e.getKey(), was.score(), was.error(), now.score(), now.error(), delta * 100);
+        }
+        if (regressions > 0) {
+            System.out.println(regressions + " benchmark(s) regressed more than " + (maxRegression * 100)
+                    + "% beyond the score error");
+            System.exit(1);
+        }
+    }
+
+    private static String jdkMajor(JsonNode results) {
+        String version = results.path(0).path("jdkVersion").asText("unknown");
+        int dot = version.indexOf('.');
+        return dot > 0 ? version.substring(0, dot) : version;
+    }
+
+    private static Map<String, Score> scores(JsonNode results) {
+        Map<String, Score> map = new LinkedHashMap<>();
+        for (JsonNode run : results) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            for (Map.Entry<String, JsonNode> p : run.path("params").properties()) {
+                key.append(' ').append(p.getKey()).append('=').append(p.getValue().asText());
+            }
+            map.put(key.toString(), score(run.path("primaryMetric")));
+            // Аллокации из -prof gc: отдельным ключом, регрессия по B/op тоже считается
+            JsonNode alloc = run.path("secondaryMetrics").path("gc.alloc.rate.norm");
+            if (!alloc.isMissingNode()) {
+                map.put(key + " [B/op]", score(alloc));
+            }
+        }
+        return map;
+    }
+
+    private static Score score(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return new Score(metric.path("score").asDouble(), Double.isNaN(error) ? 0 : error);
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ProjectReadDto;
+import org.example.dto.UserResponse;
+import org.example.mapper.ProjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON против CBOR и Smile на ответе /api/projects (Page&lt;ProjectReadDto&gt;) и /api/users:
+ * encode — сервер, decode — потребитель-сервис. Размер тела печатается в лог JMH при @Setup
+ * (строка "payload bytes"), чтобы CPU сравнивать вместе с экономией трафика.
+ *
+ * Замер (JDK 21.0.1, 1 vCPU, -prof gc; полный прогон — src/jmh/baseline/jmh-baseline.json), pageSize=1000:
+ * <pre>
+ *          тело, байт          encode, us          decode, us
+ *          projects  users     projects  users     projects  users
+ * json     482113    96784     1002      211       2297      438
+ * cbor     469833    82615     1008      173       1592      503
+ * smile    442067    61870     1516      253       1945      255
+ * </pre>
+ * Проекты почти целиком — текст description, бинарные форматы экономят на нём 2–8%, а разброс
+ * encode у cbor/smile на 1 vCPU сопоставим с самим временем. Выигрыш есть на пользователях
+ * (короткие поля): smile −36% тела и −42% на decode, cbor −15% тела. На pageSize=20 картина та же.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinaryFormatsBenchmark {
+
+    /** Страница глазами клиента: из метаданных Page нужны только эти поля. */
+    public record PageView(List<ProjectReadDto> content, long totalElements, int totalPages, int number, int size) { }
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    @Param({"20", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private Page<ProjectReadDto> page;
+    private List<UserResponse> users;
+    private byte[] pageBytes;
+    private byte[] usersBytes;
+
+    @Setup
+    public void setUp() throws Exception {
+        mapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        var pageable = PageRequest.of(0, pageSize, Sort.by("createdAt").descending());
+        page = new PageImpl<>(
+                Fixtures.projects(pageSize).stream().map(ProjectMapper::toReadDto).toList(),
+                pageable,
+                pageSize * 10L);
+        users = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            users.add(new UserResponse((long) i + 1, "user" + i + "@example.com", "USER",
+                    "2025-10-24T12:00:00.123456Z"));
+        }
+        pageBytes = mapper.writeValueAsBytes(page);
+        usersBytes = mapper.writeValueAsBytes(users);
+        System.out.printf("payload bytes: format=%s pageSize=%d projects=%d users=%d%n",
+                format, pageSize, pageBytes.length, usersBytes.length);
+    }
+
+    @Benchmark
+    public byte[] encodeProjects() throws Exception {
+        return mapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public PageView decodeProjects() throws Exception {
+        return mapper.readValue(pageBytes, PageView.class);
+    }
+
+    @Benchmark
+    public byte[] encodeUsers() throws Exception {
+        return mapper.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public UserResponse[] decodeUsers() throws Exception {
+        return mapper.readValue(usersBytes, UserResponse[].class);
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.bench;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ErrorProperties;
+import org.example.domain.Project;
+import org.example.dto.ProjectReadDto;
+import org.example.exception.ApiError;
+import org.example.exception.ConflictException;
+import org.example.exception.GlobalExceptionHandler;
+import org.example.exception.NotFoundException;
+import org.example.mapper.ProjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость пути ошибки: создание доменного исключения + сборка тела в GlobalExceptionHandler,
+ * рядом с успешным путём GET /api/projects/{id} (entity → DTO → ResponseEntity).
+ * Отдельно — только сборка тела (исключение создано заранее).
+ *
+ * stackTraces=true — как было до DomainException (стек снимается на каждую 404/409);
+ * стек здесь неглубокий, в приложении под Spring MVC и прокси он в разы длиннее.
+ *
+ * Замер (JDK 21.0.1, 1 vCPU, -prof gc; полный прогон — src/jmh/baseline/jmh-baseline.json):
+ * <pre>
+ *                              stackTraces=false      stackTraces=true
+ * found_mapAndWrap              215 ns    800 B        237 ns    800 B
+ * notFound_bodyOnly             105 ns    288 B        123 ns    288 B
+ * notFound_throwAndHandle       255 ns    440 B       3130 ns   1128 B
+ * conflict_throwAndHandle       131 ns    416 B       1722 ns   1104 B
+ * </pre>
+ * Без стека 404/409 стоит как успешный ответ, со стеком — в 12–13 раз дороже и +690 B на ошибку.
+ * На 1 vCPU разброс большой (±30–150% для throw-путей), порядок величин устойчив.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorHandlerBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stackTraces;
+
+    private GlobalExceptionHandler handler;
+    private MockHttpServletRequest request;
+    private NotFoundException prebuilt;
+    private Project project;
+
+    @Setup
+    public void setUp() {
+        var props = new ErrorProperties();
+        props.setStackTraces(stackTraces);
+        handler = new GlobalExceptionHandler(props, new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/api/projects/123");
+        prebuilt = NotFoundException.of("Project", 123L);
+        project = Fixtures.projects(1).get(0);
+    }
+
+    @Benchmark
+    public ResponseEntity<ProjectReadDto> found_mapAndWrap() {
+        return ResponseEntity.ok(ProjectMapper.toReadDto(project));
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> notFound_throwAndHandle() {
+        try {
+            throw NotFoundException.of("Project", 123L);
+        } catch (NotFoundException ex) {
+            return handler.handleNotFound(ex, request);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> conflict_throwAndHandle() {
+        try {
+            throw ConflictException.of("Project", "name 'AI Core' already exists");
+        } catch (ConflictException ex) {
+            return handler.handleConflict(ex, request);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiError> notFound_bodyOnly() {
+        return handler.handleNotFound(prebuilt, request);
+    }
+}
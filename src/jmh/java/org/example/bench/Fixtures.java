@@ -0,0 +1,38 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.domain.Project;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/** Общие тестовые данные для бенчмарков. */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /** Страница сущностей, похожих на реальные: имя ~20 символов, описание ~200. */
+    static List<Project> projects(int size) {
+        OffsetDateTime base = OffsetDateTime.of(2025, 10, 24, 12, 0, 0, 123_456_000, ZoneOffset.UTC);
+        String description = "Описание проекта ".repeat(12);
+        List<Project> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Project p = new Project();
+            p.setId((long) i + 1);
+            p.setName("Project number " + i);
+            p.setDescription(description);
+            p.setCreatedAt(base.minusMinutes(i));
+            list.add(p);
+        }
+        return list;
+    }
+
+    /** ObjectMapper с теми же модулями, что регистрирует Spring Boot по умолчанию. */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+}
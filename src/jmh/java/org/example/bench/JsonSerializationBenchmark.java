@@ -0,0 +1,62 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.ProjectReadDto;
+import org.example.exception.ApiError;
+import org.example.mapper.ProjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson: Page&lt;ProjectReadDto&gt; (ответ /api/projects) и ApiError (ответ на любую ошибку).
+ * pageSize — в отдельном состоянии страницы: apiError от него не зависит и меряется один раз.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class PageState {
+        @Param({"20", "100"})
+        public int pageSize;
+
+        private Page<ProjectReadDto> page;
+
+        @Setup
+        public void setUp() {
+            var pageable = PageRequest.of(0, pageSize, Sort.by("createdAt").descending());
+            page = new PageImpl<>(
+                    Fixtures.projects(pageSize).stream().map(ProjectMapper::toReadDto).toList(),
+                    pageable,
+                    pageSize * 10L);
+        }
+    }
+
+    private ObjectMapper mapper;
+    private ApiError error;
+
+    @Setup
+    public void setUp() {
+        mapper = Fixtures.objectMapper();
+        error = new ApiError("2025-10-29T18:36:43Z", "/api/projects/123", "Not Found", "Project 123 not found");
+    }
+
+    @Benchmark
+    public byte[] page(PageState state) throws Exception {
+        return mapper.writeValueAsBytes(state.page);
+    }
+
+    @Benchmark
+    public byte[] apiError() throws Exception {
+        return mapper.writeValueAsBytes(error);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.bench;
+
+import org.example.config.JwtProperties;
+import org.example.security.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/** Выпуск и проверка access-токена — выполняется на каждом запросе (проверка) и логине (выпуск). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private JwtService jwt;
+    private UserDetails user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties props = new JwtProperties();
+        props.setSecret(Base64.getEncoder().encodeToString(
+                "benchmark-secret-benchmark-secret-0123456789".getBytes()));
+        props.setExpiresIn(900);
+        props.setIssuer("ai-entrepreneur");
+
+        jwt = new JwtService(props);
+        user = User.withUsername("me@example.com").password("x").roles("USER").build();
+        token = jwt.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String generateAccessToken() {
+        return jwt.generateAccessToken(user);
+    }
+
+    @Benchmark
+    public String validateAndGetSubject() {
+        return jwt.validateAndGetSubject(token);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/** BCrypt на разных strength: сколько CPU стоит каждый логин/регистрация. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    public int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("Qwerty_123");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Qwerty_123");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("Qwerty_123", hash);
+    }
+}
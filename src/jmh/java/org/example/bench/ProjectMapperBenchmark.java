@@ -0,0 +1,38 @@
+package org.example.bench;
+
+import org.example.domain.Project;
+import org.example.dto.ProjectReadDto;
+import org.example.mapper.ProjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Entity → DTO для страницы проектов (включая createdAt.toString()). */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectMapperBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private List<Project> page;
+
+    @Setup
+    public void setUp() {
+        page = Fixtures.projects(pageSize);
+    }
+
+    @Benchmark
+    public void toReadDto(Blackhole bh) {
+        for (Project p : page) {
+            ProjectReadDto dto = ProjectMapper.toReadDto(p);
+            bh.consume(dto);
+        }
+    }
+}
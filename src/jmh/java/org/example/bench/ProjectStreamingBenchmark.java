@@ -0,0 +1,88 @@
+package org.example.bench;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.domain.Project;
+import org.example.mapper.ProjectJsonRowWriter;
+import org.example.mapper.ProjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Аллокации на строку списка проектов: entity → ProjectReadDto (createdAt.toString()) → Jackson
+ * против прямой записи строки в JsonGenerator (ProjectJsonRowWriter, как в ProjectPageJsonWriter).
+ * Смотреть gc.alloc.rate.norm (B/op) из gc-профайлера; на строку — B/op / pageSize.
+ *
+ * Сущности и колонки строк (как в ProjectPageRows) готовятся в setUp: String из ResultSet
+ * (name, description) есть в обоих путях, а вот OffsetDateTime и сама сущность — только у Hibernate,
+ * тут они не считаются.
+ * Метаданные страницы одинаковы у обоих путей и здесь не пишутся.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProjectStreamingBenchmark {
+
+    @Param({"20", "100", "1000"})
+    public int pageSize;
+
+    private ObjectMapper mapper;
+    private List<Project> entities;
+
+    // «Колонки ResultSet»: id, name, description, created_at в микросекундах
+    private long[] ids;
+    private String[] names;
+    private String[] descriptions;
+    private long[] createdAtMicros;
+
+    // Тело ответа переиспользуется, чтобы в B/op не попадал рост буфера
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        mapper = Fixtures.objectMapper();
+        entities = Fixtures.projects(pageSize);
+        ids = new long[pageSize];
+        names = new String[pageSize];
+        descriptions = new String[pageSize];
+        createdAtMicros = new long[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            Project p = entities.get(i);
+            ids[i] = p.getId();
+            names[i] = p.getName();
+            descriptions[i] = p.getDescription();
+            createdAtMicros[i] = p.getCreatedAt().toEpochSecond() * 1_000_000L + p.getCreatedAt().getNano() / 1000;
+        }
+        out = new ByteArrayOutputStream(pageSize * 512);
+    }
+
+    @Benchmark
+    public int dtoThenJackson() throws Exception {
+        out.reset();
+        try (JsonGenerator gen = mapper.createGenerator(out, JsonEncoding.UTF8)) {
+            mapper.writeValue(gen, entities.stream().map(ProjectMapper::toReadDto).toList());
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int rowWriter() throws Exception {
+        out.reset();
+        try (JsonGenerator gen = mapper.createGenerator(out, JsonEncoding.UTF8)) {
+            ProjectJsonRowWriter rows = new ProjectJsonRowWriter();
+            gen.writeStartArray();
+            for (int i = 0; i < pageSize; i++) {
+                rows.write(gen, ids[i], names[i], descriptions[i], createdAtMicros[i]);
+            }
+            gen.writeEndArray();
+        }
+        return out.size();
+    }
+}
@@ -0,0 +1,504 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.example.AiEntrepreneurApplication;
+import org.example.loadtest.Workload.Operation;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Сквозной нагрузочный прогон: поднимает приложение целиком (Postgres из Testcontainers
+ * или внешний -Dloadtest.jdbcUrl), ждёт readiness, логинит workload.users пользователей,
+ * засевает проекты и гоняет смесь операций из workload-файла с фиксированным темпом (open-loop).
+ * Защита от перегрузки (лимит, fair-share, полосы) работает как в проде: запросы делятся между
+ * пользователями случайно, так что per-user лимиты меряют сервер, а не один перегруженный аккаунт.
+ *
+ * Латентность считается от запланированного момента отправки, а не от фактического,
+ * поэтому очередь на стороне сервера не прячется (coordinated omission).
+ *
+ * Запуск: {@code mvn -Ploadtest test-compile exec:exec@loadtest -Dloadtest.workload=workloads/mixed.json}
+ * Отчёт пишется в target/loadtest-report.json; при нарушении порогов код выхода 1.
+ * Сохранённые прогоны с описанием окружения — src/loadtest/reports.
+ */
+public final class LoadTestRunner {
+
+    private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.MINUTES.toNanos(1);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    /** Как часто генератор обновляет снимок id для GET/UPDATE. */
+    private static final long SNAPSHOT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    /** readiness = UP только после прогрева (app.warmup) — раньше нагрузку не даём. */
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+    /**
+     * Засев: одновременных POST на пользователя заметно меньше fair-share
+     * max-in-flight-per-principal (8) и на всех — меньше полосы write (40).
+     */
+    private static final int SEED_PER_USER = 4;
+    private static final int SEED_CONCURRENCY = 16;
+    /** Попыток на подготовительный запрос, получивший 429/503 от защиты от перегрузки. */
+    private static final int SETUP_ATTEMPTS = 5;
+
+    private final URI base;
+    private final Workload workload;
+    private final HttpClient client;
+    private final ObjectMapper json = new ObjectMapper();
+
+    private final Map<Operation, OpStats> stats = new EnumMap<>(Operation.class);
+    /** id проектов, созданных в прогоне; GET/UPDATE/DELETE берут отсюда. */
+    private final ConcurrentLinkedDeque<Long> projectIds = new ConcurrentLinkedDeque<>();
+    /** Снимок projectIds для GET/UPDATE: случайный индекс без обхода очереди на каждый запрос. */
+    private volatile long[] idSnapshot = new long[0];
+    /** Токены workload.users пользователей; каждый запрос идёт от случайного. */
+    private final List<String> tokens = new ArrayList<>();
+
+    LoadTestRunner(URI base, Workload workload) {
+        this.base = base;
+        this.workload = workload;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation op : Operation.values()) {
+            stats.put(op, new OpStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadTestRunner <workload-resource> [report.json]");
+            System.exit(2);
+        }
+        Workload workload = Workload.load(args[0]);
+        Path report = Path.of(args.length > 1 ? args[1] : "target/loadtest-report.json");
+
+        String jdbcUrl = System.getProperty("loadtest.jdbcUrl", "");
+        PostgreSQLContainer<?> postgres = null;
+        Map<String, Object> props = applicationProperties();
+        if (jdbcUrl.isBlank()) {
+            postgres = new PostgreSQLContainer<>("postgres:16");
+            postgres.start();
+            props.put("spring.datasource.url", postgres.getJdbcUrl());
+            props.put("spring.datasource.username", postgres.getUsername());
+            props.put("spring.datasource.password", postgres.getPassword());
+        } else {
+            props.put("spring.datasource.url", jdbcUrl);
+            props.put("spring.datasource.username", System.getProperty("loadtest.jdbcUser", "postgres"));
+            props.put("spring.datasource.password", System.getProperty("loadtest.jdbcPassword", "postgres"));
+        }
+
+        int exitCode;
+        ConfigurableApplicationContext app = new SpringApplicationBuilder(AiEntrepreneurApplication.class)
+                .properties(props)
+                .run();
+        try {
+            int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+            exitCode = new LoadTestRunner(URI.create("http://localhost:" + port), workload).run(report);
+        } finally {
+            app.close();
+            if (postgres != null) {
+                postgres.stop();
+            }
+        }
+        System.exit(exitCode);
+    }
+
+    /** Настройки приложения под прогон: случайный порт, свой JWT-секрет, без SQL-логов и отладочных заголовков. */
+    private static Map<String, Object> applicationProperties() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+
+        Map<String, Object> props = new HashMap<>();
+        props.put("server.port", 0);
+        props.put("spring.jpa.hibernate.ddl-auto", "validate");
+        props.put("spring.jpa.show-sql", false);
+        props.put("spring.jpa.properties.hibernate.jdbc.time_zone", "UTC");
+        props.put("logging.level.org.hibernate.SQL", "WARN");
+        props.put("logging.level.org.hibernate.orm.jdbc.bind", "WARN");
+        props.put("app.security.jwt.secret", Base64.getEncoder().encodeToString(secret));
+        props.put("app.security.jwt.expires-in", 3600);
+        props.put("app.security.jwt.issuer", "ai-entrepreneur-loadtest");
+        props.put("app.sql-stats.expose-header", false);
+        props.put("app.server-timing.enabled", false);
+        return props;
+    }
+
+    int run(Path report) throws Exception {
+        System.out.printf("Workload '%s': %d req/s, warm-up %ds, measure %ds%n",
+                workload.name(), workload.ratePerSecond(), workload.warmupSeconds(), workload.durationSeconds());
+
+        awaitReady();
+        login();
+        seed();
+
+        drive(workload.warmupSeconds());
+        // сбрасываем всё, что набежало за прогрев
+        stats.values().forEach(OpStats::reset);
+
+        long started = System.nanoTime();
+        drive(workload.durationSeconds());
+        double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> result = report(elapsedSeconds);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        json.enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), result);
+        System.out.println(json.writeValueAsString(result));
+
+        @SuppressWarnings("unchecked")
+        List<String> violations = (List<String>) result.get("violations");
+        if (!violations.isEmpty()) {
+            violations.forEach(v -> System.err.println("SLO violated: " + v));
+            return 1;
+        }
+        return 0;
+    }
+
+    // ===== подготовка =====
+
+    private void awaitReady() throws IOException, InterruptedException {
+        HttpRequest probe = jsonRequest("/actuator/health/readiness").GET().build();
+        long deadline = System.nanoTime() + READY_TIMEOUT.toNanos();
+        while (true) {
+            HttpResponse<String> resp = client.send(probe, HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() == 200) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("Not ready after " + READY_TIMEOUT + ": HTTP "
+                        + resp.statusCode() + " " + resp.body());
+            }
+            Thread.sleep(500);
+        }
+    }
+
+    private void login() throws IOException, InterruptedException {
+        for (int i = 0; i < workload.users(); i++) {
+            String email = "loadtest-" + UUID.randomUUID() + "@example.com";
+            String credentials = json.writeValueAsString(Map.of("email", email, "password", "Loadtest_123"));
+
+            sendWithRetry("register", jsonRequest("/api/auth/register").POST(body(credentials)).build());
+            HttpResponse<String> login = sendWithRetry("login",
+                    jsonRequest("/api/auth/login").POST(body(credentials)).build());
+            tokens.add(json.readTree(login.body()).get("accessToken").asText());
+        }
+        System.out.printf("Logged in %d users%n", tokens.size());
+    }
+
+    private void seed() throws Exception {
+        int concurrency = Math.min(SEED_CONCURRENCY, workload.users() * SEED_PER_USER);
+        try (ExecutorService executor = Executors.newFixedThreadPool(concurrency)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < workload.seedProjects(); i++) {
+                // подряд идущие задачи — у разных пользователей: на каждого в полёте ≈ concurrency / users
+                String token = tokens.get(i % tokens.size());
+                futures.add(executor.submit(() -> {
+                    HttpResponse<String> resp = sendWithRetry("seed", createRequest(token));
+                    projectIds.add(json.readTree(resp.body()).get("id").asLong());
+                    return null;
+                }));
+            }
+            for (var f : futures) {
+                f.get();
+            }
+        }
+        refreshIdSnapshot();
+        System.out.printf("Seeded %d projects%n", projectIds.size());
+    }
+
+    /** Подготовительный запрос: 429/503 — штатный отказ защиты от перегрузки, повторяем после Retry-After. */
+    private HttpResponse<String> sendWithRetry(String step, HttpRequest request)
+            throws IOException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            HttpResponse<String> resp = client.send(request, HttpResponse.BodyHandlers.ofString());
+            int status = resp.statusCode();
+            if ((status == 429 || status == 503) && attempt < SETUP_ATTEMPTS) {
+                long retryAfter = resp.headers().firstValueAsLong("Retry-After").orElse(1);
+                Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, retryAfter)));
+                continue;
+            }
+            expectSuccess(step, resp);
+            return resp;
+        }
+    }
+
+    // ===== нагрузка =====
+
+    /**
+     * Open-loop: запросы уходят по расписанию независимо от того, ответил ли сервер на
+     * предыдущие. Каждый запрос — отдельный виртуальный поток, поэтому медленный ответ
+     * не тормозит генератор.
+     */
+    private void drive(int seconds) {
+        if (seconds <= 0) {
+            return;
+        }
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / workload.ratePerSecond();
+        long start = System.nanoTime();
+        long end = start + TimeUnit.SECONDS.toNanos(seconds);
+        long nextSnapshot = start + SNAPSHOT_INTERVAL_NANOS;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long now;
+                while ((now = System.nanoTime()) < intended) {
+                    LockSupport.parkNanos(intended - now);
+                }
+                Operation op = workload.pick(ThreadLocalRandom.current().nextDouble());
+                executor.execute(() -> execute(op, intended));
+                if (now >= nextSnapshot) {
+                    refreshIdSnapshot();
+                    nextSnapshot = now + SNAPSHOT_INTERVAL_NANOS;
+                }
+            }
+        } // close() дожидается хвоста запросов
+    }
+
+    private void execute(Operation op, long intendedStart) {
+        OpStats s = stats.get(op);
+        String error = null;
+        try {
+            HttpResponse<String> resp = client.send(request(op), HttpResponse.BodyHandlers.ofString());
+            if (resp.statusCode() >= 400 && !isExpectedMiss(op, resp.statusCode())) {
+                error = String.valueOf(resp.statusCode());
+            } else if (op == Operation.CREATE) {
+                projectIds.add(json.readTree(resp.body()).get("id").asLong());
+            }
+        } catch (Exception e) {
+            error = e.getClass().getSimpleName();
+        }
+        s.record(System.nanoTime() - intendedStart, error);
+    }
+
+    /** 404 на GET/UPDATE/DELETE возможен законно: проект удалили параллельной операцией. */
+    private static boolean isExpectedMiss(Operation op, int status) {
+        return status == 404 && (op == Operation.GET || op == Operation.UPDATE || op == Operation.DELETE);
+    }
+
+    private HttpRequest request(Operation op) throws IOException {
+        return switch (op) {
+            case LIST -> authorized("/api/projects?page=" + ThreadLocalRandom.current().nextInt(5) + "&size=20")
+                    .GET().build();
+            case GET -> authorized("/api/projects/" + anyProjectId()).GET().build();
+            case CREATE -> createRequest(anyToken());
+            case UPDATE -> authorized("/api/projects/" + anyProjectId())
+                    .PUT(body(projectJson())).build();
+            case DELETE -> {
+                Long id = projectIds.pollLast();
+                yield authorized("/api/projects/" + (id == null ? 0 : id)).DELETE().build();
+            }
+            case ME -> authorized("/api/me").GET().build();
+        };
+    }
+
+    private HttpRequest createRequest(String token) throws IOException {
+        return authorized("/api/projects", token).POST(body(projectJson())).build();
+    }
+
+    private String anyToken() {
+        return tokens.get(ThreadLocalRandom.current().nextInt(tokens.size()));
+    }
+
+    /**
+     * Равномерно по всем проектам снимка, а не голова/хвост очереди: иначе GET/UPDATE бьют в пару
+     * горячих строк (кэш, блокировки), и это не похоже на реальный доступ. Удалённый после снимка
+     * проект даёт 404 — см. {@link #isExpectedMiss}.
+     */
+    private long anyProjectId() {
+        long[] ids = idSnapshot;
+        return ids.length == 0 ? 0 : ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+
+    private void refreshIdSnapshot() {
+        idSnapshot = projectIds.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private String projectJson() throws IOException {
+        String suffix = UUID.randomUUID().toString();
+        return json.writeValueAsString(Map.of(
+                "name", "lt-" + suffix,
+                "description", "load test project " + suffix));
+    }
+
+    private HttpRequest.Builder jsonRequest(String path) {
+        return HttpRequest.newBuilder(base.resolve(path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json");
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+        return authorized(path, anyToken());
+    }
+
+    private HttpRequest.Builder authorized(String path, String token) {
+        return jsonRequest(path).header("Authorization", "Bearer " + token);
+    }
+
+    private static HttpRequest.BodyPublisher body(String s) {
+        return HttpRequest.BodyPublishers.ofString(s);
+    }
+
+    private static void expectSuccess(String step, HttpResponse<String> resp) {
+        if (resp.statusCode() >= 300) {
+            throw new IllegalStateException(step + " failed: HTTP " + resp.statusCode() + " " + resp.body());
+        }
+    }
+
+    // ===== отчёт =====
+
+    private Map<String, Object> report(double elapsedSeconds) {
+        Histogram overall = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        long total = 0;
+        long errors = 0;
+
+        Map<String, Object> ops = new LinkedHashMap<>();
+        for (var e : stats.entrySet()) {
+            OpStats s = e.getValue();
+            Histogram h = s.snapshot();
+            if (h.getTotalCount() == 0) {
+                continue;
+            }
+            overall.add(h);
+            total += h.getTotalCount();
+            errors += s.errors.sum();
+            Map<String, Object> op = summary(h, s.errors.sum());
+            op.put("errorsByStatus", s.errorsByStatus());
+            ops.put(e.getKey().name(), op);
+        }
+
+        double throughput = total / elapsedSeconds;
+        double errorRate = total == 0 ? 0 : (double) errors / total;
+        double p99Millis = overall.getValueAtPercentile(99.0) / 1e6;
+
+        Workload.Thresholds t = workload.thresholds();
+        List<String> violations = new ArrayList<>();
+        if (t != null) {
+            if (p99Millis > t.p99Millis()) {
+                violations.add(String.format("p99 %.1fms > %.1fms", p99Millis, t.p99Millis()));
+            }
+            if (throughput < workload.ratePerSecond() * t.minThroughputRatio()) {
+                violations.add(String.format("throughput %.1f req/s < %.0f%% of %d req/s",
+                        throughput, t.minThroughputRatio() * 100, workload.ratePerSecond()));
+            }
+            if (errorRate > t.maxErrorRate()) {
+                violations.add(String.format("error rate %.4f > %.4f", errorRate, t.maxErrorRate()));
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("workload", workload.name());
+        result.put("environment", environment());
+        result.put("users", workload.users());
+        result.put("targetRatePerSecond", workload.ratePerSecond());
+        result.put("throughputPerSecond", round(throughput));
+        result.put("errorRate", errorRate);
+        result.put("overall", summary(overall, errors));
+        result.put("operations", ops);
+        result.put("thresholds", t);
+        result.put("violations", violations);
+        return result;
+    }
+
+    /** Где снят отчёт: генератор, приложение и (при jdbcUrl) Postgres делят одну машину. */
+    private static Map<String, Object> environment() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("java", System.getProperty("java.vm.name") + " " + System.getProperty("java.runtime.version"));
+        m.put("os", System.getProperty("os.name") + " " + System.getProperty("os.arch"));
+        m.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        m.put("maxHeapMb", Runtime.getRuntime().maxMemory() / (1024 * 1024));
+        m.put("database", System.getProperty("loadtest.jdbcUrl", "").isBlank() ? "testcontainers postgres:16" : "external");
+        return m;
+    }
+
+    private static Map<String, Object> summary(Histogram h, long errors) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", h.getTotalCount());
+        m.put("errors", errors);
+        m.put("p50Ms", millis(h.getValueAtPercentile(50)));
+        m.put("p90Ms", millis(h.getValueAtPercentile(90)));
+        m.put("p99Ms", millis(h.getValueAtPercentile(99)));
+        m.put("p999Ms", millis(h.getValueAtPercentile(99.9)));
+        m.put("maxMs", millis(h.getMaxValue()));
+        return m;
+    }
+
+    private static double millis(long nanos) {
+        return round(nanos / 1e6);
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 1000) / 1000.0;
+    }
+
+    /**
+     * Гистограмма латентности и ошибки одной операции; пишется из многих потоков.
+     * Ошибки разложены по статусу (или классу исключения): 503 от лимита, 429 от fair-share
+     * и таймаут клиента — разные выводы о сервере.
+     */
+    private static final class OpStats {
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_NANOS, 3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<String, LongAdder> byStatus = new ConcurrentHashMap<>();
+
+        /** error — статус или исключение; null — успех. */
+        void record(long nanos, String error) {
+            recorder.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+            if (error != null) {
+                errors.increment();
+                byStatus.computeIfAbsent(error, k -> new LongAdder()).increment();
+            }
+        }
+
+        Map<String, Long> errorsByStatus() {
+            Map<String, Long> m = new TreeMap<>();
+            byStatus.forEach((k, v) -> m.put(k, v.sum()));
+            return m;
+        }
+
+        void reset() {
+            recorder.reset();
+            errors.reset();
+            byStatus.clear();
+        }
+
+        Histogram snapshot() {
+            return recorder.getIntervalHistogram();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.loadtest;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Описание нагрузки из workloads/*.json: rate, длительность, смесь операций и пороги.
+ * users — сколько пользователей делят rate: у каждого своя очередь fair-share и свой лимит
+ * одновременных запросов, один пользователь на 200 req/s мерил бы очередь, а не сервер.
+ */
+public record Workload(
+        String name,
+        String description,
+        int ratePerSecond,
+        int warmupSeconds,
+        int durationSeconds,
+        int seedProjects,
+        int users,
+        Map<Operation, Integer> mix,
+        Thresholds thresholds
+) {
+
+    public enum Operation { LIST, GET, CREATE, UPDATE, DELETE, ME }
+
+    public record Thresholds(double p99Millis, double minThroughputRatio, double maxErrorRate) { }
+
+    public static Workload load(String resource) throws IOException {
+        try (InputStream in = Workload.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Workload not found on classpath: " + resource);
+            }
+            Workload w = new ObjectMapper()
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true)
+                    .readValue(in, Workload.class);
+            if (w.ratePerSecond() <= 0 || w.durationSeconds() <= 0 || w.users() <= 0
+                    || w.mix() == null || w.mix().isEmpty()) {
+                throw new IllegalArgumentException("Workload " + resource + ": rate, duration, users and mix are required");
+            }
+            return w;
+        }
+    }
+
+    /** Взвешенный выбор операции по r ∈ [0, 1). */
+    public Operation pick(double r) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        double target = r * total;
+        double acc = 0;
+        Operation last = null;
+        for (var e : new EnumMap<>(mix).entrySet()) {
+            acc += e.getValue();
+            last = e.getKey();
+            if (target < acc) {
+                return e.getKey();
+            }
+        }
+        return last;
+    }
+}
@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.example.db.OnlineMigration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * V4: регистронезависимая уникальность имени проекта на уровне БД.
+ * Раньше уникальность проверялась только в сервисе (existsByNameIgnoreCase...),
+ * теперь 409 при update выводится из нарушения этого индекса — без лишнего SELECT.
+ *
+ * Сервис не защищал от гонок, так что дубликаты по lower(name) в старых данных возможны —
+ * с ними индекс не собрался бы. Поэтому сначала дедупликация: самый старый проект (меньший id)
+ * сохраняет имя, остальным к имени дописывается " (#id)". Такое имя само может быть занято
+ * (проект "Alpha (#2)" рядом с дубликатом "ALPHA" с id 2) — тогда берётся " (#id.2)", " (#id.3)"
+ * и т.д., занятость проверяется до каждого переименования. Индекс — CONCURRENTLY, запись в
+ * projects не блокируется. Если дубликат успеет появиться между шагами, сборка индекса упадёт на нём.
+ */
+public class V4__projects_name_unique_ci extends OnlineMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(V4__projects_name_unique_ci.class);
+
+    private static final int NAME_LENGTH = 100;
+
+    // все, кроме самого старого проекта в группе lower(name)
+    private static final String DUPLICATES = """
+            SELECT id, name
+            FROM (SELECT id, name, row_number() OVER (PARTITION BY lower(name) ORDER BY id) AS rn FROM projects) d
+            WHERE rn > 1
+            ORDER BY id
+            """;
+
+    @Override
+    protected void migrate(Connection c) throws SQLException {
+        int renamed = 0;
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery(DUPLICATES);
+             PreparedStatement taken = c.prepareStatement("SELECT 1 FROM projects WHERE lower(name) = lower(?)");
+             PreparedStatement rename = c.prepareStatement("UPDATE projects SET name = ? WHERE id = ?")) {
+            while (rs.next()) {
+                long id = rs.getLong("id");
+                String name = rs.getString("name");
+                String candidate = withSuffix(name, " (#" + id + ")");
+                // autocommit: уже выданные в этом проходе имена проверка тоже видит
+                for (int n = 2; isTaken(taken, candidate); n++) {
+                    candidate = withSuffix(name, " (#" + id + "." + n + ")");
+                }
+                rename.setString(1, candidate);
+                rename.setLong(2, id);
+                rename.executeUpdate();
+                renamed++;
+            }
+        }
+        if (renamed > 0) {
+            log.warn("V4: renamed {} project(s) whose names duplicated an older project ignoring case", renamed);
+        }
+        createUniqueIndexConcurrently(c, "ux_projects_name_ci", "projects", "(lower(name))");
+    }
+
+    // name — VARCHAR(100): суффикс не должен вытолкнуть значение за длину колонки
+    private static String withSuffix(String name, String suffix) {
+        int keep = Math.min(name.length(), NAME_LENGTH - suffix.length());
+        // не режем суррогатную пару пополам
+        if (keep > 0 && Character.isHighSurrogate(name.charAt(keep - 1))) {
+            keep--;
+        }
+        return name.substring(0, keep) + suffix;
+    }
+
+    private static boolean isTaken(PreparedStatement taken, String name) throws SQLException {
+        taken.setString(1, name);
+        try (ResultSet rs = taken.executeQuery()) {
+            return rs.next();
+        }
+    }
+}
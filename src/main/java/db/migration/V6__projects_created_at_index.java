@@ -0,0 +1,15 @@
+package db.migration;
+
+import org.example.db.OnlineMigration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/** V6: индекс для сортировки/фильтра проектов по дате создания — без блокировки записи. */
+public class V6__projects_created_at_index extends OnlineMigration {
+
+    @Override
+    protected void migrate(Connection c) throws SQLException {
+        createIndexConcurrently(c, "idx_projects_created_at", "projects", "(created_at)");
+    }
+}
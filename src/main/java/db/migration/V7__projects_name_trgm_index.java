@@ -0,0 +1,20 @@
+package db.migration;
+
+import org.example.db.OnlineMigration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * V7: триграммный индекс для поиска подстроки в имени проекта (name ILIKE '%q%').
+ * Точный поиск без учёта регистра уже покрыт ux_projects_name_ci (V4, lower(name)).
+ */
+public class V7__projects_name_trgm_index extends OnlineMigration {
+
+    @Override
+    protected void migrate(Connection c) throws SQLException {
+        // pg_trgm — trusted extension (PG 13+), владельцу БД суперпользователь не нужен
+        execute(c, "CREATE EXTENSION IF NOT EXISTS pg_trgm");
+        createIndexConcurrently(c, "idx_projects_name_trgm", "projects", "USING gin (lower(name) gin_trgm_ops)");
+    }
+}
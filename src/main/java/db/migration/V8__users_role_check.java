@@ -0,0 +1,20 @@
+package db.migration;
+
+import org.example.db.OnlineMigration;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * V8: допустимые роли на уровне БД. Только NOT VALID: новые и изменённые строки проверяются сразу,
+ * старые роли приводит к виду enum и затем валидирует constraint фоновый
+ * {@link org.example.db.UsersRoleBackfill} — без блокировки записи в users и без падения миграции
+ * на исторических данных.
+ */
+public class V8__users_role_check extends OnlineMigration {
+
+    @Override
+    protected void migrate(Connection c) throws SQLException {
+        addConstraintNotValid(c, "users", "ck_users_role", "CHECK (role IN ('USER', 'ADMIN'))");
+    }
+}
@@ -3,9 +3,28 @@ package org.example;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.example.config.AdaptivePoolProperties;
+import org.example.config.BackfillProperties;
+import org.example.config.BatchProperties;
+import org.example.config.BulkheadProperties;
+import org.example.config.ConcurrencyLimitProperties;
+import org.example.config.ConnectionProfilerProperties;
+import org.example.config.DeadlineProperties;
+import org.example.config.ErrorProperties;
+import org.example.config.FairShareProperties;
+import org.example.config.HealthProperties;
 import org.example.config.JwtProperties;
+import org.example.config.MetricsProperties;
+import org.example.config.ServerTimingProperties;
+import org.example.config.SlowQueryProperties;
+import org.example.config.SqlStatsProperties;
+import org.example.config.WarmupProperties;
 
-@EnableConfigurationProperties({ JwtProperties.class })
+@EnableConfigurationProperties({ AdaptivePoolProperties.class, BackfillProperties.class, BatchProperties.class,
+        BulkheadProperties.class, ConcurrencyLimitProperties.class, ConnectionProfilerProperties.class,
+        DeadlineProperties.class, ErrorProperties.class, FairShareProperties.class, HealthProperties.class,
+        JwtProperties.class, MetricsProperties.class, ServerTimingProperties.class, SlowQueryProperties.class,
+        SqlStatsProperties.class, WarmupProperties.class })
 @SpringBootApplication
 public class AiEntrepreneurApplication {
     public static void main(String[] args) {
@@ -0,0 +1,314 @@
+package org.example.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.BatchProperties;
+import org.example.dto.BatchRequest;
+import org.example.dto.BatchResponse;
+import org.example.exception.ApiError;
+import org.example.exception.BadRequestException;
+import org.example.exception.ErrorTimestamps;
+import org.example.overload.BatchAdmission;
+import org.example.overload.ContextPropagation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.access.WebInvocationPrivilegeEvaluator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Выполняет под-запросы POST /api/batch внутри процесса — через тот же DispatcherServlet, то есть
+ * через те же контроллеры, валидацию, @PreAuthorize и GlobalExceptionHandler. Фильтры не повторяются:
+ * JWT проверен один раз для всего батча, а URL-правила SecurityConfig проверяются для каждого
+ * под-запроса через WebInvocationPrivilegeEvaluator. Защита от перегрузки — тоже по под-запросу
+ * ({@link BatchAdmission}): свой класс приоритета, своя стоимость ?size= и своя полоса bulkhead;
+ * отказ — 429/503 у этого под-запроса, остальные выполняются.
+ *
+ * Порядок: под-запросы идут по очереди, но подряд идущие GET — независимые чтения — выполняются
+ * одновременно на виртуальных потоках (не больше max-concurrency). Запись — барьер: она видит
+ * результат всех предыдущих под-запросов, а следующие — её результат.
+ *
+ * atomic=true — всё по порядку в потоке запроса внутри одной транзакции: сервисы с @Transactional
+ * присоединяются к ней; на первом ответе 4xx/5xx транзакция откатывается, остальные получают 424.
+ * Такой батч допускается целиком: сумма стоимостей и одна полоса на всю транзакцию.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BatchDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchDispatcher.class);
+
+    private static final List<String> ENCODED_SEPARATORS = List.of("%2f", "%5c", "%2e", "%25", "%3b");
+
+    private final BatchProperties props;
+    private final DispatcherServlet dispatcher;
+    private final WebInvocationPrivilegeEvaluator privileges;
+    private final BatchAdmission admission;
+    private final TransactionTemplate tx;
+    private final ObjectMapper objectMapper;
+    private final DistributionSummary size;
+    private final Counter rolledBack;
+
+    public BatchDispatcher(BatchProperties props,
+                           DispatcherServlet dispatcher,
+                           WebInvocationPrivilegeEvaluator privileges,
+                           BatchAdmission admission,
+                           PlatformTransactionManager txManager,
+                           ObjectMapper objectMapper,
+                           MeterRegistry registry) {
+        this.props = props;
+        this.dispatcher = dispatcher;
+        this.privileges = privileges;
+        this.admission = admission;
+        this.tx = new TransactionTemplate(txManager);
+        this.objectMapper = objectMapper;
+        this.size = DistributionSummary.builder("http.server.batch.size")
+                .description("Sub-requests per /api/batch call")
+                .register(registry);
+        this.rolledBack = Counter.builder("http.server.batch.rolled.back")
+                .description("Atomic batches rolled back because a sub-request failed")
+                .register(registry);
+    }
+
+    public BatchResponse execute(BatchRequest batch, HttpServletRequest request, HttpServletResponse response) {
+        List<BatchRequest.Item> items = batch.requests();
+        if (items.size() > props.getMaxRequests()) {
+            throw new BadRequestException(
+                    "Too many sub-requests: " + items.size() + " (max " + props.getMaxRequests() + ")");
+        }
+        size.record(items.size());
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        return batch.atomic()
+                ? executeAtomic(items, request, response, auth)
+                : executeGrouped(items, request, response, auth);
+    }
+
+    private BatchResponse executeAtomic(List<BatchRequest.Item> items, HttpServletRequest request,
+                                        HttpServletResponse response, Authentication auth) {
+        BatchResponse.Item[] results = new BatchResponse.Item[items.size()];
+        List<SubRequest> subs = items.stream()
+                .map(item -> new SubRequest(request, item.method().toUpperCase(Locale.ROOT), item.path(), null))
+                .toList();
+        try (BatchAdmission.Permit permit = admission.admitAll(subs, auth)) {
+            if (!permit.isGranted()) {
+                for (int i = 0; i < items.size(); i++) {
+                    results[i] = error(items.get(i), permit.status(), permit.reason());
+                }
+                // не выполнен ни один под-запрос — для клиента то же, что откат
+                return new BatchResponse(Arrays.asList(results), true);
+            }
+            return executeAdmitted(items, results, request, response, auth);
+        }
+    }
+
+    private BatchResponse executeAdmitted(List<BatchRequest.Item> items, BatchResponse.Item[] results,
+                                          HttpServletRequest request, HttpServletResponse response,
+                                          Authentication auth) {
+        Boolean failed = tx.execute(status -> {
+            for (int i = 0; i < items.size(); i++) {
+                results[i] = dispatch(items.get(i), request, response, auth, false);
+                if (results[i].status() >= 400) {
+                    status.setRollbackOnly();
+                    for (int j = i + 1; j < items.size(); j++) {
+                        results[j] = error(items.get(j), HttpStatus.FAILED_DEPENDENCY,
+                                "Not executed: sub-request " + i + " failed");
+                    }
+                    return true;
+                }
+            }
+            return false;
+        });
+        if (Boolean.TRUE.equals(failed)) {
+            rolledBack.increment();
+        }
+        return new BatchResponse(Arrays.asList(results), Boolean.TRUE.equals(failed));
+    }
+
+    private BatchResponse executeGrouped(List<BatchRequest.Item> items, HttpServletRequest request,
+                                         HttpServletResponse response, Authentication auth) {
+        BatchResponse.Item[] results = new BatchResponse.Item[items.size()];
+        int i = 0;
+        while (i < items.size()) {
+            int end = i;
+            while (end < items.size() && isRead(items.get(end))) {
+                end++;
+            }
+            if (end - i > 1) {
+                runConcurrently(items, i, end, results, request, response, auth);
+                i = end;
+            } else {
+                results[i] = dispatch(items.get(i), request, response, auth, true);
+                i++;
+            }
+        }
+        return new BatchResponse(Arrays.asList(results), false);
+    }
+
+    private void runConcurrently(List<BatchRequest.Item> items, int from, int to, BatchResponse.Item[] results,
+                                 HttpServletRequest request, HttpServletResponse response, Authentication auth) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        Semaphore permits = new Semaphore(Math.max(1, props.getMaxConcurrency()));
+        List<Future<BatchResponse.Item>> futures = new ArrayList<>(to - from);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = from; i < to; i++) {
+                BatchRequest.Item item = items.get(i);
+                futures.add(executor.submit(ContextPropagation.wrap(() -> {
+                    permits.acquire();
+                    SecurityContextHolder.setContext(context);
+                    try {
+                        return dispatch(item, request, response, auth, true);
+                    } finally {
+                        SecurityContextHolder.clearContext();
+                        permits.release();
+                    }
+                })));
+            }
+        }
+        for (int i = from; i < to; i++) {
+            results[i] = await(futures.get(i - from), items.get(i));
+        }
+    }
+
+    private BatchResponse.Item await(Future<BatchResponse.Item> future, BatchRequest.Item item) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(item, HttpStatus.SERVICE_UNAVAILABLE, "Interrupted");
+        } catch (ExecutionException e) {
+            log.error("Batch sub-request {} {} failed", item.method(), item.path(), e.getCause());
+            return error(item, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+        }
+    }
+
+    /** admit=false — под-запрос atomic-батча: допуск уже выдан на весь батч. */
+    private BatchResponse.Item dispatch(BatchRequest.Item item, HttpServletRequest request,
+                                        HttpServletResponse response, Authentication auth, boolean admit) {
+        String method = item.method().toUpperCase(Locale.ROOT);
+
+        byte[] body;
+        try {
+            body = item.body() == null || item.body().isNull() ? null : objectMapper.writeValueAsBytes(item.body());
+        } catch (Exception e) {
+            return error(item, HttpStatus.BAD_REQUEST, "Malformed sub-request body");
+        }
+
+        if (!isDispatchable(item.path())) {
+            return error(item, HttpStatus.BAD_REQUEST, "Sub-request path must be under /api/ and not /api/batch");
+        }
+        SubRequest sub = new SubRequest(request, method, item.path(), body);
+        if (!privileges.isAllowed(request.getContextPath(), sub.path(), method, auth)) {
+            return error(item, HttpStatus.FORBIDDEN, "Access denied");
+        }
+
+        if (!admit) {
+            return service(item, sub, response);
+        }
+        try (BatchAdmission.Permit permit = admission.admit(sub, auth)) {
+            return permit.isGranted()
+                    ? service(item, sub, response)
+                    : error(item, permit.status(), permit.reason());
+        }
+    }
+
+    private BatchResponse.Item service(BatchRequest.Item item, SubRequest sub, HttpServletResponse response) {
+        CapturedResponse captured = new CapturedResponse(response);
+        try {
+            dispatcher.service(sub, captured);
+        } catch (Exception e) {
+            // сюда доходит только то, что не разрешил ни один HandlerExceptionResolver
+            log.error("Batch sub-request {} {} failed", sub.getMethod(), sub.path(), e);
+            return error(item, HttpStatus.INTERNAL_SERVER_ERROR, "Unexpected error");
+        }
+        return new BatchResponse.Item(captured.status(), captured.headers(), jsonBody(captured));
+    }
+
+    private String jsonBody(CapturedResponse captured) {
+        String text = captured.bodyAsString();
+        if (text.isEmpty()) {
+            return null;
+        }
+        if (captured.contentType() != null
+                && MediaType.parseMediaType(captured.contentType()).isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            return text;
+        }
+        return quote(text);
+    }
+
+    private BatchResponse.Item error(BatchRequest.Item item, HttpStatus status, String message) {
+        ApiError body = new ApiError(ErrorTimestamps.now(), item.path(), status.getReasonPhrase(), message);
+        try {
+            return new BatchResponse.Item(status.value(),
+                    Map.of("Content-Type", MediaType.APPLICATION_JSON_VALUE),
+                    objectMapper.writeValueAsString(body));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String quote(String text) {
+        try {
+            return objectMapper.writeValueAsString(text);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Путь под-запроса (до "?") проверяется до разбора и до проверки прав. Privilege evaluator и DispatcherServlet
+     * не нормализуют путь так, как это делает контейнер для внешних запросов, поэтому
+     * "/api/../actuator/..." или "/api;x/..." прошли бы проверку префикса и сопоставились бы не с тем
+     * правилом. Такие пути не приводим к каноническому виду, а отклоняем: точки-сегменты,
+     * пустые сегменты ("//"), параметры пути (";"), обратный слэш и закодированные "/", "\", ".", ";" и "%".
+     */
+    static boolean isDispatchable(String pathAndQuery) {
+        int query = pathAndQuery.indexOf('?');
+        String path = query < 0 ? pathAndQuery : pathAndQuery.substring(0, query);
+        if (!path.startsWith("/api/") || path.startsWith("/api/batch")) {
+            return false;
+        }
+        if (path.contains("//") || path.indexOf(';') >= 0 || path.indexOf('\\') >= 0) {
+            return false;
+        }
+        String lower = path.toLowerCase(Locale.ROOT);
+        for (String encoded : ENCODED_SEPARATORS) {
+            if (lower.contains(encoded)) {
+                return false;
+            }
+        }
+        for (String segment : path.split("/", -1)) {
+            if (segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isRead(BatchRequest.Item item) {
+        return HttpMethod.GET.name().equalsIgnoreCase(item.method());
+    }
+}
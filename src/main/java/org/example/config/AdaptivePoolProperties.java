@@ -0,0 +1,65 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.pool.adaptive")
+public class AdaptivePoolProperties {
+    private boolean enabled = false;                              // по умолчанию размер пула статический
+    private Duration interval = Duration.ofSeconds(5);            // шаг контроллера
+    private int minSize = 2;
+    private int maxSize = 20;
+    private int increaseStep = 1;                                 // AIMD: +step при очереди за соединением...
+    private double decreaseFactor = 0.75;                         // ...×factor при перегрузке БД
+    private double latencyIncreaseCeiling = 1.2;                  // растём, пока latency < baseline × это
+    private double latencyDecreaseFloor = 1.5;                    // режем, если latency > baseline × это
+    private double lowUtilization = 0.5;                          // active/size ниже этого...
+    private int shrinkAfterTicks = 3;                             // ...столько шагов подряд → -1
+    private double cpuHigh = 0.85;                                // CPU процесса выше — не растём
+    private Duration acquireWaitThreshold = Duration.ofMillis(5); // среднее ожидание соединения = «очередь»
+    private int baselineWindow = 60;                              // baseline — по стольким последним шагам без очереди...
+    private double baselinePercentile = 0.5;                      // ...вот этот перцентиль их латентности
+
+    public int getBaselineWindow() { return baselineWindow; }
+    public void setBaselineWindow(int baselineWindow) { this.baselineWindow = baselineWindow; }
+
+    public double getBaselinePercentile() { return baselinePercentile; }
+    public void setBaselinePercentile(double baselinePercentile) { this.baselinePercentile = baselinePercentile; }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getInterval() { return interval; }
+    public void setInterval(Duration interval) { this.interval = interval; }
+
+    public int getMinSize() { return minSize; }
+    public void setMinSize(int minSize) { this.minSize = minSize; }
+
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+
+    public int getIncreaseStep() { return increaseStep; }
+    public void setIncreaseStep(int increaseStep) { this.increaseStep = increaseStep; }
+
+    public double getDecreaseFactor() { return decreaseFactor; }
+    public void setDecreaseFactor(double decreaseFactor) { this.decreaseFactor = decreaseFactor; }
+
+    public double getLatencyIncreaseCeiling() { return latencyIncreaseCeiling; }
+    public void setLatencyIncreaseCeiling(double latencyIncreaseCeiling) { this.latencyIncreaseCeiling = latencyIncreaseCeiling; }
+
+    public double getLatencyDecreaseFloor() { return latencyDecreaseFloor; }
+    public void setLatencyDecreaseFloor(double latencyDecreaseFloor) { this.latencyDecreaseFloor = latencyDecreaseFloor; }
+
+    public double getLowUtilization() { return lowUtilization; }
+    public void setLowUtilization(double lowUtilization) { this.lowUtilization = lowUtilization; }
+
+    public int getShrinkAfterTicks() { return shrinkAfterTicks; }
+    public void setShrinkAfterTicks(int shrinkAfterTicks) { this.shrinkAfterTicks = shrinkAfterTicks; }
+
+    public double getCpuHigh() { return cpuHigh; }
+    public void setCpuHigh(double cpuHigh) { this.cpuHigh = cpuHigh; }
+
+    public Duration getAcquireWaitThreshold() { return acquireWaitThreshold; }
+    public void setAcquireWaitThreshold(Duration acquireWaitThreshold) { this.acquireWaitThreshold = acquireWaitThreshold; }
+}
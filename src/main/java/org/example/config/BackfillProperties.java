@@ -0,0 +1,29 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.backfill")
+public class BackfillProperties {
+    private boolean enabled = true;                             // запускать backfill-задачи после старта
+    private int batchSize = 1000;                               // строк за одну транзакцию
+    private Duration pause = Duration.ofMillis(100);            // пауза между батчами — не выедаем IO/реплику
+    private Duration lockedRetry = Duration.ofSeconds(30);      // задачу держит другой инстанс — ждём столько
+    private int logEvery = 50;                                  // прогресс в лог раз в N батчей
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public Duration getPause() { return pause; }
+    public void setPause(Duration pause) { this.pause = pause; }
+
+    public Duration getLockedRetry() { return lockedRetry; }
+    public void setLockedRetry(Duration lockedRetry) { this.lockedRetry = lockedRetry; }
+
+    public int getLogEvery() { return logEvery; }
+    public void setLogEvery(int logEvery) { this.logEvery = logEvery; }
+}
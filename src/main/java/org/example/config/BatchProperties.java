@@ -0,0 +1,19 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.batch")
+public class BatchProperties {
+    private boolean enabled = true;
+    private int maxRequests = 20;   // под-запросов в одном POST /api/batch; больше — 400
+    private int maxConcurrency = 4; // сколько соседних GET одного батча выполняются одновременно
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxRequests() { return maxRequests; }
+    public void setMaxRequests(int maxRequests) { this.maxRequests = maxRequests; }
+
+    public int getMaxConcurrency() { return maxConcurrency; }
+    public void setMaxConcurrency(int maxConcurrency) { this.maxConcurrency = maxConcurrency; }
+}
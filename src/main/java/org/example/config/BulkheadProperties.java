@@ -0,0 +1,46 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.bulkhead")
+public class BulkheadProperties {
+    private boolean enabled = true;
+    private List<Lane> lanes = new ArrayList<>();      // первый совпавший по шаблону; вне полос — без ограничений
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public List<Lane> getLanes() { return lanes; }
+    public void setLanes(List<Lane> lanes) { this.lanes = lanes; }
+
+    public static class Lane {
+        private String name;
+        private List<String> patterns = new ArrayList<>();      // "POST /api/auth/**", "GET /api/**"
+        private int maxConcurrent = 50;                          // одновременных запросов в полосе
+        private Duration maxWait = Duration.ofMillis(200);       // ждать места в полосе, потом 503
+        private int maxConnections = 0;                          // соединений пула на полосу; 0 — без квоты
+        private Duration connectionWait = Duration.ofSeconds(1); // ждать квоты соединений, потом SQLTransientConnectionException
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public List<String> getPatterns() { return patterns; }
+        public void setPatterns(List<String> patterns) { this.patterns = patterns; }
+
+        public int getMaxConcurrent() { return maxConcurrent; }
+        public void setMaxConcurrent(int maxConcurrent) { this.maxConcurrent = maxConcurrent; }
+
+        public Duration getMaxWait() { return maxWait; }
+        public void setMaxWait(Duration maxWait) { this.maxWait = maxWait; }
+
+        public int getMaxConnections() { return maxConnections; }
+        public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+
+        public Duration getConnectionWait() { return connectionWait; }
+        public void setConnectionWait(Duration connectionWait) { this.connectionWait = connectionWait; }
+    }
+}
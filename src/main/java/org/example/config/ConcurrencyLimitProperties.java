@@ -0,0 +1,74 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    private boolean enabled = true;
+    private int initialLimit = 50;                      // стартовый лимит одновременных запросов
+    private int minLimit = 10;
+    private int maxLimit = 500;
+    private double tolerance = 2.0;                     // во сколько раз латентность может превысить long-RTT без сжатия лимита
+    private double smoothing = 0.2;                     // доля нового значения лимита за шаг
+    private Duration window = Duration.ofSeconds(1);    // окно усреднения RTT
+    private int minWindowSamples = 10;                  // меньше замеров в окне — шаг пропускаем
+    private int longWindow = 100;                       // окон в экспоненциальном long-RTT
+    private Duration retryAfter = Duration.ofSeconds(1);
+    private double defaultShare = 0.9;                  // доля лимита для запросов вне priority-классов
+    private List<PriorityClass> priorities = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public double getTolerance() { return tolerance; }
+    public void setTolerance(double tolerance) { this.tolerance = tolerance; }
+
+    public double getSmoothing() { return smoothing; }
+    public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+    public Duration getWindow() { return window; }
+    public void setWindow(Duration window) { this.window = window; }
+
+    public int getMinWindowSamples() { return minWindowSamples; }
+    public void setMinWindowSamples(int minWindowSamples) { this.minWindowSamples = minWindowSamples; }
+
+    public int getLongWindow() { return longWindow; }
+    public void setLongWindow(int longWindow) { this.longWindow = longWindow; }
+
+    public Duration getRetryAfter() { return retryAfter; }
+    public void setRetryAfter(Duration retryAfter) { this.retryAfter = retryAfter; }
+
+    public double getDefaultShare() { return defaultShare; }
+    public void setDefaultShare(double defaultShare) { this.defaultShare = defaultShare; }
+
+    public List<PriorityClass> getPriorities() { return priorities; }
+    public void setPriorities(List<PriorityClass> priorities) { this.priorities = priorities; }
+
+    public static class PriorityClass {
+        private String name;
+        private double share = 1.0;                     // запрос класса пропускается, пока in-flight < limit × share
+        private List<String> patterns = new ArrayList<>(); // "/api/auth/**" или "GET /api/projects"
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+
+        public double getShare() { return share; }
+        public void setShare(double share) { this.share = share; }
+
+        public List<String> getPatterns() { return patterns; }
+        public void setPatterns(List<String> patterns) { this.patterns = patterns; }
+    }
+}
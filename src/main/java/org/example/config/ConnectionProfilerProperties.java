@@ -0,0 +1,29 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.connection-profiler")
+public class ConnectionProfilerProperties {
+    private boolean enabled = true;                              // ожидание/удержание соединений по эндпоинтам
+    private Duration holdThreshold = Duration.ofMillis(250);     // дольше держим соединение — снимаем стек
+    private Duration checkInterval = Duration.ofMillis(200);     // как часто искать долгие удержания
+    private int stackDepth = 40;                                 // кадров в снимке стека
+    private boolean forbidOpenInView = true;                     // падать на старте, если OSIV включён
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getHoldThreshold() { return holdThreshold; }
+    public void setHoldThreshold(Duration holdThreshold) { this.holdThreshold = holdThreshold; }
+
+    public Duration getCheckInterval() { return checkInterval; }
+    public void setCheckInterval(Duration checkInterval) { this.checkInterval = checkInterval; }
+
+    public int getStackDepth() { return stackDepth; }
+    public void setStackDepth(int stackDepth) { this.stackDepth = stackDepth; }
+
+    public boolean isForbidOpenInView() { return forbidOpenInView; }
+    public void setForbidOpenInView(boolean forbidOpenInView) { this.forbidOpenInView = forbidOpenInView; }
+}
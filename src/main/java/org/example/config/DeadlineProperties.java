@@ -0,0 +1,36 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.deadline")
+public class DeadlineProperties {
+    private boolean enabled = true;
+    private Duration defaultTimeout = Duration.ofSeconds(10);   // дедлайн запроса, если не задан ниже
+    private Duration maxTimeout = Duration.ofSeconds(30);       // потолок для заголовка клиента
+    private String header = "X-Request-Timeout";                // "1500", "1500ms", "2s"
+    private Duration watchdogInterval = Duration.ofMillis(100); // как часто отменять SQL просроченных запросов
+    // шаблон маршрута (RoutePattern: "GET /api/projects") → дедлайн; первый совпавший
+    private Map<String, Duration> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getDefaultTimeout() { return defaultTimeout; }
+    public void setDefaultTimeout(Duration defaultTimeout) { this.defaultTimeout = defaultTimeout; }
+
+    public Duration getMaxTimeout() { return maxTimeout; }
+    public void setMaxTimeout(Duration maxTimeout) { this.maxTimeout = maxTimeout; }
+
+    public String getHeader() { return header; }
+    public void setHeader(String header) { this.header = header; }
+
+    public Duration getWatchdogInterval() { return watchdogInterval; }
+    public void setWatchdogInterval(Duration watchdogInterval) { this.watchdogInterval = watchdogInterval; }
+
+    public Map<String, Duration> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Duration> endpoints) { this.endpoints = endpoints; }
+}
@@ -0,0 +1,11 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.errors")
+public class ErrorProperties {
+    private boolean stackTraces = false; // снимать стек у DomainException (404/409/503) — только для отладки
+
+    public boolean isStackTraces() { return stackTraces; }
+    public void setStackTraces(boolean stackTraces) { this.stackTraces = stackTraces; }
+}
@@ -0,0 +1,51 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.fair-share")
+public class FairShareProperties {
+    private boolean enabled = true;
+    private int capacity = 32;                          // одновременных запросов (в единицах стоимости) на всех
+    private int maxInFlightPerPrincipal = 8;            // столько может выполняться у одного пользователя
+    private int maxQueuedPerPrincipal = 20;             // больше в очереди пользователя — 429
+    private int maxQueued = 2000;                       // всего ждущих; больше — 503 (и предел памяти на очереди)
+    private Duration queueTimeout = Duration.ofSeconds(2);
+    private int quantum = 1;                            // DRR: прибавка к дефициту за проход, × вес
+    private int costPageSize = 100;                     // ?size=N стоит ceil(N / cost-page-size) единиц
+    private Map<String, Integer> weights = new LinkedHashMap<>(); // роль (без ROLE_) → вес; по умолчанию 1
+    private int topQueues = 20;                         // сколько самых длинных очередей отдавать в /actuator/fairshare
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public int getMaxInFlightPerPrincipal() { return maxInFlightPerPrincipal; }
+    public void setMaxInFlightPerPrincipal(int maxInFlightPerPrincipal) { this.maxInFlightPerPrincipal = maxInFlightPerPrincipal; }
+
+    public int getMaxQueuedPerPrincipal() { return maxQueuedPerPrincipal; }
+    public void setMaxQueuedPerPrincipal(int maxQueuedPerPrincipal) { this.maxQueuedPerPrincipal = maxQueuedPerPrincipal; }
+
+    public int getMaxQueued() { return maxQueued; }
+    public void setMaxQueued(int maxQueued) { this.maxQueued = maxQueued; }
+
+    public Duration getQueueTimeout() { return queueTimeout; }
+    public void setQueueTimeout(Duration queueTimeout) { this.queueTimeout = queueTimeout; }
+
+    public int getQuantum() { return quantum; }
+    public void setQuantum(int quantum) { this.quantum = quantum; }
+
+    public int getCostPageSize() { return costPageSize; }
+    public void setCostPageSize(int costPageSize) { this.costPageSize = costPageSize; }
+
+    public Map<String, Integer> getWeights() { return weights; }
+    public void setWeights(Map<String, Integer> weights) { this.weights = weights; }
+
+    public int getTopQueues() { return topQueues; }
+    public void setTopQueues(int topQueues) { this.topQueues = topQueues; }
+}
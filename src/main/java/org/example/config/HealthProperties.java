@@ -0,0 +1,36 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.health")
+public class HealthProperties {
+    private final Db db = new Db();
+    private final Pool pool = new Pool();
+
+    public Db getDb() { return db; }
+    public Pool getPool() { return pool; }
+
+    public static class Db {
+        private Duration interval = Duration.ofSeconds(10);  // как часто проверять БД в фоне
+        private Duration timeout = Duration.ofSeconds(2);    // Connection.isValid(timeout)
+        private Duration maxAge = Duration.ofSeconds(30);    // старше — результат считаем протухшим (DOWN)
+
+        public Duration getInterval() { return interval; }
+        public void setInterval(Duration interval) { this.interval = interval; }
+
+        public Duration getTimeout() { return timeout; }
+        public void setTimeout(Duration timeout) { this.timeout = timeout; }
+
+        public Duration getMaxAge() { return maxAge; }
+        public void setMaxAge(Duration maxAge) { this.maxAge = maxAge; }
+    }
+
+    public static class Pool {
+        private int maxWaiting = 5;   // столько потоков в очереди за соединением → readiness OUT_OF_SERVICE
+
+        public int getMaxWaiting() { return maxWaiting; }
+        public void setMaxWaiting(int maxWaiting) { this.maxWaiting = maxWaiting; }
+    }
+}
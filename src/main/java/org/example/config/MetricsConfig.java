@@ -0,0 +1,56 @@
+package org.example.config;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.example.observability.Endpoints;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+public class MetricsConfig {
+
+    // http.server.requests + тег handler="ProjectRestController.list" → таймер на каждый метод контроллера
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and(KeyValue.of("handler", Endpoints.describe(context.getCarrier())));
+            }
+        };
+    }
+
+    // Свои SLO-бакеты для отдельных uri (app.metrics.endpoint-slo), поверх общих management.metrics.distribution.slo
+    @Bean
+    public MeterFilter endpointSloMeterFilter(MetricsProperties props) {
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (!"http.server.requests".equals(id.getName())) {
+                    return config;
+                }
+                String uri = id.getTag("uri");
+                List<Duration> slo = uri == null ? null : props.getEndpointSlo().get(uri);
+                if (slo == null || slo.isEmpty()) {
+                    return config;
+                }
+                // Для таймеров границы задаются в наносекундах
+                double[] buckets = slo.stream().mapToDouble(d -> (double) d.toNanos()).toArray();
+                return DistributionStatisticConfig.builder()
+                        .serviceLevelObjectives(buckets)
+                        .build()
+                        .merge(config);
+            }
+        };
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "app.metrics")
+public class MetricsProperties {
+    // SLO-бакеты http.server.requests для отдельных эндпоинтов: uri-шаблон → границы
+    private Map<String, List<Duration>> endpointSlo = new LinkedHashMap<>();
+
+    public Map<String, List<Duration>> getEndpointSlo() { return endpointSlo; }
+    public void setEndpointSlo(Map<String, List<Duration>> endpointSlo) { this.endpointSlo = endpointSlo; }
+}
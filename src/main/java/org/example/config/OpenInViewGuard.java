@@ -0,0 +1,50 @@
+package org.example.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewFilter;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
+import org.springframework.stereotype.Component;
+
+/**
+ * app.connection-profiler.forbid-open-in-view=true: старт падает, если соединение может
+ * пережить транзакцию и висеть до конца HTTP-запроса (сериализация, BCrypt и т.п.):
+ * включён OSIV (spring.jpa.open-in-view) или hibernate.enable_lazy_load_no_trans.
+ *
+ * Без OSIV эндпоинт, который лениво догружает связи вне транзакции, получает
+ * LazyInitializationException — такие места всплывают на интеграционных тестах.
+ */
+@Component
+public class OpenInViewGuard implements SmartInitializingSingleton {
+
+    private final ConnectionProfilerProperties props;
+    private final Environment env;
+    private final ObjectProvider<OpenEntityManagerInViewInterceptor> interceptors;
+    private final ObjectProvider<OpenEntityManagerInViewFilter> filters;
+
+    public OpenInViewGuard(ConnectionProfilerProperties props,
+                           Environment env,
+                           ObjectProvider<OpenEntityManagerInViewInterceptor> interceptors,
+                           ObjectProvider<OpenEntityManagerInViewFilter> filters) {
+        this.props = props;
+        this.env = env;
+        this.interceptors = interceptors;
+        this.filters = filters;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!props.isForbidOpenInView()) {
+            return;
+        }
+        if (interceptors.stream().findAny().isPresent() || filters.stream().findAny().isPresent()) {
+            throw new IllegalStateException("Open Session In View is enabled, but "
+                    + "app.connection-profiler.forbid-open-in-view=true: set spring.jpa.open-in-view=false");
+        }
+        if (env.getProperty("spring.jpa.properties.hibernate.enable_lazy_load_no_trans", Boolean.class, false)) {
+            throw new IllegalStateException("hibernate.enable_lazy_load_no_trans is enabled, but "
+                    + "app.connection-profiler.forbid-open-in-view=true");
+        }
+    }
+}
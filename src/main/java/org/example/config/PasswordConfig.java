@@ -1,5 +1,7 @@
 package org.example.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.security.TimedPasswordEncoder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -8,7 +10,8 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Configuration
 public class PasswordConfig {
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(); // по умолчанию strength=10
+    public PasswordEncoder passwordEncoder(MeterRegistry registry) {
+        // по умолчанию strength=10; обёртка пишет латентность в password.encoder
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), registry);
     }
-}
\ No newline at end of file
+}
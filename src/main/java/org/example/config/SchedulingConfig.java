@@ -0,0 +1,9 @@
+package org.example.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling // фоновые задачи: проверка БД для health и т.п. (размер пула — spring.task.scheduling.pool.size)
+public class SchedulingConfig {
+}
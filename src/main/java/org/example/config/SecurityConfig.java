@@ -1,9 +1,14 @@
 package org.example.config;
 
+import org.example.overload.BulkheadFilter;
+import org.example.overload.ConcurrencyLimitFilter;
+import org.example.overload.FairShareFilter;
 import org.example.security.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,6 +16,7 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -28,7 +34,16 @@ public class SecurityConfig {
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http,
-                                                   JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+                                                   JwtAuthenticationFilter jwtAuthenticationFilter,
+                                                   ConcurrencyLimitFilter concurrencyLimitFilter,
+                                                   FairShareFilter fairShareFilter,
+                                                   BulkheadFilter bulkheadFilter,
+                                                   @Value("${server.port:8080}") int serverPort,
+                                                   @Value("${management.server.port:-1}") int managementPort)
+            throws Exception {
+        // отдельный management-порт: Boot вешает на него ту же цепочку, различаем по локальному порту
+        boolean separateManagementPort = managementPort > 0 && managementPort != serverPort;
+
         http
                 .cors(Customizer.withDefaults())
                 .csrf(AbstractHttpConfigurer::disable)
@@ -52,6 +67,16 @@ public class SecurityConfig {
                                 "/actuator/health/**"
                         ).permitAll()
 
+                        // Скрейп Prometheus без токена — только через management.server.port (наружу не публикуется);
+                        // на основном порту метрики отдаются лишь с токеном ADMIN
+                        .requestMatchers(request -> separateManagementPort
+                                && request.getLocalPort() == managementPort
+                                && "/actuator/prometheus".equals(request.getRequestURI())).permitAll()
+
+                        // метрики, SQL и планы, очереди по пользователям — только админам
+                        .requestMatchers("/actuator/prometheus", "/actuator/slowqueries", "/actuator/fairshare")
+                        .hasRole("ADMIN")
+
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
 
                         .requestMatchers("/api/**").authenticated()
@@ -60,7 +85,15 @@ public class SecurityConfig {
                 )
 
                 .httpBasic(AbstractHttpConfigurer::disable)
-                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+                // без токена (или с негодным) — 401; по умолчанию без formLogin/httpBasic был бы 403
+                .exceptionHandling(e -> e.authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED)))
+                .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+                // сброс лишней нагрузки — до проверки JWT (порядок: сначала регистрируем jwt-фильтр)
+                .addFilterBefore(concurrencyLimitFilter, JwtAuthenticationFilter.class)
+                // справедливая очередь — когда пользователь уже известен
+                .addFilterAfter(fairShareFilter, JwtAuthenticationFilter.class)
+                // полоса (auth/read/write) и её квота соединений — на всё время обработки
+                .addFilterAfter(bulkheadFilter, FairShareFilter.class);
 
         return http.build();
     }
@@ -0,0 +1,23 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.server-timing")
+public class ServerTimingProperties {
+    private boolean enabled = false;                     // Server-Timing во всех ответах (dev/stage)
+    private String requestHeader = "X-Server-Timing";    // флаг "хочу Server-Timing" от клиента
+    private String privilegedRole = "ADMIN";             // ...который уважаем только для этой роли
+    private boolean metricsEnabled = true;               // фазы → http.server.phase для всех запросов
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getRequestHeader() { return requestHeader; }
+    public void setRequestHeader(String requestHeader) { this.requestHeader = requestHeader; }
+
+    public String getPrivilegedRole() { return privilegedRole; }
+    public void setPrivilegedRole(String privilegedRole) { this.privilegedRole = privilegedRole; }
+
+    public boolean isMetricsEnabled() { return metricsEnabled; }
+    public void setMetricsEnabled(boolean metricsEnabled) { this.metricsEnabled = metricsEnabled; }
+}
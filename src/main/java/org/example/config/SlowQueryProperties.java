@@ -0,0 +1,37 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.slow-query")
+public class SlowQueryProperties {
+    private boolean enabled = true;
+    private Duration threshold = Duration.ofMillis(200);         // SQL дольше — в slow-query лог
+    private boolean explain = true;                              // снимать EXPLAIN (без ANALYZE) для медленных
+    private Duration explainInterval = Duration.ofMinutes(10);   // не чаще раза в interval на один fingerprint
+    private Duration explainTimeout = Duration.ofMillis(500);    // statement_timeout для самого EXPLAIN (только планирование)
+    private int ringSize = 200;                                  // сколько последних событий держать для actuator
+    private int queueSize = 1000;                                // очередь на асинхронную обработку; сверх — дроп
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getThreshold() { return threshold; }
+    public void setThreshold(Duration threshold) { this.threshold = threshold; }
+
+    public boolean isExplain() { return explain; }
+    public void setExplain(boolean explain) { this.explain = explain; }
+
+    public Duration getExplainInterval() { return explainInterval; }
+    public void setExplainInterval(Duration explainInterval) { this.explainInterval = explainInterval; }
+
+    public Duration getExplainTimeout() { return explainTimeout; }
+    public void setExplainTimeout(Duration explainTimeout) { this.explainTimeout = explainTimeout; }
+
+    public int getRingSize() { return ringSize; }
+    public void setRingSize(int ringSize) { this.ringSize = ringSize; }
+
+    public int getQueueSize() { return queueSize; }
+    public void setQueueSize(int queueSize) { this.queueSize = queueSize; }
+}
@@ -0,0 +1,23 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@ConfigurationProperties(prefix = "app.sql-stats")
+public class SqlStatsProperties {
+    private boolean enabled = true;
+    private boolean exposeHeader = false;   // X-SQL-Stats в ответе (только не-prod)
+    private boolean countRows = true;       // проксировать ResultSet, чтобы считать строки
+    private int repeatedQueryThreshold = 5;  // один и тот же SQL столько раз за запрос → подозрение на N+1
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public boolean isExposeHeader() { return exposeHeader; }
+    public void setExposeHeader(boolean exposeHeader) { this.exposeHeader = exposeHeader; }
+
+    public boolean isCountRows() { return countRows; }
+    public void setCountRows(boolean countRows) { this.countRows = countRows; }
+
+    public int getRepeatedQueryThreshold() { return repeatedQueryThreshold; }
+    public void setRepeatedQueryThreshold(int repeatedQueryThreshold) { this.repeatedQueryThreshold = repeatedQueryThreshold; }
+}
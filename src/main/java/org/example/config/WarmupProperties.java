@@ -0,0 +1,29 @@
+package org.example.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmupProperties {
+    private boolean enabled = false;                   // прогрев горячих путей до readiness=UP
+    private Duration duration = Duration.ofSeconds(5); // верхняя граница по времени...
+    private int maxIterations = 2000;                  // ...и по числу итераций (что наступит раньше)
+    private int bcryptEvery = 50;                      // BCrypt дорогой (~десятки мс) — не в каждой итерации
+    private int curvePoints = 10;                      // на сколько окон резать кривую латентности
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Duration getDuration() { return duration; }
+    public void setDuration(Duration duration) { this.duration = duration; }
+
+    public int getMaxIterations() { return maxIterations; }
+    public void setMaxIterations(int maxIterations) { this.maxIterations = maxIterations; }
+
+    public int getBcryptEvery() { return bcryptEvery; }
+    public void setBcryptEvery(int bcryptEvery) { this.bcryptEvery = bcryptEvery; }
+
+    public int getCurvePoints() { return curvePoints; }
+    public void setCurvePoints(int curvePoints) { this.curvePoints = curvePoints; }
+}
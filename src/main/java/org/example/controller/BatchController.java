@@ -0,0 +1,52 @@
+package org.example.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.example.batch.BatchDispatcher;
+import org.example.dto.BatchRequest;
+import org.example.dto.BatchResponse;
+import org.example.exception.ApiError;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@Tag(name = "batch-controller", description = "Несколько API-вызовов за один HTTP-запрос")
+@RestController
+@RequestMapping("/api/batch")
+@ConditionalOnProperty(prefix = "app.batch", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class BatchController {
+
+    private final BatchDispatcher dispatcher;
+
+    public BatchController(BatchDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+    }
+
+    @Operation(summary = "Выполнить пачку под-запросов (method, path, body) одним вызовом",
+            description = "Каждый под-запрос получает свой статус и тело; подряд идущие GET выполняются "
+                    + "параллельно. atomic=true — все в одной транзакции, первая ошибка откатывает всё.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Батч выполнен (статусы — у каждого под-запроса)"),
+            @ApiResponse(responseCode = "400", description = "Пустой батч или слишком много под-запросов",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    // только JSON: тела под-запросов вкладываются как raw JSON, в CBOR/Smile так нельзя
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("isAuthenticated()")
+    public BatchResponse execute(@RequestBody @Valid BatchRequest batch,
+                                 HttpServletRequest request,
+                                 HttpServletResponse response) {
+        return dispatcher.execute(batch, request, response);
+    }
+}
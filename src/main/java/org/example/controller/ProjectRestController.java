@@ -1,5 +1,6 @@
 package org.example.controller;
 
+import io.swagger.v3.oas.annotations.Hidden;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -7,9 +8,14 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.example.dto.ProjectBatchDto;
 import org.example.dto.ProjectCreateDto;
+import org.example.dto.ProjectField;
 import org.example.dto.ProjectReadDto;
 import org.example.dto.ProjectUpdateDto;
+import org.example.mapper.ProjectPageJsonWriter;
+import org.example.mapper.ProjectPageRows;
+import org.example.service.ProjectReadCoalescer;
 import org.example.service.ProjectServiceJpa;
 import org.example.exception.ApiError;
 import org.springdoc.core.annotations.ParameterObject;
@@ -17,22 +23,32 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
 @Tag(name = "project-rest-controller", description = "CRUD по проектам")
 @RestController
 @RequestMapping("/api/projects")
 public class ProjectRestController {
 
     private final ProjectServiceJpa service;
+    private final ProjectReadCoalescer reads;
+    private final ProjectPageJsonWriter json;
 
-    public ProjectRestController(ProjectServiceJpa service) {
+    public ProjectRestController(ProjectServiceJpa service, ProjectReadCoalescer reads, ProjectPageJsonWriter json) {
         this.service = service;
+        this.reads = reads;
+        this.json = json;
     }
 
     @Operation(summary = "Список проектов (постранично, с фильтром по имени)")
@@ -51,7 +67,70 @@ public class ProjectRestController {
                     example = "ai")
             @RequestParam(name = "name", required = false) String name
     ) {
-        return service.findPage(pageable, name);
+        return reads.findPage(pageable, name);
+    }
+
+    // Тот же список, когда ответ — JSON: строки из ResultSet в колонки, затем прямо в тело, без сущностей и DTO.
+    // CBOR/Smile и прочие форматы остаются на list(). Одинаковые запросы склеиваются, как и в list().
+    @Hidden
+    @GetMapping(params = { "!fields", "!ids" }, produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public void listJson(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable,
+            @RequestParam(name = "name", required = false) String name,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!json.supports(pageable)) {
+            Page<ProjectReadDto> page = reads.findPage(pageable, name);
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            json.write(page, response.getOutputStream());
+            return;
+        }
+        // SQL закончен до первого байта тела: ошибки БД отрисует GlobalExceptionHandler, соединение уже в пуле
+        ProjectPageRows rows = reads.findPageRows(pageable, name);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        json.write(rows, response.getOutputStream());
+    }
+
+    @Operation(summary = "Список проектов только с выбранными полями (?fields=id,name,createdAt)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK; в элементах только запрошенные поля"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле или некорректные page/size/sort",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping(params = { "fields", "!ids" })
+    @PreAuthorize("hasRole('USER')")
+    public Page<Map<String, Object>> listFields(
+            @PageableDefault(size = 20, sort = "createdAt", direction = Sort.Direction.DESC)
+            @ParameterObject Pageable pageable,
+            @io.swagger.v3.oas.annotations.Parameter(
+                    description = "Фильтр по подстроке имени (регистронезависимый)",
+                    example = "ai")
+            @RequestParam(name = "name", required = false) String name,
+            @io.swagger.v3.oas.annotations.Parameter(
+                    description = "Поля через запятую: id, name, description, createdAt",
+                    example = "id,name")
+            @RequestParam(name = "fields") String fields
+    ) {
+        return service.findPage(pageable, name, ProjectField.parse(fields));
+    }
+
+    @Operation(summary = "Получить несколько проектов по списку id (один запрос к БД)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200",
+                    description = "Найденные проекты в порядке ids; отсутствующие id — в missing"),
+            @ApiResponse(responseCode = "400", description = "Слишком много ids или нечисловой id",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasRole('USER')")
+    public ProjectBatchDto getMany(
+            @io.swagger.v3.oas.annotations.Parameter(
+                    description = "Список id через запятую (не больше app.projects.batch-get.max-ids)",
+                    example = "1,2,3")
+            @RequestParam(name = "ids") List<Long> ids
+    ) {
+        return reads.findByIds(ids);
     }
 
     @Operation(summary = "Получить проект по id")
@@ -63,7 +142,27 @@ public class ProjectRestController {
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ProjectReadDto get(@PathVariable Long id) {
-        return service.findById(id);
+        return reads.findById(id);
+    }
+
+    @Operation(summary = "Получить проект по id только с выбранными полями")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Найден"),
+            @ApiResponse(responseCode = "400", description = "Неизвестное поле",
+                    content = @Content(schema = @Schema(implementation = ApiError.class))),
+            @ApiResponse(responseCode = "404", description = "Не найден",
+                    content = @Content(schema = @Schema(implementation = ApiError.class)))
+    })
+    @GetMapping(value = "/{id}", params = "fields")
+    @PreAuthorize("hasRole('USER')")
+    public Map<String, Object> getFields(
+            @PathVariable Long id,
+            @io.swagger.v3.oas.annotations.Parameter(
+                    description = "Поля через запятую: id, name, description, createdAt",
+                    example = "id,name")
+            @RequestParam(name = "fields") String fields
+    ) {
+        return service.findById(id, ProjectField.parse(fields));
     }
 
     @Operation(summary = "Создать проект")
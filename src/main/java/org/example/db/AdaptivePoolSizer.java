@@ -0,0 +1,159 @@
+package org.example.db;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.example.config.AdaptivePoolProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Подстраивает maximumPoolSize Hikari на лету (HikariConfigMXBean) по решениям {@link PoolSizeController}.
+ *
+ * Наблюдения за шаг: active/waiting из HikariPoolMXBean, среднее ожидание соединения
+ * (hikaricp.connections.acquire), средняя латентность SQL (сами меряем как listener
+ * datasource-proxy — поэтому нужен app.sql-stats.enabled) и CPU процесса.
+ * Каждое решение пишется в лог: изменения — INFO, «держим» — DEBUG.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.pool.adaptive", name = "enabled", havingValue = "true")
+public class AdaptivePoolSizer implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AdaptivePoolSizer.class);
+    private static final String START_NANOS = AdaptivePoolSizer.class.getName() + ".start";
+
+    private final DataSource dataSource;
+    private final MeterRegistry registry;
+    private final PoolSizeController controller;
+
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder queryNanos = new LongAdder();
+    private long lastQueries;
+    private long lastQueryNanos;
+    private long lastAcquireCount;
+    private double lastAcquireNanos;
+    private volatile int targetSize;
+
+    public AdaptivePoolSizer(DataSource dataSource, AdaptivePoolProperties props, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.registry = registry;
+        this.controller = new PoolSizeController(props);
+        Gauge.builder("db.pool.adaptive.size", this, s -> s.targetSize)
+                .description("Pool size chosen by the adaptive controller")
+                .register(registry);
+    }
+
+    // ===== латентность SQL =====
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        if (start != null) {
+            queries.increment();
+            queryNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    // ===== шаг контроллера =====
+
+    @Scheduled(initialDelayString = "${app.pool.adaptive.interval:5s}",
+            fixedDelayString = "${app.pool.adaptive.interval:5s}")
+    public void tick() {
+        HikariDataSource hikari;
+        try {
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            log.warn("Adaptive pool sizing disabled: DataSource is not Hikari");
+            return;
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return; // пул ещё не стартовал
+        }
+
+        var sample = new PoolSizeController.Sample(
+                hikari.getMaximumPoolSize(),
+                pool.getActiveConnections(),
+                pool.getThreadsAwaitingConnection(),
+                acquireWaitMillis(hikari.getPoolName()),
+                dbLatencyMillis(),
+                processCpuLoad());
+        var decision = controller.decide(sample);
+        targetSize = decision.to();
+
+        if (decision.changed()) {
+            hikari.getHikariConfigMXBean().setMaximumPoolSize(decision.to());
+            if (hikari.getMinimumIdle() > decision.to()) {
+                hikari.getHikariConfigMXBean().setMinimumIdle(decision.to());
+            }
+            Counter.builder("db.pool.adaptive.decisions")
+                    .tag("direction", decision.to() > decision.from() ? "up" : "down")
+                    .register(registry)
+                    .increment();
+            log.info("Pool size {} -> {}: {} (active={}, waiting={}, acquire={}ms, db={}ms, cpu={})",
+                    decision.from(), decision.to(), decision.reason(), sample.active(), sample.waiting(),
+                    fmt(sample.acquireWaitMillis()), fmt(sample.dbLatencyMillis()), fmt(sample.cpuLoad()));
+        } else if (log.isDebugEnabled()) {
+            log.debug("Pool size {} kept: {} (active={}, waiting={}, acquire={}ms, db={}ms, cpu={})",
+                    decision.from(), decision.reason(), sample.active(), sample.waiting(),
+                    fmt(sample.acquireWaitMillis()), fmt(sample.dbLatencyMillis()), fmt(sample.cpuLoad()));
+        }
+    }
+
+    private double dbLatencyMillis() {
+        long count = queries.sum();
+        long nanos = queryNanos.sum();
+        long dCount = count - lastQueries;
+        long dNanos = nanos - lastQueryNanos;
+        lastQueries = count;
+        lastQueryNanos = nanos;
+        return dCount == 0 ? 0 : dNanos / 1e6 / dCount;
+    }
+
+    private double acquireWaitMillis(String poolName) {
+        Timer timer = registry.find("hikaricp.connections.acquire").tag("pool", poolName).timer();
+        if (timer == null) {
+            return 0;
+        }
+        long count = timer.count();
+        double nanos = timer.totalTime(TimeUnit.NANOSECONDS);
+        long dCount = count - lastAcquireCount;
+        double dNanos = nanos - lastAcquireNanos;
+        lastAcquireCount = count;
+        lastAcquireNanos = nanos;
+        return dCount == 0 ? 0 : dNanos / 1e6 / dCount;
+    }
+
+    private static double processCpuLoad() {
+        if (ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os) {
+            return Math.max(0, os.getProcessCpuLoad());
+        }
+        return 0;
+    }
+
+    private static String fmt(double v) {
+        return String.format(Locale.ROOT, "%.2f", v);
+    }
+}
@@ -0,0 +1,35 @@
+package org.example.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+/**
+ * Фоновое заполнение данных батчами по ключу (keyset), вместо одного UPDATE на всю таблицу.
+ *
+ * Реализация — Spring-бин; {@link BackfillRunner} запускает незавершённые задачи после
+ * старта приложения, хранит курсор в backfill_progress и делает паузы между батчами.
+ * Типичный сценарий: миграция добавляет nullable-колонку / NOT VALID constraint,
+ * backfill заполняет данные, {@link #onComplete} валидирует constraint.
+ */
+public interface Backfill {
+
+    /** Уникальное имя задачи — ключ в backfill_progress. */
+    String name();
+
+    /**
+     * Обрабатывает следующий батч: строки с ключом > afterKey, по возрастанию ключа, не больше limit.
+     * Возвращает ключи обработанных строк; пустой список — задача закончена.
+     *
+     * Обычно это один statement вида:
+     * <pre>
+     * WITH batch AS (SELECT id FROM t WHERE id > ? AND col IS NULL ORDER BY id LIMIT ?)
+     * UPDATE t SET col = ... FROM batch WHERE t.id = batch.id RETURNING t.id
+     * </pre>
+     */
+    List<Long> nextBatch(JdbcTemplate jdbc, long afterKey, int limit);
+
+    /** Вызывается один раз после последнего батча (например, VALIDATE CONSTRAINT). */
+    default void onComplete(JdbcTemplate jdbc) {
+    }
+}
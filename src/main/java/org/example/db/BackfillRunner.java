@@ -0,0 +1,156 @@
+package org.example.db;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.example.config.BackfillProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполняет {@link Backfill}-задачи в фоне после ApplicationReadyEvent — старт и readiness
+ * не ждут долгих UPDATE'ов.
+ *
+ * Каждый батч — своя транзакция: строка задачи в backfill_progress берётся
+ * FOR UPDATE SKIP LOCKED (при нескольких инстансах батчи не пересекаются, а второй
+ * инстанс просто ждёт), батч обновляет данные, курсор сдвигается в той же транзакции.
+ */
+@Component
+public class BackfillRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BackfillRunner.class);
+
+    private final List<Backfill> jobs;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final BackfillProperties props;
+    private final MeterRegistry registry;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("backfill").daemon(true).factory());
+
+    private volatile boolean stopping;
+
+    public BackfillRunner(List<Backfill> jobs,
+                          JdbcTemplate jdbc,
+                          PlatformTransactionManager txManager,
+                          BackfillProperties props,
+                          MeterRegistry registry) {
+        this.jobs = jobs;
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.props = props;
+        this.registry = registry;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!props.isEnabled() || jobs.isEmpty()) {
+            return;
+        }
+        executor.execute(() -> {
+            for (Backfill job : jobs) {
+                if (stopping) {
+                    return;
+                }
+                try {
+                    run(job);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Exception e) {
+                    // курсор сохранён — следующий старт продолжит с последнего батча
+                    log.error("Backfill '{}' failed", job.name(), e);
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopping = true;
+        executor.shutdownNow();
+    }
+
+    void run(Backfill job) throws InterruptedException {
+        jdbc.update("INSERT INTO backfill_progress (name) VALUES (?) ON CONFLICT (name) DO NOTHING", job.name());
+        Counter rows = Counter.builder("backfill.rows")
+                .description("Rows processed by background backfills")
+                .tag("job", job.name())
+                .register(registry);
+
+        long started = System.nanoTime();
+        long batches = 0;
+        long rowsThisRun = 0;
+        while (!stopping) {
+            Step step = tx.execute(status -> step(job));
+            switch (step.state()) {
+                case DONE -> {
+                    log.info("Backfill '{}' complete: {} rows total", job.name(), step.rowsDone());
+                    return;
+                }
+                case LOCKED -> sleep(props.getLockedRetry());
+                case PROGRESS -> {
+                    rows.increment(step.rows());
+                    rowsThisRun += step.rows();
+                    if (++batches % props.getLogEvery() == 0) {
+                        double seconds = Math.max(1e-3, (System.nanoTime() - started) / 1e9);
+                        log.info("Backfill '{}': {} rows total, cursor at {}, {} rows/s in this run",
+                                job.name(), step.rowsDone(), step.lastKey(),
+                                Math.round(rowsThisRun / seconds));
+                    }
+                    sleep(props.getPause());
+                }
+            }
+        }
+    }
+
+    private Step step(Backfill job) {
+        List<Step> current = jdbc.query(
+                "SELECT last_key, rows_done, completed FROM backfill_progress WHERE name = ? FOR UPDATE SKIP LOCKED",
+                (rs, i) -> new Step(rs.getBoolean("completed") ? State.DONE : State.PROGRESS,
+                        0, rs.getLong("last_key"), rs.getLong("rows_done")),
+                job.name());
+        if (current.isEmpty()) {
+            return new Step(State.LOCKED, 0, 0, 0);
+        }
+        Step progress = current.getFirst();
+        if (progress.state() == State.DONE) {
+            return progress;
+        }
+
+        List<Long> keys = job.nextBatch(jdbc, progress.lastKey(), props.getBatchSize());
+        if (keys.isEmpty()) {
+            job.onComplete(jdbc);
+            jdbc.update("UPDATE backfill_progress SET completed = TRUE, updated_at = now() WHERE name = ?",
+                    job.name());
+            return new Step(State.DONE, 0, progress.lastKey(), progress.rowsDone());
+        }
+
+        long lastKey = Collections.max(keys);
+        long rowsDone = progress.rowsDone() + keys.size();
+        jdbc.update("UPDATE backfill_progress SET last_key = ?, rows_done = ?, updated_at = now() WHERE name = ?",
+                lastKey, rowsDone, job.name());
+        return new Step(State.PROGRESS, keys.size(), lastKey, rowsDone);
+    }
+
+    private static void sleep(Duration d) throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(d.toMillis());
+    }
+
+    private enum State { PROGRESS, LOCKED, DONE }
+
+    private record Step(State state, int rows, long lastKey, long rowsDone) { }
+}
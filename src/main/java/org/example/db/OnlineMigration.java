@@ -0,0 +1,133 @@
+package org.example.db;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * База для Java-миграций, которые нельзя делать «в лоб» на больших таблицах.
+ *
+ * Миграция идёт вне транзакции (CREATE INDEX CONCURRENTLY в транзакции запрещён),
+ * каждый шаг — отдельный autocommit-statement. ALTER TABLE идёт с коротким lock_timeout:
+ * если DDL не может сразу взять блокировку, он падает, а не выстраивает за собой очередь
+ * из всех пишущих запросов. Сборке индекса CONCURRENTLY lock_timeout не ставится: она
+ * никого не блокирует, но ждёт завершения всех более старых транзакций — и это тоже
+ * ожидание блокировки, которое с коротким таймаутом роняло бы старт при любой долгой
+ * транзакции. Поэтому же Flyway держит свой advisory lock вне транзакции
+ * (spring.flyway.postgresql.transactional-lock: false в application.yml) — иначе сборка
+ * индекса ждала бы транзакцию самого Flyway вечно.
+ * Шаги идемпотентны, миграцию можно просто перезапустить.
+ *
+ * Долгие UPDATE'ы сюда не кладём — для них {@link Backfill}, он идёт в фоне после старта.
+ */
+public abstract class OnlineMigration extends BaseJavaMigration {
+
+    /** Сколько ALTER TABLE ждёт блокировку, прежде чем сдаться. */
+    protected static final String LOCK_TIMEOUT = "5s";
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public final void migrate(Context context) throws Exception {
+        migrate(context.getConnection());
+    }
+
+    protected abstract void migrate(Connection c) throws SQLException;
+
+    /**
+     * CREATE INDEX CONCURRENTLY: не блокирует запись в таблицу.
+     * Если прошлая попытка упала посреди сборки, в каталоге остаётся INVALID-индекс
+     * (IF NOT EXISTS его бы «нашёл» и пропустил) — такой сначала удаляем.
+     */
+    protected void createIndexConcurrently(Connection c, String index, String table, String definition)
+            throws SQLException {
+        dropIfInvalid(c, index);
+        execute(c, "CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index + " ON " + table + " " + definition);
+    }
+
+    protected void createUniqueIndexConcurrently(Connection c, String index, String table, String definition)
+            throws SQLException {
+        dropIfInvalid(c, index);
+        execute(c, "CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS " + index + " ON " + table + " " + definition);
+    }
+
+    /**
+     * ADD CONSTRAINT ... NOT VALID: проверяются только новые/изменённые строки,
+     * существующие не сканируются — берётся короткая блокировка.
+     */
+    protected void addConstraintNotValid(Connection c, String table, String constraint, String definition)
+            throws SQLException {
+        if (!constraintExists(c, table, constraint)) {
+            alterTable(c, table, "ADD CONSTRAINT " + constraint + " " + definition + " NOT VALID");
+        }
+    }
+
+    /** VALIDATE сканирует таблицу под SHARE UPDATE EXCLUSIVE — чтение и запись не блокируются. */
+    protected void validateConstraint(Connection c, String table, String constraint) throws SQLException {
+        alterTable(c, table, "VALIDATE CONSTRAINT " + constraint);
+    }
+
+    /**
+     * SET NOT NULL без долгой ACCESS EXCLUSIVE блокировки: сначала валидный
+     * CHECK (col IS NOT NULL), тогда PostgreSQL 12+ не сканирует таблицу при SET NOT NULL.
+     * Колонка к этому моменту уже должна быть заполнена (см. {@link Backfill}).
+     */
+    protected void setNotNull(Connection c, String table, String column) throws SQLException {
+        String check = "ck_" + table + "_" + column + "_not_null";
+        addConstraintNotValid(c, table, check, "CHECK (" + column + " IS NOT NULL)");
+        validateConstraint(c, table, check);
+        alterTable(c, table, "ALTER COLUMN " + column + " SET NOT NULL");
+        alterTable(c, table, "DROP CONSTRAINT IF EXISTS " + check);
+    }
+
+    /** ALTER TABLE с коротким lock_timeout: не дождался блокировки — падает, а не копит очередь. */
+    protected void alterTable(Connection c, String table, String action) throws SQLException {
+        execute(c, "SET lock_timeout = '" + LOCK_TIMEOUT + "'");
+        try {
+            execute(c, "ALTER TABLE " + table + " " + action);
+        } finally {
+            execute(c, "RESET lock_timeout");
+        }
+    }
+
+    protected void execute(Connection c, String sql) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute(sql);
+        }
+    }
+
+    private void dropIfInvalid(Connection c, String index) throws SQLException {
+        String sql = """
+                SELECT NOT i.indisvalid
+                FROM pg_index i JOIN pg_class ic ON ic.oid = i.indexrelid
+                WHERE ic.relname = ? AND pg_catalog.pg_table_is_visible(ic.oid)
+                """;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, index);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next() && rs.getBoolean(1)) {
+                    execute(c, "DROP INDEX CONCURRENTLY IF EXISTS " + index);
+                }
+            }
+        }
+    }
+
+    private boolean constraintExists(Connection c, String table, String constraint) throws SQLException {
+        String sql = "SELECT 1 FROM pg_constraint WHERE conname = ? AND conrelid = ?::regclass";
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setString(1, constraint);
+            ps.setString(2, table);
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.db;
+
+import org.example.config.AdaptivePoolProperties;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Решение о размере пула на одном шаге — чистая функция от наблюдений, без Hikari и времени,
+ * поэтому поведение проверяется симуляцией (PoolSizeControllerTest).
+ *
+ * AIMD с коридором по латентности БД относительно baseline (типичной латентности без очереди):
+ * <ul>
+ *   <li>latency > baseline × decrease-floor — БД перегружена, новые соединения только удлинят
+ *       её очередь: размер × decrease-factor;</li>
+ *   <li>запросы ждут соединение, latency < baseline × increase-ceiling и CPU не упёрся — +increase-step;</li>
+ *   <li>пул недогружен (active/size < low-utilization) shrink-after-ticks шагов подряд — -1;</li>
+ *   <li>иначе — держим. Коридор между ceiling и floor и есть защита от качелей.</li>
+ * </ul>
+ * Baseline — перцентиль (baseline-percentile) латентности за последние baseline-window шагов без
+ * очереди: под насыщением латентность завышена нашей же конкуренцией, и учиться на ней — значит
+ * ползти вверх без конца. Окно двигается в обе стороны: один дешёвый шаг (одни point-lookup'ы)
+ * не прибивает baseline к низу навсегда, а смена смеси запросов на более тяжёлую за окно
+ * становится новой нормой, а не поводом резать пул.
+ */
+public class PoolSizeController {
+
+    /** Наблюдения за шаг: средние — по дельте за интервал. */
+    public record Sample(int size, int active, int waiting, double acquireWaitMillis,
+                         double dbLatencyMillis, double cpuLoad) { }
+
+    public record Decision(int from, int to, String reason, double latencyRatio) {
+        public boolean changed() {
+            return from != to;
+        }
+    }
+
+    private final AdaptivePoolProperties props;
+    // кольцо латентностей шагов без очереди
+    private final double[] window;
+    private int windowCount;
+    private int windowNext;
+    private double baselineMillis;
+    private int lowUtilizationTicks;
+
+    public PoolSizeController(AdaptivePoolProperties props) {
+        this.props = props;
+        this.window = new double[Math.max(1, props.getBaselineWindow())];
+    }
+
+    public Decision decide(Sample s) {
+        updateBaseline(s);
+        double ratio = baselineMillis > 0 && s.dbLatencyMillis() > 0 ? s.dbLatencyMillis() / baselineMillis : 1.0;
+        boolean queueing = s.waiting() > 0 || s.acquireWaitMillis() > props.getAcquireWaitThreshold().toMillis();
+        double utilization = s.size() == 0 ? 1.0 : (double) s.active() / s.size();
+        int size = s.size();
+
+        if (ratio > props.getLatencyDecreaseFloor()) {
+            lowUtilizationTicks = 0;
+            int to = clamp((int) Math.floor(size * props.getDecreaseFactor()));
+            return new Decision(size, to, "db latency x" + round(ratio) + " over baseline", ratio);
+        }
+        if (queueing) {
+            lowUtilizationTicks = 0;
+            if (ratio >= props.getLatencyIncreaseCeiling()) {
+                return new Decision(size, clamp(size),
+                        "queueing, but db latency x" + round(ratio) + " — hold", ratio);
+            }
+            if (s.cpuLoad() >= props.getCpuHigh()) {
+                return new Decision(size, clamp(size), "queueing, but cpu " + round(s.cpuLoad()) + " — hold", ratio);
+            }
+            return new Decision(size, clamp(size + props.getIncreaseStep()),
+                    "queueing: waiting=" + s.waiting() + ", acquire=" + round(s.acquireWaitMillis()) + "ms", ratio);
+        }
+        if (utilization < props.getLowUtilization()) {
+            if (++lowUtilizationTicks >= props.getShrinkAfterTicks()) {
+                lowUtilizationTicks = 0;
+                return new Decision(size, clamp(size - 1), "low utilization " + round(utilization), ratio);
+            }
+        } else {
+            lowUtilizationTicks = 0;
+        }
+        return new Decision(size, clamp(size), "steady", ratio);
+    }
+
+    private void updateBaseline(Sample s) {
+        double latency = s.dbLatencyMillis();
+        if (latency <= 0) {
+            return; // за шаг не было SQL
+        }
+        if (s.waiting() > 0) {
+            // латентность завышена очередью; пока шагов без очереди не было — временно берём её минимум
+            if (windowCount == 0 && (baselineMillis == 0 || latency < baselineMillis)) {
+                baselineMillis = latency;
+            }
+            return;
+        }
+        window[windowNext] = latency;
+        windowNext = (windowNext + 1) % window.length;
+        windowCount = Math.min(windowCount + 1, window.length);
+
+        // окно — десятки значений раз в несколько секунд: сортировка копии дешевле любой структуры
+        double[] sorted = Arrays.copyOf(window, windowCount);
+        Arrays.sort(sorted);
+        double p = Math.max(0, Math.min(1, props.getBaselinePercentile()));
+        baselineMillis = sorted[(int) Math.round(p * (windowCount - 1))];
+    }
+
+    private int clamp(int size) {
+        return Math.max(props.getMinSize(), Math.min(props.getMaxSize(), size));
+    }
+
+    double baselineMillis() {
+        return baselineMillis;
+    }
+
+    private static String round(double v) {
+        return String.format(Locale.ROOT, "%.2f", v);
+    }
+}
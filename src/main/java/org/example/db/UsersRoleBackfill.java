@@ -0,0 +1,46 @@
+package org.example.db;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Роли пользователей к виду enum UserRole и проверка ck_users_role (V8 добавляет его NOT VALID).
+ *
+ * До V8 role был произвольным VARCHAR (V2): строка вроде 'admin ' не проходит CHECK и валит
+ * загрузку User через @Enumerated(STRING). Такие роли приводятся к верхнему регистру без пробелов,
+ * неизвестные понижаются до USER. Новые строки CHECK проверяет сразу; VALIDATE — в {@link #onComplete},
+ * когда старых нарушений уже нет.
+ */
+@Component
+public class UsersRoleBackfill implements Backfill {
+
+    static final String NAME = "users-role-normalize";
+
+    private static final String NORMALIZE = """
+            WITH batch AS (
+                SELECT id FROM users WHERE id > ? AND role NOT IN ('USER', 'ADMIN') ORDER BY id LIMIT ?
+            )
+            UPDATE users u
+               SET role = CASE WHEN upper(btrim(u.role)) IN ('USER', 'ADMIN') THEN upper(btrim(u.role)) ELSE 'USER' END
+              FROM batch
+             WHERE u.id = batch.id
+            RETURNING u.id""";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public List<Long> nextBatch(JdbcTemplate jdbc, long afterKey, int limit) {
+        return jdbc.queryForList(NORMALIZE, Long.class, afterKey, limit);
+    }
+
+    @Override
+    public void onComplete(JdbcTemplate jdbc) {
+        // на уже проверенном constraint — no-op
+        jdbc.execute("ALTER TABLE users VALIDATE CONSTRAINT ck_users_role");
+    }
+}
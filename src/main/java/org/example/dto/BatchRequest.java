@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Тело POST /api/batch. atomic=true — все под-запросы по порядку в одной транзакции:
+ * первый ответ 4xx/5xx откатывает всё, оставшиеся не выполняются.
+ */
+public record BatchRequest(
+        @NotEmpty(message = "requests must not be empty") @Valid List<Item> requests,
+        boolean atomic
+) {
+    public record Item(
+            @NotBlank(message = "method must not be blank") String method,
+            @NotBlank(message = "path must not be blank") String path, // "/api/projects/1", можно с ?query
+            JsonNode body
+    ) { }
+}
@@ -0,0 +1,13 @@
+package org.example.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.util.List;
+import java.util.Map;
+
+/** Ответы под-запросов в порядке запроса; rolledBack — atomic-батч откатился. */
+public record BatchResponse(List<Item> responses, boolean rolledBack) {
+
+    /** body — JSON ответа контроллера как есть (без повторного разбора), null — пустое тело. */
+    public record Item(int status, Map<String, String> headers, @JsonRawValue String body) { }
+}
@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.List;
+
+/** Ответ GET /api/projects?ids=...: найденные проекты в порядке запроса и id, которых нет. */
+public record ProjectBatchDto(List<ProjectReadDto> items, List<Long> missing) { }
@@ -0,0 +1,60 @@
+package org.example.dto;
+
+import org.example.exception.BadRequestException;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Поля проекта, которые можно запросить через ?fields= (allowlist): имя в JSON совпадает с
+ * атрибутом сущности Project, из него строится список колонок SELECT.
+ */
+public enum ProjectField {
+    ID("id"),
+    NAME("name"),
+    DESCRIPTION("description"),
+    CREATED_AT("createdAt");
+
+    private final String json;
+
+    ProjectField(String json) {
+        this.json = json;
+    }
+
+    /** Имя в JSON и атрибут сущности. */
+    public String json() {
+        return json;
+    }
+
+    /** "id,name,createdAt" → набор полей; неизвестное поле или пустой список — 400. */
+    public static Set<ProjectField> parse(String csv) {
+        Set<ProjectField> fields = EnumSet.noneOf(ProjectField.class);
+        for (String token : csv.split(",")) {
+            String name = token.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            fields.add(byJson(name));
+        }
+        if (fields.isEmpty()) {
+            throw new BadRequestException("fields must list at least one of: " + allowed());
+        }
+        return fields;
+    }
+
+    private static ProjectField byJson(String name) {
+        for (ProjectField field : values()) {
+            if (field.json.equals(name)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unknown field '" + name + "', allowed: " + allowed());
+    }
+
+    private static String allowed() {
+        return EnumSet.allOf(ProjectField.class).stream()
+                .map(ProjectField::json)
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.exception;
+
+/** Бросаем, когда параметры запроса корректны по типу, но нарушают ограничения (например, слишком много ids). */
+public class BadRequestException extends DomainException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
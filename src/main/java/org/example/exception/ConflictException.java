@@ -1,7 +1,7 @@
 package org.example.exception;
 
 /** Бросаем, когда нарушено бизнес-правило (например, дубликат имени). */
-public class ConflictException extends RuntimeException {
+public class ConflictException extends DomainException {
     public ConflictException(String message) {
         super(message);
     }
@@ -0,0 +1,8 @@
+package org.example.exception;
+
+/** Бросаем, когда дедлайн запроса истёк до (или во время) обращения к БД — отвечаем 503. */
+public class DeadlineExceededException extends DomainException {
+    public DeadlineExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.exception;
+
+/**
+ * База ожидаемых ошибок (404, 409, 503 по дедлайну): это штатные ответы, а не сбои, поэтому
+ * стек по умолчанию не снимается — fillInStackTrace на глубоком стеке Spring дороже всего
+ * остального пути ошибки. Для отладки включается app.errors.stack-traces=true.
+ */
+public abstract class DomainException extends RuntimeException {
+
+    private static volatile boolean stackTraces;
+
+    protected DomainException(String message) {
+        super(message, null, false, stackTraces);
+    }
+
+    /** Выставляет GlobalExceptionHandler из app.errors.stack-traces; действует на новые исключения. */
+    static void captureStackTraces(boolean enabled) {
+        stackTraces = enabled;
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.exception;
+
+import java.time.Instant;
+
+/**
+ * timestamp для ApiError с точностью до секунды: строка форматируется один раз в секунду и
+ * переиспользуется, а не собирается через Instant.now().toString() на каждую 404.
+ */
+public final class ErrorTimestamps {
+
+    private record Cached(long epochSecond, String text) { }
+
+    private static volatile Cached cached = new Cached(Long.MIN_VALUE, "");
+
+    private ErrorTimestamps() {
+    }
+
+    public static String now() {
+        return at(System.currentTimeMillis() / 1000);
+    }
+
+    static String at(long epochSecond) {
+        Cached c = cached;
+        if (c.epochSecond() != epochSecond) {
+            // гонка безвредна: два потока отформатируют одну и ту же секунду
+            c = new Cached(epochSecond, Instant.ofEpochSecond(epochSecond).toString());
+            cached = c;
+        }
+        return c.text();
+    }
+}
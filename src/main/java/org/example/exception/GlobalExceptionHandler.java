@@ -1,19 +1,31 @@
 package org.example.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.servlet.http.HttpServletRequest;
+import org.example.config.ErrorProperties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
-import java.time.Instant;
+import java.sql.SQLException;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 @RestControllerAdvice
@@ -21,6 +33,16 @@ public class GlobalExceptionHandler {
 
     private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
 
+    private record ErrorKey(HttpStatus status, Class<?> type) { }
+
+    private final MeterRegistry registry;
+    private final Map<ErrorKey, Counter> errors = new ConcurrentHashMap<>();
+
+    public GlobalExceptionHandler(ErrorProperties props, MeterRegistry registry) {
+        this.registry = registry;
+        DomainException.captureStackTraces(props.isStackTraces());
+    }
+
     // 400: ошибка валидации @Valid @RequestBody
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiError> handleValidation(MethodArgumentNotValidException ex,
@@ -32,13 +54,7 @@ public class GlobalExceptionHandler {
                 .map(GlobalExceptionHandler::formatFieldError)
                 .collect(Collectors.joining("; "));
 
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.BAD_REQUEST.getReasonPhrase(),
-                message
-        );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        return respond(HttpStatus.BAD_REQUEST, ex, req, message);
     }
 
     private static String formatFieldError(FieldError fe) {
@@ -51,65 +67,81 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     public ResponseEntity<ApiError> handleBadJson(HttpMessageNotReadableException ex,
                                                   HttpServletRequest req) {
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.BAD_REQUEST.getReasonPhrase(),
-                "Malformed JSON or missing request body"
-        );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
+        return respond(HttpStatus.BAD_REQUEST, ex, req, "Malformed JSON or missing request body");
+    }
+
+    // 400: параметры вне допустимых пределов (BadRequestException) или не того типа (?ids=abc)
+    @ExceptionHandler({ BadRequestException.class, MethodArgumentTypeMismatchException.class })
+    public ResponseEntity<ApiError> handleBadRequest(Exception ex,
+                                                     HttpServletRequest req) {
+        String message = ex instanceof MethodArgumentTypeMismatchException mismatch
+                ? "Invalid value for parameter '" + mismatch.getName() + "'"
+                : ex.getMessage();
+        return respond(HttpStatus.BAD_REQUEST, ex, req, message);
     }
 
     // 404: наш кастомный NotFoundException
     @ExceptionHandler(NotFoundException.class)
     public ResponseEntity<ApiError> handleNotFound(NotFoundException ex,
                                                    HttpServletRequest req) {
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.NOT_FOUND.getReasonPhrase(),
-                ex.getMessage()
-        );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+        return respond(HttpStatus.NOT_FOUND, ex, req, ex.getMessage());
     }
 
     // 404: на всякий случай для NoSuchElementException
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<ApiError> handleNoSuchElement(NoSuchElementException ex,
                                                         HttpServletRequest req) {
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.NOT_FOUND.getReasonPhrase(),
-                ex.getMessage()
-        );
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+        return respond(HttpStatus.NOT_FOUND, ex, req, ex.getMessage());
     }
 
     // 409: конфликт (дубликаты и т.п.)
     @ExceptionHandler(ConflictException.class)
     public ResponseEntity<ApiError> handleConflict(ConflictException ex,
                                                    HttpServletRequest req) {
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.CONFLICT.getReasonPhrase(),
-                ex.getMessage()
-        );
-        return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+        return respond(HttpStatus.CONFLICT, ex, req, ex.getMessage());
     }
 
     // 403: отказ в доступе (в т.ч. @PreAuthorize hasRole(...) и т.п.)
     @ExceptionHandler(AccessDeniedException.class)
     public ResponseEntity<ApiError> handleAccessDenied(AccessDeniedException ex,
                                                        HttpServletRequest req) {
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.FORBIDDEN.getReasonPhrase(),
-                ex.getMessage() != null ? ex.getMessage() : "Access denied"
-        );
-        return ResponseEntity.status(HttpStatus.FORBIDDEN).body(body);
+        return respond(HttpStatus.FORBIDDEN, ex, req, ex.getMessage() != null ? ex.getMessage() : "Access denied");
+    }
+
+    // 503: не дождались соединения с БД (пул Hikari или квота полосы bulkhead) — это перегрузка, а не ошибка
+    @ExceptionHandler({ CannotCreateTransactionException.class, TransientDataAccessResourceException.class })
+    public ResponseEntity<ApiError> handleNoConnection(Exception ex,
+                                                       HttpServletRequest req) {
+        log.warn("No database connection for {} {}: {}", req.getMethod(), req.getRequestURI(), ex.getMessage());
+
+        return respondRetryLater(HttpStatus.SERVICE_UNAVAILABLE, ex, req, "Database is busy, retry later");
+    }
+
+    // 503: дедлайн запроса истёк — SQL не отправлен, отменён по таймауту или кончилось время транзакции
+    @ExceptionHandler({ DeadlineExceededException.class, QueryTimeoutException.class,
+            TransactionTimedOutException.class })
+    public ResponseEntity<ApiError> handleDeadline(Exception ex,
+                                                   HttpServletRequest req) {
+        log.warn("Deadline exceeded for {} {}: {}", req.getMethod(), req.getRequestURI(), ex.getMessage());
+
+        return respondRetryLater(HttpStatus.SERVICE_UNAVAILABLE, ex, req, "Request deadline exceeded");
+    }
+
+    // JdbcTemplate переводит отменённый по таймауту SQL (SQLState 57014) не в QueryTimeoutException,
+    // а в общий DataAccessResourceFailureException — распознаём по SQLState; остальное — как 500
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<ApiError> handleDataAccess(DataAccessException ex,
+                                                     HttpServletRequest req) {
+        return isQueryCanceled(ex) ? handleDeadline(ex, req) : handleAny(ex, req);
+    }
+
+    private static boolean isQueryCanceled(Throwable ex) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql && "57014".equals(sql.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
     }
 
     // 500: всё, что не перехватили более специфичные хендлеры
@@ -118,12 +150,34 @@ public class GlobalExceptionHandler {
                                               HttpServletRequest req) {
         log.error("Unhandled error in {} {}", req.getMethod(), req.getRequestURI(), ex);
 
-        ApiError body = new ApiError(
-                Instant.now().toString(),
-                req.getRequestURI(),
-                HttpStatus.INTERNAL_SERVER_ERROR.getReasonPhrase(),
-                "Unexpected error"
-        );
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+        return respond(HttpStatus.INTERNAL_SERVER_ERROR, ex, req, "Unexpected error");
+    }
+
+    // ===== общий путь ответа =====
+
+    /** Тело ApiError + счётчик http.server.errors{status, exception}; timestamp — кэшированный посекундно. */
+    private ResponseEntity<ApiError> respond(HttpStatus status, Exception ex, HttpServletRequest req, String message) {
+        return ResponseEntity.status(status).body(body(status, ex, req, message));
+    }
+
+    /** То же для перегрузки: клиенту есть смысл повторить через секунду. */
+    private ResponseEntity<ApiError> respondRetryLater(HttpStatus status, Exception ex, HttpServletRequest req,
+                                                       String message) {
+        return ResponseEntity.status(status)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body(status, ex, req, message));
+    }
+
+    private ApiError body(HttpStatus status, Exception ex, HttpServletRequest req, String message) {
+        errors.computeIfAbsent(new ErrorKey(status, ex.getClass()), this::counter).increment();
+        return new ApiError(ErrorTimestamps.now(), req.getRequestURI(), status.getReasonPhrase(), message);
+    }
+
+    private Counter counter(ErrorKey key) {
+        return Counter.builder("http.server.errors")
+                .description("Error responses rendered by GlobalExceptionHandler, by status and exception type")
+                .tag("status", String.valueOf(key.status().value()))
+                .tag("exception", key.type().getSimpleName())
+                .register(registry);
     }
-}
\ No newline at end of file
+}
@@ -4,7 +4,7 @@ package org.example.exception;
  * Бросаем, когда ресурс (Project/User/и т.п.) не найден.
  * Сообщение делай человекочитаемым: "Project 123 not found".
  */
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends DomainException {
     public NotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,96 @@
+package org.example.health;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import org.example.config.HealthProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Проверка БД для /actuator/health без похода в БД на каждый запрос пробы.
+ *
+ * БД опрашивается в фоне раз в app.health.db.interval (Connection.isValid), проба
+ * отдаёт последний результат. Если результат старше max-age (фоновая задача зависла
+ * или пул не отдаёт соединение) — DOWN. Стандартный db-индикатор Boot выключен
+ * (management.health.db.enabled=false), этот бин занимает его имя "db".
+ */
+@Component("dbHealthIndicator")
+public class CachedDbHealthIndicator implements HealthIndicator {
+
+    private static final Health NOT_SAMPLED = Health.down().withDetail("reason", "not sampled yet").build();
+
+    private final DataSource dataSource;
+    private final HealthProperties.Db props;
+    private final Timer checkTimer;
+
+    private volatile Health last = NOT_SAMPLED;
+    private volatile long sampledAtNanos;   // 0 — ещё не проверяли
+
+    public CachedDbHealthIndicator(DataSource dataSource, HealthProperties props, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.props = props.getDb();
+        this.checkTimer = Timer.builder("health.db.check")
+                .description("Background database health check latency")
+                .register(registry);
+        TimeGauge.builder("health.db.cache.age", this, TimeUnit.MILLISECONDS, CachedDbHealthIndicator::ageMillis)
+                .description("Age of the cached database health result")
+                .register(registry);
+        Gauge.builder("health.db.status", this, h -> Status.UP.equals(h.last.getStatus()) ? 1 : 0)
+                .description("Last sampled database health: 1 = UP, 0 = otherwise")
+                .register(registry);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.health.db.interval:10s}")
+    public void sample() {
+        long start = System.nanoTime();
+        Health health;
+        try (Connection c = dataSource.getConnection()) {
+            int timeoutSeconds = (int) Math.max(1, props.getTimeout().toSeconds());
+            health = c.isValid(timeoutSeconds)
+                    ? Health.up().withDetail("database", c.getMetaData().getDatabaseProductName()).build()
+                    : Health.down().withDetail("reason", "connection is not valid").build();
+        } catch (Exception e) {
+            health = Health.down(e).build();
+        }
+        long end = System.nanoTime();
+        checkTimer.record(end - start, TimeUnit.NANOSECONDS);
+        last = health;
+        sampledAtNanos = end;
+    }
+
+    @Override
+    public Health health() {
+        long sampledAt = sampledAtNanos;
+        if (sampledAt == 0) {
+            return NOT_SAMPLED;
+        }
+        Duration age = Duration.ofNanos(System.nanoTime() - sampledAt);
+        Health cached = last;
+        if (age.compareTo(props.getMaxAge()) > 0) {
+            return Health.down()
+                    .withDetail("reason", "stale result")
+                    .withDetail("ageMs", age.toMillis())
+                    .withDetail("lastStatus", cached.getStatus().getCode())
+                    .build();
+        }
+        return Health.status(cached.getStatus())
+                .withDetails(cached.getDetails())
+                .withDetail("ageMs", age.toMillis())
+                .build();
+    }
+
+    private double ageMillis() {
+        long sampledAt = sampledAtNanos;
+        return sampledAt == 0 ? Double.NaN : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - sampledAt);
+    }
+}
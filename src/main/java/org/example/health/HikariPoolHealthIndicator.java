@@ -0,0 +1,55 @@
+package org.example.health;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.example.config.HealthProperties;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Насыщение пула для readiness: если за соединением стоит очередь длиннее
+ * app.health.pool.max-waiting, инстанс временно выводится из балансировки
+ * (OUT_OF_SERVICE), чтобы не набирать новые запросы, которые всё равно будут ждать.
+ * Читает только счётчики HikariPoolMXBean — в БД не ходит.
+ */
+@Component("hikariPoolHealthIndicator")
+public class HikariPoolHealthIndicator implements HealthIndicator {
+
+    private final DataSource dataSource;
+    private final HealthProperties.Pool props;
+
+    public HikariPoolHealthIndicator(DataSource dataSource, HealthProperties props) {
+        this.dataSource = dataSource;
+        this.props = props.getPool();
+    }
+
+    @Override
+    public Health health() {
+        HikariDataSource hikari;
+        try {
+            // DataSource обёрнут datasource-proxy; unwrap доходит до HikariDataSource
+            hikari = dataSource.unwrap(HikariDataSource.class);
+        } catch (SQLException e) {
+            return Health.unknown().withDetail("reason", "not a Hikari pool").build();
+        }
+        HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+        if (pool == null) {
+            return Health.unknown().withDetail("reason", "pool not started").build();
+        }
+
+        int waiting = pool.getThreadsAwaitingConnection();
+        Health.Builder builder = waiting > props.getMaxWaiting() ? Health.outOfService() : Health.up();
+        return builder
+                .withDetail("active", pool.getActiveConnections())
+                .withDetail("idle", pool.getIdleConnections())
+                .withDetail("total", pool.getTotalConnections())
+                .withDetail("max", hikari.getMaximumPoolSize())
+                .withDetail("waiting", waiting)
+                .withDetail("maxWaiting", props.getMaxWaiting())
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.mapper;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Момент в UTC (микросекунды от эпохи, точность TIMESTAMPTZ) → та же строка, что даёт
+ * OffsetDateTime.toString(): 2025-10-24T12:00Z, 2025-10-24T12:00:05Z, ...:05.120Z, ...:05.123456Z.
+ * Пишет в свой char[] без промежуточных объектов; экземпляр не потокобезопасен — один на ответ.
+ */
+public final class IsoTimestampFormatter {
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int SECONDS_PER_DAY = 86_400;
+    // 0000-03-01 → 1970-01-01, см. days_from_civil у H. Hinnant
+    private static final long DAYS_0000_TO_1970 = 719_468L;
+    private static final int DAYS_PER_ERA = 146_097;
+
+    private final char[] buf = new char[32];
+
+    public char[] buffer() {
+        return buf;
+    }
+
+    /** Форматирует в {@link #buffer()}, возвращает длину строки. */
+    public int format(long epochMicros) {
+        long epochSecond = Math.floorDiv(epochMicros, MICROS_PER_SECOND);
+        int micros = (int) Math.floorMod(epochMicros, MICROS_PER_SECOND);
+        long epochDay = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        // Григорианская дата из номера дня без таблиц; год начинается с марта, чтобы 29 февраля было последним днём
+        long z = epochDay + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, DAYS_PER_ERA);
+        int dayOfEra = (int) (z - era * DAYS_PER_ERA);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        if (year < 0 || year > 9999) {
+            // Знак и '+' перед годом — редкость; тут не экономим
+            String text = OffsetDateTime.ofInstant(
+                    Instant.ofEpochSecond(epochSecond, micros * 1000L), ZoneOffset.UTC).toString();
+            text.getChars(0, text.length(), buf, 0);
+            return text.length();
+        }
+
+        int pos = digits((int) year, 4, 0);
+        buf[pos++] = '-';
+        pos = digits(month, 2, pos);
+        buf[pos++] = '-';
+        pos = digits(day, 2, pos);
+        buf[pos++] = 'T';
+        pos = digits(secondOfDay / 3600, 2, pos);
+        buf[pos++] = ':';
+        pos = digits(secondOfDay / 60 % 60, 2, pos);
+
+        // Как LocalTime.toString: секунды только если не ноль, дробь — 3 или 6 знаков
+        int second = secondOfDay % 60;
+        if (second > 0 || micros > 0) {
+            buf[pos++] = ':';
+            pos = digits(second, 2, pos);
+            if (micros > 0) {
+                buf[pos++] = '.';
+                pos = micros % 1000 == 0 ? digits(micros / 1000, 3, pos) : digits(micros, 6, pos);
+            }
+        }
+        buf[pos++] = 'Z';
+        return pos;
+    }
+
+    private int digits(int value, int width, int pos) {
+        for (int i = pos + width - 1; i >= pos; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+        return pos + width;
+    }
+}
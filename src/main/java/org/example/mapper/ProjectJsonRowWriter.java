@@ -0,0 +1,46 @@
+package org.example.mapper;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.io.IOException;
+
+/**
+ * Строка проекта → JSON-объект той же формы, что ProjectReadDto через Jackson, но без сущности и DTO:
+ * имена полей закодированы заранее, createdAt форматируется в переиспользуемый буфер.
+ * Один экземпляр на ответ (буфер времени не потокобезопасен).
+ */
+public final class ProjectJsonRowWriter {
+
+    // Порядок — как у компонентов ProjectReadDto
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString NAME = new SerializedString("name");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+
+    private final IsoTimestampFormatter timestamps = new IsoTimestampFormatter();
+
+    public void write(JsonGenerator gen, long id, String name, String description, long createdAtMicros)
+            throws IOException {
+        gen.writeStartObject();
+        gen.writeFieldName(ID);
+        gen.writeNumber(id);
+        gen.writeFieldName(NAME);
+        writeNullable(gen, name);
+        gen.writeFieldName(DESCRIPTION);
+        writeNullable(gen, description);
+        gen.writeFieldName(CREATED_AT);
+        int length = timestamps.format(createdAtMicros);
+        gen.writeString(timestamps.buffer(), 0, length);
+        gen.writeEndObject();
+    }
+
+    private static void writeNullable(JsonGenerator gen, String value) throws IOException {
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+}
@@ -1,10 +1,17 @@
 package org.example.mapper;
 
+import jakarta.persistence.Tuple;
 import org.example.domain.Project;
 import org.example.dto.ProjectCreateDto;
+import org.example.dto.ProjectField;
 import org.example.dto.ProjectReadDto;
 import org.example.dto.ProjectUpdateDto;
 
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
 public final class ProjectMapper {
 
     private ProjectMapper() {
@@ -30,6 +37,16 @@ public final class ProjectMapper {
         );
     }
 
+    // ?fields=: только запрошенные поля, в порядке ProjectField; createdAt — строкой, как в toReadDto
+    public static Map<String, Object> toFieldMap(Tuple row, Set<ProjectField> fields) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (ProjectField field : fields) {
+            Object value = row.get(field.json());
+            map.put(field.json(), value instanceof OffsetDateTime t ? t.toString() : value);
+        }
+        return map;
+    }
+
     public static void updateEntity(Project target, ProjectUpdateDto dto) {
         // Если где-то используешь вариант с DTO — он тоже должен работать.
         target.setName(dto.name);
@@ -0,0 +1,164 @@
+package org.example.mapper;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.repository.ProjectFieldQueries;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Страница проектов в JSON из ResultSet: без сущностей, persistence context, DTO и дерева Jackson.
+ * Вывод байт-в-байт совпадает с Page&lt;ProjectReadDto&gt; через тот же ObjectMapper:
+ * content пишется построчно, остальные поля страницы — из PageImpl той же длины
+ * (пустышки вместо элементов), сериализованного этим ObjectMapper.
+ *
+ * Чтение ({@link #read}) и запись ({@link #write(ProjectPageRows, OutputStream)}) разделены:
+ * строки сначала ложатся в колонки {@link ProjectPageRows}, соединение возвращается в пул,
+ * и только потом тело уходит клиенту — медленный клиент не держит соединение (как и без OSIV).
+ *
+ * createdAt читается как микросекунды от эпохи и пишется в UTC с суффиксом Z — так же, как
+ * OffsetDateTime из Hibernate при hibernate.jdbc.time_zone: UTC (задано в application.yml).
+ * Фильтр по имени, LIMIT/OFFSET и count — те же, что у ProjectRepository/ProjectFieldQueries.
+ * Вызывается через ProjectService.findPageRows — права и транзакция, как у остальных чтений.
+ */
+@Component
+public class ProjectPageJsonWriter {
+
+    // extract(epoch ...) в PostgreSQL 14+ — numeric, микросекунды не теряются
+    private static final String SELECT = "SELECT id, name, description,"
+            + " (extract(epoch FROM created_at) * 1000000)::bigint AS created_us FROM projects";
+    private static final String COUNT = "SELECT count(*) FROM projects";
+    private static final String NAME_LIKE = " WHERE lower(name) LIKE lower(?) ESCAPE '\\'";
+    private static final String PAGE = " LIMIT ? OFFSET ?";
+
+    // Свойства сортировки, которые переводим в колонки; с остальными — обычный путь (и его ошибки)
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "id",
+            "name", "name",
+            "description", "description",
+            "createdAt", "created_at");
+
+    private static final SerializableString CONTENT = new SerializedString("content");
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public ProjectPageJsonWriter(JdbcTemplate jdbc,
+                                 ObjectMapper objectMapper,
+                                 @Value("${app.projects.streaming.enabled:true}") boolean enabled) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        // content пишем первым, до метаданных; если ObjectMapper ставит его не первым — не стримим
+        this.enabled = enabled && contentComesFirst(objectMapper);
+    }
+
+    /** Можно ли отдать эту страницу через {@link #read}; иначе — {@link #write(Page, OutputStream)}. */
+    public boolean supports(Pageable pageable) {
+        if (!enabled || pageable.isUnpaged()) {
+            return false;
+        }
+        for (Sort.Order order : pageable.getSort()) {
+            if (!SORT_COLUMNS.containsKey(order.getProperty())
+                    || order.isIgnoreCase()
+                    || order.getNullHandling() != Sort.NullHandling.NATIVE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Выбирает страницу (и count, если нужен) в колонки; к возврату соединение уже в пуле. */
+    public ProjectPageRows read(Pageable pageable, String nameFilter) {
+        String pattern = ProjectFieldQueries.likePattern(nameFilter);
+        String where = pattern == null ? "" : NAME_LIKE;
+        Object[] filter = pattern == null ? new Object[0] : new Object[] { pattern };
+        Object[] args = pattern == null
+                ? new Object[] { pageable.getPageSize(), pageable.getOffset() }
+                : new Object[] { pattern, pageable.getPageSize(), pageable.getOffset() };
+
+        ProjectPageRows rows = new ProjectPageRows(pageable.getPageSize());
+        jdbc.query(SELECT + where + orderBy(pageable.getSort()) + PAGE, (RowCallbackHandler) rows::add, args);
+        // count не нужен, если страница первая и неполная — как в SimpleJpaRepository
+        rows.page = PageableExecutionUtils.getPage(Collections.nCopies(rows.size, null), pageable,
+                () -> jdbc.queryForObject(COUNT + where, Long.class, filter));
+        return rows;
+    }
+
+    /** Пишет прочитанную страницу в out. Поток не закрывается и не сбрасывается (flush). */
+    public void write(ProjectPageRows rows, OutputStream out) throws IOException {
+        ProjectJsonRowWriter writer = new ProjectJsonRowWriter();
+        try (JsonGenerator gen = generator(out)) {
+            gen.writeStartObject();
+            gen.writeFieldName(CONTENT);
+            gen.writeStartArray();
+            for (int i = 0; i < rows.size; i++) {
+                writer.write(gen, rows.ids[i], rows.names[i], rows.descriptions[i], rows.createdAtMicros[i]);
+            }
+            gen.writeEndArray();
+            writeMetadata(gen, rows.page);
+            gen.writeEndObject();
+        }
+    }
+
+    /** Обычный путь (Jackson по готовой странице) в тот же поток — когда {@link #supports} вернул false. */
+    public void write(Page<?> page, OutputStream out) throws IOException {
+        try (JsonGenerator gen = generator(out)) {
+            objectMapper.writeValue(gen, page);
+        }
+    }
+
+    /* ===== helpers ===== */
+
+    // Без flush/close потока ответ не фиксируется раньше времени: фильтры ещё успевают поставить заголовки
+    private JsonGenerator generator(OutputStream out) throws IOException {
+        return objectMapper.createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+    }
+
+    private void writeMetadata(JsonGenerator gen, Page<?> page) throws IOException {
+        JsonNode tree = objectMapper.valueToTree(page);
+        for (Map.Entry<String, JsonNode> field : tree.properties()) {
+            if (!CONTENT.getValue().equals(field.getKey())) {
+                gen.writeFieldName(field.getKey());
+                objectMapper.writeTree(gen, field.getValue());
+            }
+        }
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orders = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            orders.add(SORT_COLUMNS.get(order.getProperty()) + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orders.toString();
+    }
+
+    private static boolean contentComesFirst(ObjectMapper objectMapper) {
+        Iterator<String> names = objectMapper.valueToTree(new PageImpl<>(List.of())).fieldNames();
+        return names.hasNext() && CONTENT.getValue().equals(names.next());
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.mapper;
+
+import org.springframework.data.domain.Page;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Страница проектов, прочитанная из ResultSet в колонки (без сущностей и DTO на строку).
+ * Читается целиком до записи ответа: соединение возвращается в пул раньше, чем клиент начнёт
+ * забирать тело. После чтения не меняется — её можно отдать нескольким склеенным запросам.
+ */
+public final class ProjectPageRows {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    long[] ids;
+    String[] names;
+    String[] descriptions;
+    long[] createdAtMicros;
+    int size;
+    // PageImpl той же длины с пустышками вместо элементов — источник метаданных страницы
+    Page<?> page;
+
+    ProjectPageRows(int expected) {
+        int capacity = Math.max(1, Math.min(expected, INITIAL_CAPACITY));
+        ids = new long[capacity];
+        names = new String[capacity];
+        descriptions = new String[capacity];
+        createdAtMicros = new long[capacity];
+    }
+
+    void add(ResultSet rs) throws SQLException {
+        if (size == ids.length) {
+            int capacity = size * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            descriptions = Arrays.copyOf(descriptions, capacity);
+            createdAtMicros = Arrays.copyOf(createdAtMicros, capacity);
+        }
+        ids[size] = rs.getLong(1);
+        names[size] = rs.getString(2);
+        descriptions[size] = rs.getString(3);
+        createdAtMicros[size] = rs.getLong(4);
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+}
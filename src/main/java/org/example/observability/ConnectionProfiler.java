@@ -0,0 +1,189 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.example.config.ConnectionProfilerProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сколько запрос ждёт соединение из пула и сколько его держит — по эндпоинту и транзакции.
+ *
+ * getConnection() и Connection.close() ловятся через datasource-proxy: между ними соединение
+ * «на руках». Имя транзакции берётся при первом SQL на соединении (на getConnection Spring
+ * ещё не успевает его выставить). Если соединение держат дольше hold-threshold, сторож
+ * снимает стек потока-владельца прямо во время удержания — видно, чем он занят
+ * (сериализация JSON, BCrypt, внешний вызов), пока соединение простаивает.
+ */
+public class ConnectionProfiler implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ConnectionProfiler.class);
+    private static final String NO_TRANSACTION = "none";
+
+    private static final ThreadLocal<Long> ACQUIRE_START = new ThreadLocal<>();
+
+    private final ConnectionProfilerProperties props;
+    private final MeterRegistry registry;
+    private final Counter longHolds;
+    private final long thresholdNanos;
+
+    /**
+     * Открытые соединения; ключ — connectionId из datasource-proxy. Сами Connection ключом не годятся:
+     * getConnection отдаёт прокси, а close приходит на реальное соединение, и equals у них не сходится.
+     */
+    private final Map<String, Hold> holds = new ConcurrentHashMap<>();
+
+    private static final class Hold {
+        final long acquiredAt;
+        final String endpoint;
+        final Thread owner;
+        volatile String transaction;
+        volatile boolean reported;
+
+        Hold(long acquiredAt, String endpoint, Thread owner) {
+            this.acquiredAt = acquiredAt;
+            this.endpoint = endpoint;
+            this.owner = owner;
+        }
+    }
+
+    public ConnectionProfiler(ConnectionProfilerProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+        this.thresholdNanos = props.getHoldThreshold().toNanos();
+        this.longHolds = Counter.builder("db.connection.long.holds")
+                .description("Connections held longer than app.connection-profiler.hold-threshold")
+                .register(registry);
+    }
+
+    // ===== getConnection / close =====
+
+    @Override
+    public void beforeMethod(MethodExecutionContext ctx) {
+        if (ctx.getTarget() instanceof DataSource && "getConnection".equals(ctx.getMethod().getName())) {
+            ACQUIRE_START.set(System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext ctx) {
+        String method = ctx.getMethod().getName();
+        if (ctx.getTarget() instanceof DataSource && "getConnection".equals(method)) {
+            acquired(ctx);
+        } else if (ctx.getTarget() instanceof Connection && "close".equals(method)) {
+            released(ctx.getConnectionInfo());
+        }
+    }
+
+    private void acquired(MethodExecutionContext ctx) {
+        Long start = ACQUIRE_START.get();
+        ACQUIRE_START.remove();
+        long now = System.nanoTime();
+        String endpoint = Endpoints.current();
+        if (start != null) {
+            Timer.builder("db.connection.acquire")
+                    .description("Time waiting for a pooled connection")
+                    .tag("endpoint", endpoint)
+                    .register(registry)
+                    .record(now - start, TimeUnit.NANOSECONDS);
+        }
+        ConnectionInfo info = ctx.getConnectionInfo();
+        if (ctx.getResult() instanceof Connection && info != null && info.getConnectionId() != null) {
+            holds.put(info.getConnectionId(), new Hold(now, endpoint, Thread.currentThread()));
+        }
+    }
+
+    private void released(ConnectionInfo info) {
+        Hold hold = info == null || info.getConnectionId() == null ? null : holds.remove(info.getConnectionId());
+        if (hold == null) {
+            return;
+        }
+        long held = System.nanoTime() - hold.acquiredAt;
+        String transaction = hold.transaction != null ? hold.transaction : NO_TRANSACTION;
+        Timer.builder("db.connection.hold")
+                .description("Time a connection stays checked out of the pool")
+                .tag("endpoint", hold.endpoint)
+                .tag("transaction", transaction)
+                .register(registry)
+                .record(held, TimeUnit.NANOSECONDS);
+        if (held > thresholdNanos && !hold.reported) {
+            // сторож не успел застать удержание — стека нет, но факт фиксируем
+            longHolds.increment();
+            log.warn("Connection held {} ms (endpoint={}, transaction={})",
+                    TimeUnit.NANOSECONDS.toMillis(held), hold.endpoint, transaction);
+        }
+    }
+
+    // ===== имя транзакции — на первом SQL =====
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Hold hold = holdOf(execInfo);
+        if (hold != null && hold.transaction == null
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            hold.transaction = shortName(TransactionSynchronizationManager.getCurrentTransactionName());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    private Hold holdOf(ExecutionInfo execInfo) {
+        String connectionId = execInfo.getConnectionId();
+        return connectionId == null ? null : holds.get(connectionId);
+    }
+
+    /** "org.example.service.ProjectServiceJpa.update" → "ProjectServiceJpa.update". */
+    static String shortName(String transactionName) {
+        if (transactionName == null) {
+            return NO_TRANSACTION;
+        }
+        int method = transactionName.lastIndexOf('.');
+        int type = method > 0 ? transactionName.lastIndexOf('.', method - 1) : -1;
+        return transactionName.substring(type + 1);
+    }
+
+    // ===== сторож долгих удержаний =====
+
+    @Scheduled(fixedDelayString = "${app.connection-profiler.check-interval:200ms}")
+    public void captureLongHolds() {
+        long now = System.nanoTime();
+        holds.values().forEach(hold -> {
+            if (!hold.reported && now - hold.acquiredAt > thresholdNanos) {
+                hold.reported = true;
+                longHolds.increment();
+                String stack = Arrays.stream(hold.owner.getStackTrace())
+                        .limit(props.getStackDepth())
+                        .map(frame -> "\tat " + frame)
+                        .collect(Collectors.joining("\n"));
+                log.warn("Connection held {} ms so far (endpoint={}, transaction={}, thread={}); owner is at:\n{}",
+                        TimeUnit.NANOSECONDS.toMillis(now - hold.acquiredAt), hold.endpoint,
+                        hold.transaction != null ? hold.transaction : NO_TRANSACTION, hold.owner.getName(), stack);
+            }
+        });
+    }
+
+    /** Сколько соединений сейчас на руках (для тестов/диагностики). */
+    public int openConnections() {
+        return holds.size();
+    }
+}
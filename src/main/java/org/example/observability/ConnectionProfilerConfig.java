@@ -0,0 +1,18 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.ConnectionProfilerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Как и SlowQueryListener, подключается к datasource-proxy через JdbcListenerChain (нужен app.sql-stats.enabled)
+@Configuration
+@ConditionalOnProperty(prefix = "app.connection-profiler", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionProfilerConfig {
+
+    @Bean
+    public ConnectionProfiler connectionProfiler(ConnectionProfilerProperties props, MeterRegistry registry) {
+        return new ConnectionProfiler(props, registry);
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+/** Имя эндпоинта для тегов метрик/логов: "ProjectRestController.list". */
+public final class Endpoints {
+
+    public static final String UNMAPPED = "UNMAPPED";
+
+    private Endpoints() {
+    }
+
+    public static String describe(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod hm) {
+            return hm.getBeanType().getSimpleName() + "." + hm.getMethod().getName();
+        }
+        return UNMAPPED;
+    }
+
+    /** Эндпоинт запроса, который обрабатывается в текущем потоке (или UNMAPPED вне HTTP-запроса). */
+    public static String current() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs instanceof ServletRequestAttributes sra) {
+            return describe(sra.getRequest());
+        }
+        return UNMAPPED;
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.observability;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * План запроса без значений параметров — для SQL из JDBC с "?".
+ *
+ * EXPLAIN (GENERIC_PLAN) с $n через pgjdbc не работает: драйвер шлёт текст по extended protocol,
+ * сервер видит параметры $n и ждёт для них значения в Bind («bind message supplies 0 parameters»).
+ * Поэтому запрос готовится PREPARE, план принудительно generic (plan_cache_mode) и смотрится
+ * EXPLAIN EXECUTE с NULL: в generic-план значения не подставляются, NULL его не сворачивает.
+ * Запрос не выполняется. Нужна открытая транзакция (SET LOCAL); prepared statement живёт в сессии,
+ * а не в транзакции, поэтому удаляется и тогда, когда EXPLAIN упал.
+ */
+public final class GenericPlan {
+
+    private static final String STATEMENT = "generic_plan_probe";
+
+    private GenericPlan() {
+    }
+
+    /** Строки плана; options — опции EXPLAIN, например "(FORMAT JSON)", или пустая строка. */
+    public static List<String> explain(Connection c, String sql, String options) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+            st.execute("PREPARE " + STATEMENT + " AS " + SqlText.toPositional(sql));
+            // после ошибки транзакция прервана — без отката к точке сохранения DEALLOCATE не пройдёт
+            Savepoint prepared = c.setSavepoint();
+            try (ResultSet rs = st.executeQuery("EXPLAIN " + options + " EXECUTE " + STATEMENT
+                    + arguments(SqlText.placeholderCount(sql)))) {
+                List<String> plan = new ArrayList<>();
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+                return plan;
+            } catch (SQLException e) {
+                c.rollback(prepared);
+                throw e;
+            } finally {
+                st.execute("DEALLOCATE " + STATEMENT);
+            }
+        }
+    }
+
+    private static String arguments(int count) {
+        return count == 0 ? "" : "(" + String.join(", ", Collections.nCopies(count, "NULL")) + ")";
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+
+/**
+ * Один listener для datasource-proxy, который раздаёт события всем бинам
+ * QueryExecutionListener / MethodExecutionListener из контекста.
+ * Бины резолвятся лениво (при первом обращении к БД), чтобы BeanPostProcessor
+ * не тянул их раньше времени.
+ */
+public class JdbcListenerChain implements QueryExecutionListener, MethodExecutionListener {
+
+    private final ObjectProvider<QueryExecutionListener> queryListeners;
+    private final ObjectProvider<MethodExecutionListener> methodListeners;
+
+    private volatile List<QueryExecutionListener> queries;
+    private volatile List<MethodExecutionListener> methods;
+
+    public JdbcListenerChain(ObjectProvider<QueryExecutionListener> queryListeners,
+                             ObjectProvider<MethodExecutionListener> methodListeners) {
+        this.queryListeners = queryListeners;
+        this.methodListeners = methodListeners;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryExecutionListener l : queries()) {
+            l.beforeQuery(execInfo, queryInfoList);
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        for (QueryExecutionListener l : queries()) {
+            l.afterQuery(execInfo, queryInfoList);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+        for (MethodExecutionListener l : methods()) {
+            l.beforeMethod(executionContext);
+        }
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        for (MethodExecutionListener l : methods()) {
+            l.afterMethod(executionContext);
+        }
+    }
+
+    private List<QueryExecutionListener> queries() {
+        List<QueryExecutionListener> list = queries;
+        if (list == null) {
+            list = queryListeners.orderedStream().filter(l -> l != this).toList();
+            queries = list;
+        }
+        return list;
+    }
+
+    private List<MethodExecutionListener> methods() {
+        List<MethodExecutionListener> list = methods;
+        if (list == null) {
+            list = methodListeners.orderedStream().filter(l -> l != this).toList();
+            methods = list;
+        }
+        return list;
+    }
+}
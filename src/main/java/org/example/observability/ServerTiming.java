@@ -0,0 +1,130 @@
+package org.example.observability;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Разбивка времени запроса по фазам для заголовка Server-Timing и метрики http.server.phase.
+ * Живёт в ThreadLocal между {@link #open(boolean)} и {@link #close()} (см. ServerTimingFilter);
+ * вне запроса все методы — no-op.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        AUTH("auth"),           // проверка JWT
+        USERLOAD("userload"),   // UserDetailsService.loadUserByUsername
+        DB("db"),               // время JDBC (из SqlStats) вне остальных фаз
+        MAP("map"),             // entity → DTO
+        SERIALIZE("serialize"); // Jackson
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String metricName() {
+            return metricName;
+        }
+    }
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long[] nanos = new long[Phase.values().length];
+    // время JDBC, уже учтённое в других фазах (SQL загрузки пользователя в userload)
+    private long sqlInPhases;
+    private final boolean headerRequested;
+    private boolean headerAllowed;
+
+    private ServerTiming(boolean headerRequested) {
+        this.headerRequested = headerRequested;
+    }
+
+    public static ServerTiming open(boolean headerRequested) {
+        ServerTiming timing = new ServerTiming(headerRequested);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static ServerTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Время действия — в фазу, и тогда, когда оно бросило исключение. SQL, выполненный внутри,
+     * остаётся в этой фазе и из db вычитается: иначе он считался бы дважды. Фазы не вкладываются.
+     */
+    public static <T> T time(Phase phase, Supplier<T> action) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return action.get();
+        }
+        long sqlStart = sqlNanos();
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            timing.add(phase, System.nanoTime() - start);
+            timing.sqlInPhases += sqlNanos() - sqlStart;
+        }
+    }
+
+    private static long sqlNanos() {
+        SqlStats sql = SqlStats.current();
+        return sql == null ? 0L : sql.jdbcNanos();
+    }
+
+    void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+    }
+
+    boolean headerRequested() {
+        return headerRequested;
+    }
+
+    void allowHeader() {
+        this.headerAllowed = true;
+    }
+
+    /** Можно ли отдавать Server-Timing этому клиенту (решает ServerTimingInterceptor). */
+    public boolean headerAllowed() {
+        return headerAllowed;
+    }
+
+    /** Фазы с ненулевым временем; db — время JDBC из SqlStats за вычетом SQL внутри других фаз. */
+    public Map<Phase, Long> phases() {
+        Map<Phase, Long> result = new EnumMap<>(Phase.class);
+        for (Phase phase : Phase.values()) {
+            if (nanos[phase.ordinal()] > 0) {
+                result.put(phase, nanos[phase.ordinal()]);
+            }
+        }
+        long db = sqlNanos() - sqlInPhases;
+        if (db > 0) {
+            result.merge(Phase.DB, db, Long::sum);
+        }
+        return result;
+    }
+
+    /** "auth;dur=0.412, db;dur=2.031, serialize;dur=0.190" (миллисекунды). */
+    public String toHeaderValue() {
+        StringBuilder sb = new StringBuilder(96);
+        phases().forEach((phase, ns) -> {
+            if (!sb.isEmpty()) {
+                sb.append(", ");
+            }
+            sb.append(phase.metricName())
+                    .append(";dur=")
+                    .append(String.format(Locale.ROOT, "%.3f", ns / 1_000_000.0));
+        });
+        return sb.toString();
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.ServerTimingProperties;
+import org.example.warmup.Warmup;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Открывает ServerTiming на время запроса. После обработки пишет фазы в метрику
+ * http.server.phase{phase,endpoint} и, для ответов без тела, заголовок Server-Timing
+ * (для ответов с телом его ставит ServerTimingJacksonConverter перед сериализацией).
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final ServerTimingProperties props;
+    private final MeterRegistry registry;
+
+    public ServerTimingFilter(ServerTimingProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean requested = StringUtils.hasText(request.getHeader(props.getRequestHeader()));
+        if (!props.isEnabled() && !props.isMetricsEnabled() && !requested) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ServerTiming timing = ServerTiming.open(requested);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            try {
+                if (timing.headerAllowed() && !response.isCommitted()) {
+                    response.setHeader(ServerTiming.HEADER, timing.toHeaderValue());
+                }
+                if (props.isMetricsEnabled() && !Warmup.isActive()) {
+                    record(Endpoints.describe(request), timing);
+                }
+            } finally {
+                ServerTiming.close();
+            }
+        }
+    }
+
+    private void record(String endpoint, ServerTiming timing) {
+        timing.phases().forEach((phase, nanos) -> Timer.builder("http.server.phase")
+                .description("Время фазы обработки запроса (auth/userload/db/map/serialize)")
+                .tag("phase", phase.metricName())
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.observability;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.ServerTimingProperties;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Решает, можно ли отдать Server-Timing: всегда, если включено в профиле,
+ * либо по заголовку-флагу — только привилегированной роли.
+ * Работает внутри цепочки Spring Security, поэтому аутентификация уже известна.
+ */
+public class ServerTimingInterceptor implements HandlerInterceptor {
+
+    private final ServerTimingProperties props;
+
+    public ServerTimingInterceptor(ServerTimingProperties props) {
+        this.props = props;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        ServerTiming timing = ServerTiming.current();
+        if (timing != null && (props.isEnabled() || (timing.headerRequested() && isPrivileged()))) {
+            timing.allowHeader();
+        }
+        return true;
+    }
+
+    private boolean isPrivileged() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return false;
+        }
+        String role = "ROLE_" + props.getPrivilegedRole();
+        return auth.getAuthorities().stream().anyMatch(a -> role.equals(a.getAuthority()));
+    }
+}
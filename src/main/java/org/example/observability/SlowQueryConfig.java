@@ -0,0 +1,30 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.SlowQueryProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Слушатель подключается к datasource-proxy через JdbcListenerChain, поэтому нужен включённый app.sql-stats
+@Configuration
+@ConditionalOnProperty(prefix = "app.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryConfig {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(DataSource dataSource, SlowQueryProperties props, MeterRegistry registry) {
+        return new SlowQueryLog(dataSource, props, registry);
+    }
+
+    @Bean
+    public SlowQueryListener slowQueryListener(SlowQueryLog slowQueryLog, SlowQueryProperties props) {
+        return new SlowQueryListener(slowQueryLog, props.getThreshold().toMillis());
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog, SlowQueryProperties props) {
+        return new SlowQueryEndpoint(slowQueryLog, props.getThreshold());
+    }
+}
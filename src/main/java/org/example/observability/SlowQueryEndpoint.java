@@ -0,0 +1,28 @@
+package org.example.observability;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/** /actuator/slowqueries: последние медленные SQL (новые сверху) и снятые для них планы. */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    public record Report(long thresholdMs, List<SlowQueryLog.Entry> entries, Map<String, SlowQueryLog.Plan> plans) { }
+
+    private final SlowQueryLog log;
+    private final Duration threshold;
+
+    public SlowQueryEndpoint(SlowQueryLog log, Duration threshold) {
+        this.log = log;
+        this.threshold = threshold;
+    }
+
+    @ReadOperation
+    public Report slowQueries() {
+        return new Report(threshold.toMillis(), log.entries(), log.plans());
+    }
+}
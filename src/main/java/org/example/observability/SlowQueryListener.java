@@ -0,0 +1,61 @@
+package org.example.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Ловит SQL дольше порога и отдаёт его в {@link SlowQueryLog}. В потоке запроса только
+ * сравнение времени и снятие контекста (эндпоинт, типы параметров) — всё остальное асинхронно.
+ * Значения bind-параметров не сохраняются, только их типы.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private final SlowQueryLog log;
+    private final long thresholdMillis;
+
+    public SlowQueryListener(SlowQueryLog log, long thresholdMillis) {
+        this.log = log;
+        this.thresholdMillis = thresholdMillis;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        if (elapsed < thresholdMillis || queryInfoList.isEmpty()) {
+            return;
+        }
+        QueryInfo query = queryInfoList.get(0);
+        String sql = query.getQuery();
+        if (sql.regionMatches(true, 0, "EXPLAIN", 0, 7)) {
+            return; // собственный EXPLAIN из SlowQueryLog
+        }
+        log.submit(new SlowQueryLog.Event(Instant.now(), sql, parameterTypes(query), Endpoints.current(),
+                elapsed, execInfo.isSuccess()));
+    }
+
+    private static List<String> parameterTypes(QueryInfo query) {
+        if (query.getParametersList().isEmpty()) {
+            return List.of();
+        }
+        // для batch берём первый набор параметров — формы у всех одинаковые
+        List<ParameterSetOperation> ops = query.getParametersList().get(0);
+        List<String> types = new ArrayList<>(ops.size());
+        for (ParameterSetOperation op : ops) {
+            Object[] args = op.getArgs();
+            Object value = args.length > 1 && !"setNull".equals(op.getMethod().getName()) ? args[1] : null;
+            types.add(value == null ? "null" : value.getClass().getSimpleName().toLowerCase(Locale.ROOT));
+        }
+        return types;
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.observability;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.SlowQueryProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Асинхронная обработка медленных SQL: нормализация (без значений), структурный лог,
+ * EXPLAIN по fingerprint (не чаще explain-interval), кольцевой буфер последних событий
+ * для /actuator/slowqueries.
+ *
+ * Работает в одном фоновом потоке с ограниченной очередью: если БД тормозит массово,
+ * лишние события отбрасываются (счётчик db.slow.queries.dropped), а не копятся в памяти.
+ *
+ * EXPLAIN берёт соединение из общего пула, поэтому пропускается, пока в пуле кто-то ждёт
+ * соединения (db.slow.queries.explain.skipped): медленный SQL часто значит, что БД и так
+ * перегружена. План снимется при следующем медленном запросе с тем же fingerprint.
+ */
+public class SlowQueryLog implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger("org.example.slowquery");
+    private static final Pattern EXPLAINABLE = Pattern.compile("^\\s*(select|with|insert|update|delete)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final int MAX_PLANS = 500;
+
+    /** Сырой факт из потока запроса; SQL — как ушёл в JDBC (с плейсхолдерами). */
+    public record Event(Instant at, String sql, List<String> parameterTypes, String endpoint,
+                        long elapsedMillis, boolean success) { }
+
+    /** Что храним и отдаём наружу: SQL без литералов, план — отдельно по fingerprint. */
+    public record Entry(Instant at, String fingerprint, String sql, List<String> parameterTypes,
+                        String endpoint, long elapsedMillis, boolean success) { }
+
+    public record Plan(Instant capturedAt, String sql, String plan) { }
+
+    private final DataSource dataSource;
+    private final SlowQueryProperties props;
+    private final MeterRegistry registry;
+    private final Counter dropped;
+    private final Counter explainSkipped;
+    private final ThreadPoolExecutor executor;
+
+    private final Deque<Entry> ring = new ArrayDeque<>();
+    private final Map<String, Plan> plans = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Plan> eldest) {
+            return size() > MAX_PLANS;
+        }
+    };
+
+    public SlowQueryLog(DataSource dataSource, SlowQueryProperties props, MeterRegistry registry) {
+        this.dataSource = dataSource;
+        this.props = props;
+        this.registry = registry;
+        this.dropped = Counter.builder("db.slow.queries.dropped")
+                .description("Slow query events dropped because the processing queue was full")
+                .register(registry);
+        this.explainSkipped = Counter.builder("db.slow.queries.explain.skipped")
+                .description("EXPLAINs skipped because threads were waiting for a pooled connection")
+                .register(registry);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, props.getQueueSize())),
+                Thread.ofPlatform().name("slow-query-log").daemon(true).factory(),
+                (task, pool) -> dropped.increment());
+    }
+
+    public void submit(Event event) {
+        executor.execute(() -> process(event));
+    }
+
+    private void process(Event event) {
+        String normalized = SqlText.normalize(event.sql());
+        String fingerprint = SqlText.fingerprint(event.sql());
+        Entry entry = new Entry(event.at(), fingerprint, normalized, event.parameterTypes(), event.endpoint(),
+                event.elapsedMillis(), event.success());
+
+        Counter.builder("db.slow.queries")
+                .description("SQL statements slower than app.slow-query.threshold")
+                .tag("endpoint", event.endpoint())
+                .register(registry)
+                .increment();
+
+        boolean explained = props.isExplain() && explainIfDue(fingerprint, event.sql(), normalized);
+
+        synchronized (ring) {
+            ring.addFirst(entry);
+            while (ring.size() > props.getRingSize()) {
+                ring.removeLast();
+            }
+        }
+
+        // ключевые поля — и в тексте: addKeyValue видны только со structured-логом
+        log.atWarn()
+                .setMessage("slow query {}ms {} {} [{}]{}")
+                .addArgument(event.elapsedMillis())
+                .addArgument(event.endpoint())
+                .addArgument(normalized)
+                .addArgument(fingerprint)
+                .addArgument(explained ? "; plan captured, see /actuator/slowqueries" : "")
+                .addKeyValue("fingerprint", fingerprint)
+                .addKeyValue("elapsedMs", event.elapsedMillis())
+                .addKeyValue("endpoint", event.endpoint())
+                .addKeyValue("success", event.success())
+                .addKeyValue("parameterTypes", event.parameterTypes())
+                .addKeyValue("sql", normalized)
+                .log();
+    }
+
+    private boolean explainIfDue(String fingerprint, String sql, String normalized) {
+        if (!EXPLAINABLE.matcher(sql).find()) {
+            return false;
+        }
+        synchronized (plans) {
+            Plan known = plans.get(fingerprint);
+            if (known != null && known.capturedAt().plus(props.getExplainInterval()).isAfter(Instant.now())) {
+                return false;
+            }
+        }
+        if (poolHasWaiters()) {
+            explainSkipped.increment();
+            return false;
+        }
+        String plan = explain(sql);
+        synchronized (plans) {
+            plans.put(fingerprint, new Plan(Instant.now(), normalized, plan));
+        }
+        return true;
+    }
+
+    /**
+     * EXPLAIN без ANALYZE — запрос не выполняется, в том числе DML. План generic ({@link GenericPlan}),
+     * без значений параметров, так что их не нужно ни хранить, ни подставлять.
+     */
+    private String explain(String sql) {
+        try (Connection c = dataSource.getConnection()) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                st.execute("SET LOCAL statement_timeout = " + props.getExplainTimeout().toMillis());
+                return String.join("\n", GenericPlan.explain(c, sql, ""));
+            } finally {
+                c.rollback();
+            }
+        } catch (Exception e) {
+            return "EXPLAIN failed: " + e.getMessage();
+        }
+    }
+
+    private boolean poolHasWaiters() {
+        try {
+            HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            return pool != null && pool.getThreadsAwaitingConnection() > 0;
+        } catch (SQLException e) {
+            return false; // не Hikari — ждущих не видно, остаётся statement_timeout
+        }
+    }
+
+    public List<Entry> entries() {
+        synchronized (ring) {
+            return new ArrayList<>(ring);
+        }
+    }
+
+    public Map<String, Plan> plans() {
+        synchronized (plans) {
+            return new LinkedHashMap<>(plans);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.observability;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Счётчики SQL за один HTTP-запрос: statements, строки, суммарное время JDBC.
+ * Живёт в ThreadLocal между {@link #open()} и {@link #close()} (см. SqlStatsFilter).
+ */
+public final class SqlStats {
+
+    private static final ThreadLocal<SqlStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long rows;
+    private long jdbcNanos;
+    private final Map<String, Integer> perQuery = new HashMap<>();
+
+    public static SqlStats open() {
+        SqlStats stats = new SqlStats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    /** Статистика текущего запроса или null, если сбор не включён для этого потока. */
+    public static SqlStats current() {
+        return CURRENT.get();
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    synchronized void recordQuery(String sql, long nanos, long affectedRows) {
+        statements++;
+        jdbcNanos += nanos;
+        rows += Math.max(affectedRows, 0);
+        perQuery.merge(sql, 1, Integer::sum);
+    }
+
+    synchronized void recordRow() {
+        rows++;
+    }
+
+    public synchronized int statements() { return statements; }
+
+    public synchronized long rows() { return rows; }
+
+    public synchronized long jdbcNanos() { return jdbcNanos; }
+
+    /** Все различные SQL, выполненные за запрос. */
+    public synchronized Set<String> queries() {
+        return Set.copyOf(perQuery.keySet());
+    }
+
+    /** SQL, повторённые не меньше threshold раз — типичный признак N+1. */
+    public synchronized Map<String, Integer> repeatedQueries(int threshold) {
+        Map<String, Integer> result = new LinkedHashMap<>();
+        perQuery.forEach((sql, count) -> {
+            if (count >= threshold) {
+                result.put(sql, count);
+            }
+        });
+        return result;
+    }
+
+    /** Значение для заголовка X-SQL-Stats: "statements=2;rows=20;jdbc-ms=1.234". */
+    public synchronized String toHeaderValue() {
+        return String.format(Locale.ROOT, "statements=%d;rows=%d;jdbc-ms=%.3f",
+                statements, rows, jdbcNanos / 1_000_000.0);
+    }
+}
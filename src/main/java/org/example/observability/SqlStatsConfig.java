@@ -0,0 +1,62 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.config.SqlStatsProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "app.sql-stats", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatsConfig {
+
+    // Оборачиваем DataSource в datasource-proxy; все JDBC-listener'ы подключаются через JdbcListenerChain
+    @Bean
+    static BeanPostProcessor sqlStatsDataSourceProxy(ObjectProvider<QueryExecutionListener> queryListeners,
+                                                     ObjectProvider<MethodExecutionListener> methodListeners,
+                                                     Environment env) {
+        boolean countRows = env.getProperty("app.sql-stats.count-rows", Boolean.class, true);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                JdbcListenerChain chain = new JdbcListenerChain(queryListeners, methodListeners);
+                ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(ds)
+                        .name(beanName)
+                        .listener(chain)
+                        .methodListener(chain);
+                if (countRows) {
+                    builder.proxyResultSet();
+                }
+                return builder.build();
+            }
+        };
+    }
+
+    @Bean
+    public SqlStatsListener sqlStatsListener() {
+        return new SqlStatsListener();
+    }
+
+    // Фильтр — раньше Spring Security, чтобы в статистику попали и запросы из JwtAuthenticationFilter
+    @Bean
+    public FilterRegistrationBean<SqlStatsFilter> sqlStatsFilter(SqlStatsProperties props, MeterRegistry registry) {
+        var registration = new FilterRegistrationBean<>(new SqlStatsFilter(props, registry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+}
@@ -0,0 +1,80 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.SqlStatsProperties;
+import org.example.warmup.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Открывает SqlStats на время HTTP-запроса, затем пишет метрики с тегом эндпоинта
+ * (http.server.sql.statements / .rows / .time) и, если включено, заголовок X-SQL-Stats.
+ */
+public class SqlStatsFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-SQL-Stats";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatsFilter.class);
+
+    private final SqlStatsProperties props;
+    private final MeterRegistry registry;
+
+    public SqlStatsFilter(SqlStatsProperties props, MeterRegistry registry) {
+        this.props = props;
+        this.registry = registry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        SqlStats stats = SqlStats.open();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            SqlStats.close();
+
+            // Для ответов без тела (204/void) заголовок ставим здесь; с телом — SqlStatsHeaderAdvice
+            if (props.isExposeHeader() && !response.isCommitted()) {
+                response.setHeader(HEADER, stats.toHeaderValue());
+            }
+            if (!Warmup.isActive()) {
+                record(Endpoints.describe(request), stats);
+            }
+        }
+    }
+
+    private void record(String endpoint, SqlStats stats) {
+        DistributionSummary.builder("http.server.sql.statements")
+                .description("SQL statements на один HTTP-запрос")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.statements());
+        DistributionSummary.builder("http.server.sql.rows")
+                .description("Строк прочитано/изменено на один HTTP-запрос")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.rows());
+        Timer.builder("http.server.sql.time")
+                .description("Суммарное время JDBC на один HTTP-запрос")
+                .tag("endpoint", endpoint)
+                .register(registry)
+                .record(stats.jdbcNanos(), TimeUnit.NANOSECONDS);
+
+        Map<String, Integer> repeated = stats.repeatedQueries(props.getRepeatedQueryThreshold());
+        if (!repeated.isEmpty()) {
+            log.warn("Possible N+1 in {}: {}", endpoint, repeated);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.observability;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Складывает каждое выполнение SQL (и каждую прочитанную строку) в SqlStats текущего запроса. */
+public class SqlStatsListener implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String START_NANOS = SqlStatsListener.class.getName() + ".start";
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (SqlStats.current() != null) {
+            execInfo.addCustomValue(START_NANOS, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStats stats = SqlStats.current();
+        if (stats == null) {
+            return;
+        }
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long nanos = start != null
+                ? System.nanoTime() - start
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        stats.recordQuery(sql, nanos, affectedRows(execInfo.getResult()));
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext ctx) {
+        // Строки SELECT считаем по успешным ResultSet.next() (ResultSet проксируется, если count-rows=true)
+        if (ctx.getTarget() instanceof ResultSet
+                && "next".equals(ctx.getMethod().getName())
+                && Boolean.TRUE.equals(ctx.getResult())) {
+            SqlStats stats = SqlStats.current();
+            if (stats != null) {
+                stats.recordRow();
+            }
+        }
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer n) {
+            return n;
+        }
+        if (result instanceof int[] batch) {
+            long sum = 0;
+            for (int n : batch) {
+                sum += Math.max(n, 0);
+            }
+            return sum;
+        }
+        return 0;
+    }
+}
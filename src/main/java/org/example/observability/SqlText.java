@@ -0,0 +1,75 @@
+package org.example.observability;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/** Работа с текстом SQL для логов и EXPLAIN: нормализация без литералов, fingerprint, $n-плейсхолдеры. */
+public final class SqlText {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w$.])-?\\d+(?:\\.\\d+)?(?![\\w.])");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private SqlText() {
+    }
+
+    /**
+     * SQL без значений: литералы → ?, списки (?, ?, ?) → (?...), пробелы схлопнуты.
+     * Одинаковые по форме запросы с разными значениями дают одну строку — её и логируем.
+     */
+    public static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?...)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    /** Короткий стабильный идентификатор формы запроса (16 hex). */
+    public static String fingerprint(String sql) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(normalize(sql).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** JDBC-плейсхолдеры "?" → "$1, $2, ..." (вне строковых литералов) — для PREPARE в {@link GenericPlan}. */
+    public static String toPositional(String sql) {
+        StringBuilder out = new StringBuilder(sql.length() + 8);
+        boolean inLiteral = false;
+        int n = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                out.append('$').append(++n);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+
+    /** Число JDBC-плейсхолдеров "?" вне строковых литералов. */
+    public static int placeholderCount(String sql) {
+        boolean inLiteral = false;
+        int n = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            } else if (c == '?' && !inLiteral) {
+                n++;
+            }
+        }
+        return n;
+    }
+}
@@ -0,0 +1,192 @@
+package org.example.overload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.config.BulkheadProperties;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+
+/**
+ * Допуск под-запросов POST /api/batch теми же механизмами, что и отдельных HTTP-запросов:
+ * класс приоритета в {@link ConcurrencyLimitFilter}, стоимость ?size= в {@link FairShareFilter}
+ * и полоса {@link Bulkheads} — по методу и пути самого под-запроса. Сам батч FairShareFilter и
+ * BulkheadFilter пропускают ({@link #isBatch}): иначе двадцать GET size=1000 стоили бы 1 и шли
+ * бы в полосе write с её квотой соединений.
+ *
+ * atomic-батч — одна транзакция и одно соединение на всё время: он сразу платит сумму стоимостей
+ * под-запросов и идёт в полосе первой записи (нет записей — в полосе первого под-запроса).
+ */
+public class BatchAdmission {
+
+    public static final String PATH = "/api/batch";
+
+    private static final Permit GRANTED = new Permit(null, null, null, null, null, false);
+
+    /** Разрешение на выполнение; {@link #close()} возвращает всё занятое. */
+    public static final class Permit implements AutoCloseable {
+        private final BatchAdmission owner;
+        private final HttpStatus rejectedWith;
+        private final String reason;
+        private final FairScheduler.Ticket ticket;
+        private final Bulkheads.Lane lane;
+        private final boolean limited;
+        private Bulkheads.Lane previous;
+
+        private Permit(BatchAdmission owner, HttpStatus rejectedWith, String reason,
+                       FairScheduler.Ticket ticket, Bulkheads.Lane lane, boolean limited) {
+            this.owner = owner;
+            this.rejectedWith = rejectedWith;
+            this.reason = reason;
+            this.ticket = ticket;
+            this.lane = lane;
+            this.limited = limited;
+        }
+
+        public boolean isGranted() {
+            return rejectedWith == null;
+        }
+
+        /** Статус отказа (429/503); null, если пустили. */
+        public HttpStatus status() {
+            return rejectedWith;
+        }
+
+        public String reason() {
+            return reason;
+        }
+
+        // полоса — в ThreadLocal потока, который выполняет под-запрос (по ней LaneDataSource даёт соединения)
+        private Permit open() {
+            if (lane != null) {
+                previous = Bulkheads.current();
+                Bulkheads.open(lane);
+            }
+            return this;
+        }
+
+        @Override
+        public void close() {
+            if (owner == null) {
+                return;
+            }
+            if (lane != null) {
+                if (previous != null) {
+                    Bulkheads.open(previous);
+                } else {
+                    Bulkheads.close();
+                }
+                lane.exit();
+            }
+            if (ticket != null) {
+                owner.fairShare.release(ticket);
+            }
+            if (limited) {
+                owner.concurrencyLimit.exit();
+            }
+        }
+    }
+
+    private final ConcurrencyLimitFilter concurrencyLimit;
+    private final FairShareFilter fairShare;
+    private final Bulkheads bulkheads;
+    private final BulkheadProperties bulkheadProps;
+
+    public BatchAdmission(ConcurrencyLimitFilter concurrencyLimit, FairShareFilter fairShare,
+                          Bulkheads bulkheads, BulkheadProperties bulkheadProps) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.fairShare = fairShare;
+        this.bulkheads = bulkheads;
+        this.bulkheadProps = bulkheadProps;
+    }
+
+    public static boolean isBatch(HttpServletRequest request) {
+        return HttpMethod.POST.matches(request.getMethod())
+                && request.getRequestURI().equals(request.getContextPath() + PATH);
+    }
+
+    /**
+     * Один под-запрос (обычный батч): своя стоимость, свой слот лимита, своя полоса.
+     * Слот лимита занимается после билета fair-share, как и у отдельного запроса: ожидание
+     * в очереди пользователя не держит общий лимит.
+     */
+    public Permit admit(HttpServletRequest subRequest, Authentication auth) {
+        return admit(fairShare.isEnabled() ? fairShare.cost(subRequest) : 0, lane(subRequest), auth,
+                concurrencyLimit.isEnabled() ? subRequest : null);
+    }
+
+    /**
+     * Все под-запросы atomic-батча разом: сумма стоимостей и одна полоса на транзакцию.
+     * Слот лимита не занимается — батч уже занял его как обычный запрос, а под-запросы идут по одному.
+     */
+    public Permit admitAll(List<? extends HttpServletRequest> subRequests, Authentication auth) {
+        int cost = 0;
+        Bulkheads.Lane first = null;
+        Bulkheads.Lane firstWrite = null;
+        for (HttpServletRequest sub : subRequests) {
+            if (fairShare.isEnabled()) {
+                cost += fairShare.cost(sub);
+            }
+            Bulkheads.Lane lane = lane(sub);
+            if (first == null) {
+                first = lane;
+            }
+            if (firstWrite == null && !HttpMethod.GET.matches(sub.getMethod())) {
+                firstWrite = lane;
+            }
+        }
+        return admit(cost, firstWrite != null ? firstWrite : first, auth, null);
+    }
+
+    /** limitBy — под-запрос, под класс которого занимается слот лимита; null — слот не нужен. */
+    private Permit admit(int cost, Bulkheads.Lane lane, Authentication auth, HttpServletRequest limitBy) {
+        FairScheduler.Ticket ticket = null;
+        if (cost > 0 && auth != null && auth.isAuthenticated() && !(auth instanceof AnonymousAuthenticationToken)) {
+            ticket = fairShare.admit(auth, cost);
+            if (!ticket.isGranted()) {
+                return new Permit(null, FairShareFilter.status(ticket.rejection()),
+                        FairShareFilter.message(ticket.rejection()), null, null, false);
+            }
+        }
+        boolean limited = false;
+        if (limitBy != null) {
+            if (!concurrencyLimit.tryEnter(limitBy)) {
+                if (ticket != null) {
+                    fairShare.release(ticket);
+                }
+                return new Permit(null, HttpStatus.SERVICE_UNAVAILABLE, ConcurrencyLimitFilter.REJECTED,
+                        null, null, false);
+            }
+            limited = true;
+        }
+        if (lane != null) {
+            boolean entered;
+            try {
+                entered = lane.enter();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                entered = false;
+            }
+            if (!entered) {
+                if (ticket != null) {
+                    fairShare.release(ticket);
+                }
+                if (limited) {
+                    concurrencyLimit.exit();
+                }
+                return new Permit(null, HttpStatus.SERVICE_UNAVAILABLE,
+                        "Too many concurrent " + lane.name() + " requests, retry later", null, null, false);
+            }
+        }
+        if (ticket == null && lane == null && !limited) {
+            return GRANTED;
+        }
+        return new Permit(this, null, null, ticket, lane, limited).open();
+    }
+
+    private Bulkheads.Lane lane(HttpServletRequest request) {
+        return bulkheadProps.isEnabled() ? bulkheads.resolve(request) : null;
+    }
+}
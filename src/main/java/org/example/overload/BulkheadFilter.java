@@ -0,0 +1,65 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.BulkheadProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Пускает запрос в его полосу ({@link Bulkheads}) или отвечает 503, если место не освободилось за max-wait.
+ * Полоса остаётся открытой в ThreadLocal на всё время обработки — по ней LaneDataSource выдаёт соединения.
+ * POST /api/batch полосы не занимает: каждый его под-запрос входит в свою ({@link BatchAdmission}).
+ */
+public class BulkheadFilter extends OncePerRequestFilter {
+
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final BulkheadProperties props;
+    private final Bulkheads bulkheads;
+    private final ObjectMapper objectMapper;
+
+    public BulkheadFilter(BulkheadProperties props, Bulkheads bulkheads, ObjectMapper objectMapper) {
+        this.props = props;
+        this.bulkheads = bulkheads;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Bulkheads.Lane lane = props.isEnabled() && !BatchAdmission.isBatch(request) ? bulkheads.resolve(request) : null;
+        if (lane == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean admitted;
+        try {
+            admitted = lane.enter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted = false;
+        }
+        if (!admitted) {
+            Rejections.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE, RETRY_AFTER,
+                    "Too many concurrent " + lane.name() + " requests, retry later");
+            return;
+        }
+
+        Bulkheads.open(lane);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Bulkheads.close();
+            lane.exit();
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.config.BulkheadProperties;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Полосы (bulkheads) по классам трафика: у каждой свой лимит одновременных запросов и своя квота
+ * соединений пула. Логин-шторм упирается в лимит полосы auth, массовая запись — в квоту write,
+ * а чтения продолжают получать и потоки, и соединения.
+ *
+ * Полоса текущего запроса живёт в ThreadLocal (как SqlStats/ServerTiming): её ставит
+ * {@link BulkheadFilter}, а {@link LaneDataSource} по ней выбирает квоту соединений.
+ * Изоляция — семафорами в потоке запроса, а не отдельными пулами потоков: обработка в
+ * Spring MVC синхронная, перекладывать её в другой executor значило бы держать два потока на запрос.
+ */
+public class Bulkheads {
+
+    private static final ThreadLocal<Lane> CURRENT = new ThreadLocal<>();
+
+    public static final class Lane {
+        private final String name;
+        private final List<RoutePattern> patterns;
+        private final int maxConcurrent;
+        private final long maxWaitNanos;
+        private final Semaphore requests;
+        private final Semaphore connections;
+        private final long connectionWaitNanos;
+
+        private final Counter rejected;
+        private final Timer waited;
+        private final Counter connectionTimeouts;
+        private final Timer connectionWaited;
+
+        Lane(BulkheadProperties.Lane cfg, MeterRegistry registry) {
+            this.name = cfg.getName();
+            this.patterns = cfg.getPatterns().stream().map(RoutePattern::parse).toList();
+            this.maxConcurrent = cfg.getMaxConcurrent();
+            this.maxWaitNanos = cfg.getMaxWait().toNanos();
+            this.requests = new Semaphore(cfg.getMaxConcurrent(), true);
+            this.connections = cfg.getMaxConnections() > 0 ? new Semaphore(cfg.getMaxConnections(), true) : null;
+            this.connectionWaitNanos = cfg.getConnectionWait().toNanos();
+
+            this.rejected = Counter.builder("bulkhead.rejected")
+                    .description("Requests rejected because the bulkhead lane was full")
+                    .tag("lane", name)
+                    .register(registry);
+            this.waited = Timer.builder("bulkhead.wait")
+                    .description("Time waiting for a slot in the bulkhead lane")
+                    .tag("lane", name)
+                    .register(registry);
+            Gauge.builder("bulkhead.active", this, lane -> lane.maxConcurrent - lane.requests.availablePermits())
+                    .description("Requests executing in the bulkhead lane")
+                    .tag("lane", name)
+                    .register(registry);
+            this.connectionTimeouts = Counter.builder("bulkhead.connections.timeouts")
+                    .description("Connection requests that exceeded the lane's connection quota wait")
+                    .tag("lane", name)
+                    .register(registry);
+            this.connectionWaited = Timer.builder("bulkhead.connections.wait")
+                    .description("Time waiting for the lane's connection quota")
+                    .tag("lane", name)
+                    .register(registry);
+            if (connections != null) {
+                int quota = cfg.getMaxConnections();
+                Gauge.builder("bulkhead.connections.active", this,
+                                lane -> quota - lane.connections.availablePermits())
+                        .description("Pooled connections held by the bulkhead lane")
+                        .tag("lane", name)
+                        .register(registry);
+            }
+        }
+
+        public String name() {
+            return name;
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return patterns.stream().anyMatch(p -> p.matches(method, path));
+        }
+
+        boolean enter() throws InterruptedException {
+            long start = System.nanoTime();
+            boolean admitted = requests.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            waited.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!admitted) {
+                rejected.increment();
+            }
+            return admitted;
+        }
+
+        void exit() {
+            requests.release();
+        }
+
+        /** false — не дождались квоты за connection-wait (учитывается в bulkhead.connections.timeouts). */
+        boolean acquireConnection() throws InterruptedException {
+            long start = System.nanoTime();
+            boolean acquired = connections.tryAcquire(connectionWaitNanos, TimeUnit.NANOSECONDS);
+            connectionWaited.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (!acquired) {
+                connectionTimeouts.increment();
+            }
+            return acquired;
+        }
+
+        void releaseConnection() {
+            connections.release();
+        }
+
+        boolean hasConnectionQuota() {
+            return connections != null;
+        }
+
+        long connectionWaitMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(connectionWaitNanos);
+        }
+    }
+
+    private final List<Lane> lanes = new ArrayList<>();
+
+    public Bulkheads(BulkheadProperties props, MeterRegistry registry) {
+        for (BulkheadProperties.Lane cfg : props.getLanes()) {
+            lanes.add(new Lane(cfg, registry));
+        }
+    }
+
+    /** Полоса запроса или null, если ни один шаблон не подошёл. */
+    public Lane resolve(HttpServletRequest request) {
+        return resolve(request.getMethod(), RoutePattern.pathOf(request));
+    }
+
+    Lane resolve(String method, PathContainer path) {
+        for (Lane lane : lanes) {
+            if (lane.matches(method, path)) {
+                return lane;
+            }
+        }
+        return null;
+    }
+
+    static void open(Lane lane) {
+        CURRENT.set(lane);
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    /** Полоса запроса в текущем потоке; null вне HTTP-запроса (фоновые задачи, health). */
+    public static Lane current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,163 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.ConcurrencyLimitProperties;
+import org.example.warmup.Warmup;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Глобальный сброс нагрузки: пропускает не больше limit × share запросов одновременно,
+ * остальным сразу отвечает 503 с Retry-After — не держит их в очереди Tomcat до таймаута клиента.
+ *
+ * Лимит подстраивает {@link GradientLimit} по латентности пропущенных запросов. Классы из
+ * {@link PriorityClasses} упираются в лимит по-разному: при share 0.5 «тяжёлые» списки отсекаются,
+ * когда занята половина лимита, а health/auth с share 1.0 проходят до последнего слота.
+ * Стоит в security-цепочке перед JwtAuthenticationFilter — отказ не тратит время на проверку токена.
+ *
+ * Ожидание в очереди {@link FairShareFilter} идёт уже после этого фильтра, поэтому на его время
+ * запрос отдаёт слот ({@link Slot}): иначе один пользователь с очередью в 20 запросов занимал бы
+ * весь класс bulk, а его ожидание в очереди сжимало бы лимит как латентность сервера.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    static final String REJECTED = "Server is overloaded, retry later";
+
+    /** Атрибут запроса со {@link Slot} — его берёт FairShareFilter. */
+    static final String SLOT = ConcurrencyLimitFilter.class.getName() + ".slot";
+
+    private final ConcurrencyLimitProperties props;
+    private final PriorityClasses priorities;
+    private final GradientLimit limit;
+    private final ObjectMapper objectMapper;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private final Map<String, Counter> shed;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties props, ObjectMapper objectMapper, MeterRegistry registry) {
+        this.props = props;
+        this.priorities = new PriorityClasses(props);
+        this.limit = new GradientLimit(props, System.nanoTime());
+        this.objectMapper = objectMapper;
+        this.shed = priorities.all().stream().collect(Collectors.toMap(PriorityClasses.Priority::name,
+                p -> Counter.builder("http.server.shed")
+                        .description("Requests rejected by the concurrency limiter")
+                        .tag("priority", p.name())
+                        .register(registry),
+                (a, b) -> a));
+        Gauge.builder("http.server.concurrency.limit", limit, GradientLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("http.server.concurrency.inflight", inflight, AtomicInteger::get)
+                .description("Requests currently admitted by the concurrency limiter")
+                .register(registry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!props.isEnabled()) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        if (!tryEnter(request)) {
+            Rejections.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE, props.getRetryAfter(),
+                    REJECTED);
+            return;
+        }
+
+        Slot slot = new Slot(request);
+        request.setAttribute(SLOT, slot);
+        long start = System.nanoTime();
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            // слот не вернули после очереди fair-share — ответ уже 503 или 429, замерять нечего
+            if (slot.held) {
+                int atFinish = inflight.getAndDecrement();
+                // ошибки обычно быстрые и только занижали бы RTT; холодные запросы прогрева — завышали бы
+                if (completed && response.getStatus() < 500 && !Warmup.isActive()) {
+                    long now = System.nanoTime();
+                    limit.onSample(now - start - slot.suspendedNanos, atFinish, now);
+                }
+            }
+        }
+    }
+
+    /**
+     * Слот запроса в лимите. Пока запрос ждёт в очереди fair-share, слот отдан ({@link #suspend}):
+     * ожидание не занимает лимит и не входит в замер латентности. Используется из одного потока запроса.
+     */
+    final class Slot {
+        private final HttpServletRequest request;
+        private boolean held = true;
+        private long suspendedAt;
+        private long suspendedNanos;
+
+        private Slot(HttpServletRequest request) {
+            this.request = request;
+        }
+
+        void suspend() {
+            if (held) {
+                held = false;
+                suspendedAt = System.nanoTime();
+                inflight.decrementAndGet();
+            }
+        }
+
+        /** Снова занимает слот после ожидания; класс упёрся в лимит — пишет 503 и возвращает false. */
+        boolean resume(HttpServletResponse response) throws IOException {
+            if (held) {
+                return true;
+            }
+            suspendedNanos += System.nanoTime() - suspendedAt;
+            if (!tryEnter(request)) {
+                Rejections.write(objectMapper, request, response, HttpStatus.SERVICE_UNAVAILABLE,
+                        props.getRetryAfter(), REJECTED);
+                return false;
+            }
+            held = true;
+            return true;
+        }
+    }
+
+    boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    /**
+     * Занимает слот в лимите с долей класса запроса; false — класс упёрся в лимит (учтено в http.server.shed).
+     * Занятый слот освобождает {@link #exit()} — или finally в doFilterInternal вместе с замером латентности.
+     */
+    boolean tryEnter(HttpServletRequest request) {
+        PriorityClasses.Priority priority = priorities.resolve(request);
+        int allowed = Math.max(1, (int) (limit.limit() * priority.share()));
+        if (inflight.incrementAndGet() > allowed) {
+            inflight.decrementAndGet();
+            shed.get(priority.name()).increment();
+            return false;
+        }
+        return true;
+    }
+
+    // Под-запросы батча латентность не сэмплируют: её замеряет сам батч как один запрос
+    void exit() {
+        inflight.decrementAndGet();
+    }
+}
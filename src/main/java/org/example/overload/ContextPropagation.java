@@ -0,0 +1,37 @@
+package org.example.overload;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * Переносит контекст перегрузки текущего запроса — дедлайн и полосу bulkhead — в задачу для
+ * другого потока (под-запросы /api/batch на виртуальных потоках). Без этого SQL под-запроса
+ * выполнялся бы без таймаута. Сам батч полосы не занимает — её под-запрос получает от
+ * {@link BatchAdmission} уже в своём потоке; перенос полосы нужен прочим фоновым задачам запроса.
+ */
+public final class ContextPropagation {
+
+    private ContextPropagation() {
+    }
+
+    /** Снимает контекст сейчас (в потоке запроса); задачу выполнять в другом потоке. */
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Deadline deadline = Deadline.current();
+        Bulkheads.Lane lane = Bulkheads.current();
+        return () -> {
+            if (deadline != null) {
+                // свой Deadline на остаток: у каждого потока свой выполняющийся Statement для сторожа
+                Deadline.open(Duration.ofNanos(Math.max(1, deadline.remainingNanos())));
+            }
+            if (lane != null) {
+                Bulkheads.open(lane);
+            }
+            try {
+                return task.call();
+            } finally {
+                Bulkheads.close();
+                Deadline.close();
+            }
+        };
+    }
+}
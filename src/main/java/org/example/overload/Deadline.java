@@ -0,0 +1,105 @@
+package org.example.overload;
+
+import org.example.exception.DeadlineExceededException;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Дедлайн текущего запроса (ThreadLocal, как SqlStats/ServerTiming). Открывает DeadlineFilter;
+ * из него выводятся таймауты JDBC-запросов и транзакций, а сторож отменяет SQL, который
+ * продолжает выполняться после дедлайна — клиент к этому моменту ответа уже не ждёт.
+ */
+public final class Deadline {
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+    private static final Set<Deadline> IN_FLIGHT = ConcurrentHashMap.newKeySet();
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long deadlineNanos;
+    private final Duration timeout;
+    private volatile Statement running;
+    private volatile boolean cancelled;
+
+    private Deadline(Duration timeout) {
+        this.timeout = timeout;
+        this.deadlineNanos = System.nanoTime() + timeout.toNanos();
+    }
+
+    public static Deadline open(Duration timeout) {
+        Deadline deadline = new Deadline(timeout);
+        CURRENT.set(deadline);
+        IN_FLIGHT.add(deadline);
+        return deadline;
+    }
+
+    public static void close() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null) {
+            IN_FLIGHT.remove(deadline);
+            CURRENT.remove();
+        }
+    }
+
+    /** Дедлайн запроса в текущем потоке; null вне HTTP-запроса. */
+    public static Deadline current() {
+        return CURRENT.get();
+    }
+
+    /** Бросает DeadlineExceededException, если у текущего запроса дедлайн уже прошёл. */
+    public static void check() {
+        Deadline deadline = CURRENT.get();
+        if (deadline != null && deadline.expired()) {
+            throw deadline.exceeded();
+        }
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean expired() {
+        return remainingNanos() <= 0;
+    }
+
+    /** Остаток в целых секундах с округлением вверх, не меньше 1 — для JDBC и транзакций (у них секунды). */
+    public int remainingSeconds() {
+        long nanos = Math.max(1, remainingNanos());
+        return (int) Math.min(Integer.MAX_VALUE, (nanos + SECOND - 1) / SECOND);
+    }
+
+    public DeadlineExceededException exceeded() {
+        return new DeadlineExceededException("Request deadline of " + timeout.toMillis() + " ms exceeded");
+    }
+
+    void running(Statement statement) {
+        this.running = statement;
+    }
+
+    /**
+     * Отменяет выполняющийся SQL (Statement.cancel — отдельный запрос отмены в PostgreSQL).
+     * Вызывается из потока сторожа; true — было что отменять.
+     */
+    boolean cancel() {
+        Statement statement = running;
+        if (statement == null || cancelled) {
+            return false;
+        }
+        cancelled = true;
+        try {
+            statement.cancel();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /** Дедлайны запросов, которые сейчас обрабатываются, — для сторожа. */
+    static Set<Deadline> inFlight() {
+        return IN_FLIGHT;
+    }
+}
@@ -0,0 +1,30 @@
+package org.example.overload;
+
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * JpaTransactionManager, у которого таймаут транзакции не превышает остаток дедлайна запроса.
+ * Hibernate раздаёт остаток таймаута транзакции всем её SQL как query timeout.
+ * Если дедлайн уже прошёл, транзакция не начинается — соединение из пула не берётся.
+ */
+public class DeadlineAwareJpaTransactionManager extends JpaTransactionManager {
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        // до super.doBegin: внутри он заворачивает любые исключения в CannotCreateTransactionException
+        Deadline.check();
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        Deadline deadline = Deadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        int remaining = deadline.remainingSeconds();
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remaining : Math.min(timeout, remaining);
+    }
+}
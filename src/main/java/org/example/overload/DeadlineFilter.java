@@ -0,0 +1,81 @@
+package org.example.overload;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.DeadlineProperties;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.server.PathContainer;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Открывает {@link Deadline} на время запроса. Срок — из заголовка клиента (не больше max-timeout),
+ * иначе по шаблону маршрута из app.deadline.endpoints, иначе default-timeout.
+ *
+ * Клиент, передающий свой таймаут в заголовке, получает «отмену при уходе»: когда он перестаёт
+ * ждать, сервер тоже перестаёт — SQL отменяется по дедлайну. Сам разрыв соединения во время
+ * синхронной обработки Tomcat не замечает (сокет не читается, пока запрос не завершён).
+ */
+public class DeadlineFilter extends OncePerRequestFilter {
+
+    private record Rule(RoutePattern pattern, Duration timeout) { }
+
+    private final DeadlineProperties props;
+    private final List<Rule> rules = new ArrayList<>();
+
+    public DeadlineFilter(DeadlineProperties props) {
+        this.props = props;
+        props.getEndpoints().forEach((spec, timeout) -> rules.add(new Rule(RoutePattern.parse(spec), timeout)));
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !props.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Deadline.open(timeoutFor(request));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Deadline.close();
+        }
+    }
+
+    Duration timeoutFor(HttpServletRequest request) {
+        Duration requested = parse(request.getHeader(props.getHeader()));
+        if (requested != null) {
+            return requested.compareTo(props.getMaxTimeout()) > 0 ? props.getMaxTimeout() : requested;
+        }
+        PathContainer path = RoutePattern.pathOf(request);
+        for (Rule rule : rules) {
+            if (rule.pattern().matches(request.getMethod(), path)) {
+                return rule.timeout();
+            }
+        }
+        return props.getDefaultTimeout();
+    }
+
+    /** "1500" (мс), "1500ms", "2s"; мусор и неположительные значения игнорируем. */
+    private static Duration parse(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            Duration duration = DurationStyle.detectAndParse(value.trim());
+            return duration.isNegative() || duration.isZero() ? null : duration;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
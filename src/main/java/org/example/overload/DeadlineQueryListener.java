@@ -0,0 +1,97 @@
+package org.example.overload;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.example.config.DeadlineProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переводит дедлайн запроса в JDBC: перед каждым SQL ставит Statement.setQueryTimeout по остатку
+ * (PostgreSQL сам отменит запрос), а если дедлайн уже прошёл — не отправляет SQL вовсе.
+ *
+ * У JDBC-таймаута точность — секунды, поэтому сторож раз в watchdog-interval дополнительно
+ * отменяет SQL просроченных запросов через Statement.cancel(). Подключается к datasource-proxy
+ * через JdbcListenerChain, поэтому нужен app.sql-stats.enabled.
+ *
+ * У сторожа свой поток, а не общий @Scheduled-пул: при исчерпанном пуле соседние задачи
+ * (health-проба, профайлер соединений) висят в getConnection() до connectionTimeout —
+ * ровно тогда, когда отменять просроченный SQL нужнее всего.
+ */
+public class DeadlineQueryListener implements QueryExecutionListener, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineQueryListener.class);
+
+    private final Counter cancelled;
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("deadline-watchdog").daemon(true).factory());
+
+    public DeadlineQueryListener(DeadlineProperties props, MeterRegistry registry) {
+        this.cancelled = Counter.builder("deadline.queries.cancelled")
+                .description("SQL statements cancelled because the request deadline passed")
+                .register(registry);
+        if (props.isEnabled()) {
+            long interval = props.getWatchdogInterval().toNanos();
+            watchdog.scheduleWithFixedDelay(this::cancelExpired, interval, interval, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deadline deadline = Deadline.current();
+        Statement statement = execInfo.getStatement();
+        if (deadline == null || statement == null) {
+            return;
+        }
+        if (deadline.expired()) {
+            throw deadline.exceeded();
+        }
+        try {
+            int remaining = deadline.remainingSeconds();
+            int current = statement.getQueryTimeout();
+            // таймаут от транзакции (Hibernate ставит его сам) может быть уже короче
+            if (current == 0 || remaining < current) {
+                statement.setQueryTimeout(remaining);
+            }
+        } catch (SQLException e) {
+            log.debug("Could not set query timeout", e);
+        }
+        deadline.running(statement);
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deadline deadline = Deadline.current();
+        if (deadline != null) {
+            deadline.running(null);
+        }
+    }
+
+    void cancelExpired() {
+        try {
+            for (Deadline deadline : Deadline.inFlight()) {
+                if (deadline.expired() && deadline.cancel()) {
+                    cancelled.increment();
+                }
+            }
+        } catch (RuntimeException e) {
+            // исключение отменило бы все следующие запуски scheduleWithFixedDelay
+            log.warn("Deadline watchdog run failed", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        watchdog.shutdownNow();
+    }
+}
@@ -0,0 +1,269 @@
+package org.example.overload;
+
+import org.example.config.FairShareProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Deficit round robin по пользователям: общая ёмкость capacity (в единицах стоимости запроса)
+ * делится между теми, у кого есть ожидающие запросы, пропорционально весу — независимо от того,
+ * сколько запросов каждый успел прислать.
+ *
+ * Пока никто не ждёт, запрос проходит сразу (если влезает в ёмкость и в лимит на пользователя).
+ * Иначе он встаёт в очередь своего пользователя, а освободившуюся ёмкость раздаёт dispatch():
+ * обходит пользователей по кругу, каждому за проход добавляет к дефициту quantum × weight и
+ * выдаёт запросы, пока дефицит покрывает их стоимость.
+ *
+ * Память ограничена: состояние (Flow) есть только у пользователей с непустой очередью,
+ * а их не больше max-queued; счётчики in-flight — только у тех, чьи запросы выполняются.
+ */
+public class FairScheduler {
+
+    public enum Rejection { PRINCIPAL_QUEUE_FULL, QUEUE_FULL, TIMEOUT }
+
+    /** Место в очереди; granted выставляет dispatch() под локом, ждущий поток будится через latch. */
+    public static final class Ticket {
+        final String principal;
+        final int cost;
+        private final CountDownLatch latch = new CountDownLatch(1);
+        private volatile boolean granted;
+        private Rejection rejection;
+
+        Ticket(String principal, int cost) {
+            this.principal = principal;
+            this.cost = cost;
+        }
+
+        public boolean isGranted() {
+            return granted;
+        }
+
+        public Rejection rejection() {
+            return rejection;
+        }
+    }
+
+    public record QueueInfo(String principal, int queued, int inFlight, int weight, int deficit) { }
+
+    private static final class Flow {
+        final String principal;
+        final int weight;
+        final ArrayDeque<Ticket> queue = new ArrayDeque<>();
+        int deficit;
+
+        Flow(String principal, int weight) {
+            this.principal = principal;
+            this.weight = weight;
+        }
+    }
+
+    private final FairShareProperties props;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final ArrayDeque<Flow> active = new ArrayDeque<>();
+    private final Map<String, Integer> inFlightByPrincipal = new HashMap<>();
+    private int inFlight;
+    private int queued;
+
+    public FairScheduler(FairShareProperties props) {
+        this.props = props;
+    }
+
+    /**
+     * Пропустить сразу или поставить в очередь. Возвращает уже выданный билет, билет в очереди
+     * (ждать через {@link #await}) или отклонённый — с заполненным rejection().
+     */
+    public Ticket submit(String principal, int weight, int cost) {
+        Ticket ticket = new Ticket(principal, Math.max(1, Math.min(cost, props.getCapacity())));
+        lock.lock();
+        try {
+            if (active.isEmpty() && fits(ticket)) {
+                grant(ticket);
+                return ticket;
+            }
+            Flow flow = flows.get(principal);
+            if (flow != null && flow.queue.size() >= props.getMaxQueuedPerPrincipal()) {
+                ticket.rejection = Rejection.PRINCIPAL_QUEUE_FULL;
+                return ticket;
+            }
+            if (queued >= props.getMaxQueued()) {
+                ticket.rejection = Rejection.QUEUE_FULL;
+                return ticket;
+            }
+            if (flow == null) {
+                flow = new Flow(principal, Math.max(1, weight));
+                flows.put(principal, flow);
+                active.addLast(flow);
+            }
+            flow.queue.addLast(ticket);
+            queued++;
+            dispatch();
+            return ticket;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Ждёт выдачи не дольше timeout; по таймауту убирает билет из очереди. */
+    public boolean await(Ticket ticket, long timeout, TimeUnit unit) throws InterruptedException {
+        boolean interrupted = false;
+        try {
+            if (ticket.latch.await(timeout, unit)) {
+                return true;
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        lock.lock();
+        try {
+            if (ticket.granted) {
+                // выдали между таймаутом и локом — пользуемся
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+            Flow flow = flows.get(ticket.principal);
+            if (flow != null && flow.queue.remove(ticket)) {
+                queued--;
+                if (flow.queue.isEmpty()) {
+                    removeFlow(flow);
+                }
+            }
+            ticket.rejection = Rejection.TIMEOUT;
+        } finally {
+            lock.unlock();
+        }
+        if (interrupted) {
+            throw new InterruptedException();
+        }
+        return false;
+    }
+
+    public void release(Ticket ticket) {
+        lock.lock();
+        try {
+            inFlight -= ticket.cost;
+            inFlightByPrincipal.computeIfPresent(ticket.principal, (p, n) -> n > ticket.cost ? n - ticket.cost : null);
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatch() {
+        int idleVisits = 0;
+        // дефицит копится, только пока есть что раздавать — иначе за время простоя его набрали бы все
+        while (!active.isEmpty() && inFlight < props.getCapacity()) {
+            Flow flow = active.peekFirst();
+            Ticket head = flow.queue.peekFirst();
+            if (principalInFlight(flow.principal) + head.cost > props.getMaxInFlightPerPrincipal()
+                    && principalInFlight(flow.principal) > 0) {
+                // у этого пользователя и так занято своё — пропускаем ход, дефицит не копим
+                active.addLast(active.pollFirst());
+                if (++idleVisits >= active.size()) {
+                    return;
+                }
+                continue;
+            }
+            idleVisits = 0;
+            if (flow.deficit < head.cost) {
+                flow.deficit += Math.max(1, props.getQuantum()) * flow.weight;
+                active.addLast(active.pollFirst());
+                continue;
+            }
+            if (inFlight > 0 && inFlight + head.cost > props.getCapacity()) {
+                // ёмкости нет — ждём release(); ход остаётся за этим пользователем,
+                // так что дорогой запрос не обгоняют бесконечно дешёвые
+                return;
+            }
+            flow.deficit -= head.cost;
+            flow.queue.pollFirst();
+            queued--;
+            grant(head);
+            if (flow.queue.isEmpty()) {
+                removeFlow(flow);
+            }
+        }
+    }
+
+    private boolean fits(Ticket ticket) {
+        int mine = principalInFlight(ticket.principal);
+        return (inFlight == 0 || inFlight + ticket.cost <= props.getCapacity())
+                && (mine == 0 || mine + ticket.cost <= props.getMaxInFlightPerPrincipal());
+    }
+
+    private void grant(Ticket ticket) {
+        inFlight += ticket.cost;
+        inFlightByPrincipal.merge(ticket.principal, ticket.cost, Integer::sum);
+        ticket.granted = true;
+        ticket.latch.countDown();
+    }
+
+    private void removeFlow(Flow flow) {
+        flows.remove(flow.principal);
+        // обычно это голова круга — удаление O(1); из середины — только при таймауте
+        if (active.peekFirst() == flow) {
+            active.pollFirst();
+        } else {
+            active.remove(flow);
+        }
+    }
+
+    private int principalInFlight(String principal) {
+        return inFlightByPrincipal.getOrDefault(principal, 0);
+    }
+
+    // ===== наблюдаемость =====
+
+    public int inFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int queued() {
+        lock.lock();
+        try {
+            return queued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int activeFlows() {
+        lock.lock();
+        try {
+            return flows.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** limit самых длинных очередей — без тегов метрик по пользователю, чтобы не плодить временные ряды. */
+    public List<QueueInfo> longestQueues(int limit) {
+        List<QueueInfo> all = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Flow flow : active) {
+                all.add(new QueueInfo(flow.principal, flow.queue.size(), principalInFlight(flow.principal),
+                        flow.weight, flow.deficit));
+            }
+        } finally {
+            lock.unlock();
+        }
+        all.sort(Comparator.comparingInt(QueueInfo::queued).reversed());
+        return all.size() > limit ? all.subList(0, limit) : all;
+    }
+}
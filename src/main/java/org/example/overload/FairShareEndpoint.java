@@ -0,0 +1,29 @@
+package org.example.overload;
+
+import org.example.config.FairShareProperties;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/** /actuator/fairshare: загрузка планировщика и самые длинные очереди пользователей. */
+@Endpoint(id = "fairshare")
+public class FairShareEndpoint {
+
+    public record Report(int capacity, int inFlight, int queued, int activePrincipals,
+                         List<FairScheduler.QueueInfo> longestQueues) { }
+
+    private final FairScheduler scheduler;
+    private final FairShareProperties props;
+
+    public FairShareEndpoint(FairScheduler scheduler, FairShareProperties props) {
+        this.scheduler = scheduler;
+        this.props = props;
+    }
+
+    @ReadOperation
+    public Report fairShare() {
+        return new Report(props.getCapacity(), scheduler.inFlight(), scheduler.queued(), scheduler.activeFlows(),
+                scheduler.longestQueues(props.getTopQueues()));
+    }
+}
@@ -0,0 +1,185 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.config.FairShareProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Справедливая очередь по пользователю (subject из JWT) перед контроллерами: один клиент с
+ * сотней параллельных GET /api/projects?size=1000 получает свою долю {@link FairScheduler},
+ * а не всю БД. Стоит сразу за JwtAuthenticationFilter; анонимные запросы не планирует —
+ * их ограничивает ConcurrencyLimitFilter.
+ *
+ * Стоимость запроса — страницы по cost-page-size строк в ?size=, вес — по ролям (app.fair-share.weights).
+ * Переполнение своей очереди — 429 (клиенту стоит притормозить), общей или таймаут ожидания — 503.
+ * POST /api/batch здесь не планируется: его под-запросы платят сами ({@link BatchAdmission}).
+ *
+ * На время ожидания в очереди запрос отдаёт слот {@link ConcurrencyLimitFilter} и занимает его
+ * снова, только получив билет: ждущие в очереди одного пользователя не вытесняют из лимита остальных.
+ */
+public class FairShareFilter extends OncePerRequestFilter {
+
+    private final FairShareProperties props;
+    private final FairScheduler scheduler;
+    private final ObjectMapper objectMapper;
+    private final Map<FairScheduler.Rejection, Counter> rejected = new EnumMap<>(FairScheduler.Rejection.class);
+    private final Timer queueWait;
+
+    public FairShareFilter(FairShareProperties props, FairScheduler scheduler, ObjectMapper objectMapper,
+                           MeterRegistry registry) {
+        this.props = props;
+        this.scheduler = scheduler;
+        this.objectMapper = objectMapper;
+        for (FairScheduler.Rejection reason : FairScheduler.Rejection.values()) {
+            rejected.put(reason, Counter.builder("fairshare.rejected")
+                    .description("Requests rejected by the per-user fair-share scheduler")
+                    .tag("reason", reason.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        this.queueWait = Timer.builder("fairshare.queue.wait")
+                .description("Time a request waited in its user's fair-share queue")
+                .publishPercentileHistogram()
+                .register(registry);
+        Gauge.builder("fairshare.queued", scheduler, FairScheduler::queued)
+                .description("Requests waiting in fair-share queues")
+                .register(registry);
+        Gauge.builder("fairshare.active.principals", scheduler, FairScheduler::activeFlows)
+                .description("Users with a non-empty fair-share queue")
+                .register(registry);
+        Gauge.builder("fairshare.inflight", scheduler, FairScheduler::inFlight)
+                .description("Cost units currently admitted by the fair-share scheduler")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !props.isEnabled() || !request.getRequestURI().startsWith(request.getContextPath() + "/api/")
+                || BatchAdmission.isBatch(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        var slot = (ConcurrencyLimitFilter.Slot) request.getAttribute(ConcurrencyLimitFilter.SLOT);
+        FairScheduler.Ticket ticket = admit(auth, cost(request), slot);
+        if (!ticket.isGranted()) {
+            reject(request, response, ticket.rejection());
+            return;
+        }
+        if (slot != null && !slot.resume(response)) {
+            scheduler.release(ticket);
+            return;
+        }
+
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            scheduler.release(ticket);
+        }
+    }
+
+    boolean isEnabled() {
+        return props.isEnabled();
+    }
+
+    /** Выданный билет или отклонённый (учтён в fairshare.rejected); ждёт не дольше queue-timeout. */
+    FairScheduler.Ticket admit(Authentication auth, int cost) {
+        return admit(auth, cost, null);
+    }
+
+    /** То же; если придётся ждать, slot лимита на это время отдаётся (вернуть — slot.resume). */
+    private FairScheduler.Ticket admit(Authentication auth, int cost, ConcurrencyLimitFilter.Slot slot) {
+        FairScheduler.Ticket ticket = scheduler.submit(auth.getName(), weight(auth), cost);
+        if (ticket.rejection() == null && !ticket.isGranted()) {
+            if (slot != null) {
+                slot.suspend();
+            }
+            long start = System.nanoTime();
+            try {
+                scheduler.await(ticket, props.getQueueTimeout().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queueWait.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        if (!ticket.isGranted()) {
+            rejected.get(cause(ticket.rejection())).increment();
+        }
+        return ticket;
+    }
+
+    void release(FairScheduler.Ticket ticket) {
+        scheduler.release(ticket);
+    }
+
+    private int weight(Authentication auth) {
+        int weight = 1;
+        for (GrantedAuthority authority : auth.getAuthorities()) {
+            String role = authority.getAuthority();
+            if (role != null && role.startsWith("ROLE_")) {
+                weight = Math.max(weight, props.getWeights().getOrDefault(role.substring(5), 1));
+            }
+        }
+        return weight;
+    }
+
+    int cost(HttpServletRequest request) {
+        String size = request.getParameter("size");
+        if (size == null || props.getCostPageSize() <= 0) {
+            return 1;
+        }
+        try {
+            int rows = Integer.parseInt(size.trim());
+            return Math.max(1, (rows + props.getCostPageSize() - 1) / props.getCostPageSize());
+        } catch (NumberFormatException e) {
+            return 1; // кривой size отклонит сам контроллер
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response,
+                        FairScheduler.Rejection reason) throws IOException {
+        Rejections.write(objectMapper, request, response, status(reason), props.getQueueTimeout(), message(reason));
+    }
+
+    private static FairScheduler.Rejection cause(FairScheduler.Rejection reason) {
+        return reason != null ? reason : FairScheduler.Rejection.TIMEOUT;
+    }
+
+    static HttpStatus status(FairScheduler.Rejection reason) {
+        return cause(reason) == FairScheduler.Rejection.PRINCIPAL_QUEUE_FULL
+                ? HttpStatus.TOO_MANY_REQUESTS
+                : HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    static String message(FairScheduler.Rejection reason) {
+        return cause(reason) == FairScheduler.Rejection.PRINCIPAL_QUEUE_FULL
+                ? "Too many concurrent requests for this user"
+                : "Server is busy, retry later";
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.overload;
+
+import org.example.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Лимит одновременных запросов по градиенту латентности (в духе Gradient2 из Netflix concurrency-limits).
+ *
+ * Каждое окно считается short-RTT — средняя латентность за окно, и long-RTT — его
+ * экспоненциальное среднее за long-window окон. Градиент tolerance × long / short
+ * (в пределах [0.5, 1]) сжимает лимит, когда запросы начинают стоять в очереди, а
+ * запас sqrt(limit) даёт ему расти, пока латентность не меняется. Новое значение
+ * смешивается со старым (smoothing), так что одиночное медленное окно лимит не обрушит.
+ *
+ * Лимит не растёт, если за окно in-flight не доходил и до половины лимита: при низкой
+ * нагрузке про реальную ёмкость мы ничего не узнали.
+ */
+public class GradientLimit {
+
+    private final ConcurrencyLimitProperties props;
+    private final long windowNanos;
+
+    private final LongAdder rttSum = new LongAdder();
+    private final LongAdder rttCount = new LongAdder();
+    private final AtomicInteger peakInflight = new AtomicInteger();
+    private final AtomicLong windowStart;
+
+    // пишет только поток, выигравший CAS на windowStart
+    private volatile double limit;
+    private volatile double longRttNanos;
+
+    public GradientLimit(ConcurrencyLimitProperties props, long nowNanos) {
+        this.props = props;
+        this.windowNanos = props.getWindow().toNanos();
+        this.limit = props.getInitialLimit();
+        this.windowStart = new AtomicLong(nowNanos);
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    /**
+     * Замер завершённого запроса. Окно закрывает тот поток, что первым заметил его конец;
+     * замеры, попавшие между CAS и сбросом сумматоров, уходят в следующее окно — на среднее это не влияет.
+     */
+    public void onSample(long rttNanos, int inflight, long nowNanos) {
+        rttSum.add(rttNanos);
+        rttCount.increment();
+        peakInflight.accumulateAndGet(inflight, Math::max);
+
+        long start = windowStart.get();
+        if (nowNanos - start < windowNanos || !windowStart.compareAndSet(start, nowNanos)) {
+            return;
+        }
+        long count = rttCount.sumThenReset();
+        long sum = rttSum.sumThenReset();
+        int peak = peakInflight.getAndSet(0);
+        if (count >= props.getMinWindowSamples()) {
+            update((double) sum / count, peak);
+        }
+    }
+
+    private void update(double shortRtt, int peak) {
+        double longRtt = longRttNanos;
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            double alpha = 1.0 / Math.max(1, props.getLongWindow());
+            longRtt = longRtt * (1 - alpha) + shortRtt * alpha;
+            // перегрузка прошла, а long-RTT ещё помнит её — подтягиваем его вниз быстрее,
+            // иначе градиент долго будет разрешать лишнюю очередь
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+        }
+        longRttNanos = longRtt;
+
+        double current = limit;
+        if (peak < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, props.getTolerance() * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - props.getSmoothing()) + target * props.getSmoothing();
+        limit = Math.max(props.getMinLimit(), Math.min(props.getMaxLimit(), next));
+    }
+
+    double longRttNanos() {
+        return longRttNanos;
+    }
+}
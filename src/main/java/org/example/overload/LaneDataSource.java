@@ -0,0 +1,161 @@
+package org.example.overload;
+
+import org.example.config.BulkheadProperties;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Квоты соединений по полосам поверх одного пула Hikari: getConnection() в запросе с полосой
+ * сначала берёт разрешение её семафора, Connection.close() его возвращает. Отдельные пулы на
+ * полосу не заводим — суммарно соединений с БД было бы больше, а простаивали бы они порознь.
+ * Квоты — потолки, а не резервы: сумма может превышать размер пула, но ни одна полоса не займёт его целиком —
+ * это проверяется при старте ({@link #checkQuotas}). AdaptivePoolSizer, уменьшая пул на лету, квоты
+ * не пересчитывает: ниже квоты пул лучше не опускать (app.pool.adaptive.min-size).
+ *
+ * Не дождались квоты — SQLTransientConnectionException, как при таймауте самого Hikari.
+ * Соединения вне запроса (фоновые задачи, health) квотами не ограничены.
+ */
+public class LaneDataSource extends DelegatingDataSource {
+
+    public LaneDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Bulkheads.Lane lane = Bulkheads.current();
+        if (lane == null || !lane.hasConnectionQuota()) {
+            return super.getConnection();
+        }
+        acquire(lane);
+        try {
+            return withRelease(super.getConnection(), lane);
+        } catch (SQLException | RuntimeException e) {
+            lane.releaseConnection();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Bulkheads.Lane lane = Bulkheads.current();
+        if (lane == null || !lane.hasConnectionQuota()) {
+            return super.getConnection(username, password);
+        }
+        acquire(lane);
+        try {
+            return withRelease(super.getConnection(username, password), lane);
+        } catch (SQLException | RuntimeException e) {
+            lane.releaseConnection();
+            throw e;
+        }
+    }
+
+    /**
+     * Каждая квота строго меньше maximumPoolSize: полоса с квотой не меньше пула защищает от
+     * исчерпания пула не больше, чем её отсутствие. Ошибка конфигурации — падаем при старте.
+     */
+    static void checkQuotas(List<BulkheadProperties.Lane> lanes, int poolSize) {
+        for (BulkheadProperties.Lane lane : lanes) {
+            if (lane.getMaxConnections() > 0 && lane.getMaxConnections() >= poolSize) {
+                throw new IllegalStateException("app.bulkhead lane '" + lane.getName() + "' max-connections="
+                        + lane.getMaxConnections() + " must be less than the connection pool size " + poolSize
+                        + " (spring.datasource.hikari.maximum-pool-size)");
+            }
+        }
+    }
+
+    private static void acquire(Bulkheads.Lane lane) throws SQLException {
+        boolean acquired;
+        try {
+            acquired = lane.acquireConnection();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for " + lane.name()
+                    + " connection quota", e);
+        }
+        if (!acquired) {
+            throw new SQLTransientConnectionException("Connection quota of lane " + lane.name()
+                    + " exhausted, waited " + lane.connectionWaitMillis() + " ms");
+        }
+    }
+
+    /**
+     * Прокси соединения: первое close() возвращает разрешение полосы, остальное — как есть.
+     * Statement'ы тоже оборачиваются: их getConnection() отдаёт этот прокси, а не соединение Hikari —
+     * иначе statement.getConnection().close() вернул бы соединение в пул мимо квоты полосы.
+     */
+    private static Connection withRelease(Connection target, Bulkheads.Lane lane) {
+        AtomicBoolean released = new AtomicBoolean();
+        Connection[] self = new Connection[1];
+        self[0] = (Connection) Proxy.newProxyInstance(LaneDataSource.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(name) && args[0] instanceof Class<?> type && type.isInstance(target)) {
+                        return target;
+                    }
+                    boolean releasing = "close".equals(name) && released.compareAndSet(false, true);
+                    try {
+                        Object result = method.invoke(target, args);
+                        return switch (name) {
+                            case "createStatement" -> withOwner((Statement) result, Statement.class, self[0]);
+                            case "prepareStatement" ->
+                                    withOwner((Statement) result, PreparedStatement.class, self[0]);
+                            case "prepareCall" -> withOwner((Statement) result, CallableStatement.class, self[0]);
+                            default -> result;
+                        };
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    } finally {
+                        if (releasing) {
+                            lane.releaseConnection();
+                        }
+                    }
+                });
+        return self[0];
+    }
+
+    /** Прокси Statement, у которого getConnection() — прокси соединения полосы. */
+    private static Statement withOwner(Statement target, Class<? extends Statement> type, Connection owner) {
+        return (Statement) Proxy.newProxyInstance(LaneDataSource.class.getClassLoader(),
+                new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    String name = method.getName();
+                    if ("getConnection".equals(name)) {
+                        return owner;
+                    }
+                    if ("equals".equals(name)) {
+                        return proxy == args[0];
+                    }
+                    if ("hashCode".equals(name)) {
+                        return System.identityHashCode(proxy);
+                    }
+                    if ("unwrap".equals(name) && args[0] instanceof Class<?> cls && cls.isInstance(target)) {
+                        return target;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,140 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.config.BulkheadProperties;
+import org.example.config.ConcurrencyLimitProperties;
+import org.example.config.DeadlineProperties;
+import org.example.config.FairShareProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.transaction.TransactionManagerCustomizers;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class OverloadConfig {
+
+    @Bean
+    public ConcurrencyLimitFilter concurrencyLimitFilter(ConcurrencyLimitProperties props, ObjectMapper objectMapper,
+                                                         MeterRegistry registry) {
+        return new ConcurrencyLimitFilter(props, objectMapper, registry);
+    }
+
+    // Фильтры живут в security-цепочке (SecurityConfig); в общей servlet-цепочке не регистрируем
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilterRegistration(
+            ConcurrencyLimitFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FairScheduler fairScheduler(FairShareProperties props) {
+        return new FairScheduler(props);
+    }
+
+    @Bean
+    public FairShareFilter fairShareFilter(FairShareProperties props, FairScheduler scheduler, ObjectMapper objectMapper,
+                                           MeterRegistry registry) {
+        return new FairShareFilter(props, scheduler, objectMapper, registry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<FairShareFilter> fairShareFilterRegistration(FairShareFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public FairShareEndpoint fairShareEndpoint(FairScheduler scheduler, FairShareProperties props) {
+        return new FairShareEndpoint(scheduler, props);
+    }
+
+    @Bean
+    public Bulkheads bulkheads(BulkheadProperties props, MeterRegistry registry) {
+        return new Bulkheads(props, registry);
+    }
+
+    @Bean
+    public BulkheadFilter bulkheadFilter(BulkheadProperties props, Bulkheads bulkheads, ObjectMapper objectMapper) {
+        return new BulkheadFilter(props, bulkheads, objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<BulkheadFilter> bulkheadFilterRegistration(BulkheadFilter filter) {
+        var registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    @Bean
+    public BatchAdmission batchAdmission(ConcurrencyLimitFilter concurrencyLimitFilter, FairShareFilter fairShareFilter,
+                                         Bulkheads bulkheads, BulkheadProperties props) {
+        return new BatchAdmission(concurrencyLimitFilter, fairShareFilter, bulkheads, props);
+    }
+
+    // Квоты соединений по полосам — вплотную к Hikari (раньше обёртки datasource-proxy из SqlStatsConfig),
+    // чтобы ожидание квоты попадало в db.connection.acquire
+    @Bean
+    static BeanPostProcessor laneDataSourcePostProcessor(Environment env) {
+        boolean enabled = env.getProperty("app.bulkhead.enabled", Boolean.class, true);
+        // BulkheadProperties как бин сюда не внедрить (BeanPostProcessor создаётся раньше) — биндим сами
+        BulkheadProperties props = Binder.get(env).bind("app.bulkhead", BulkheadProperties.class)
+                .orElseGet(BulkheadProperties::new);
+        return new LaneDataSourcePostProcessor(enabled, props.getLanes());
+    }
+
+    // Дедлайн считаем с самого начала обработки — раньше SqlStatsFilter и Spring Security
+    @Bean
+    public FilterRegistrationBean<DeadlineFilter> deadlineFilter(DeadlineProperties props) {
+        var registration = new FilterRegistrationBean<>(new DeadlineFilter(props));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    @Bean
+    public DeadlineQueryListener deadlineQueryListener(DeadlineProperties props, MeterRegistry registry) {
+        return new DeadlineQueryListener(props, registry);
+    }
+
+    // Заменяет JpaTransactionManager из автоконфигурации Boot (тот @ConditionalOnMissingBean)
+    @Bean
+    public PlatformTransactionManager transactionManager(ObjectProvider<TransactionManagerCustomizers> customizers) {
+        var transactionManager = new DeadlineAwareJpaTransactionManager();
+        customizers.ifAvailable(c -> c.customize(transactionManager));
+        return transactionManager;
+    }
+
+    private record LaneDataSourcePostProcessor(boolean enabled, List<BulkheadProperties.Lane> lanes)
+            implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!enabled || !(bean instanceof DataSource ds) || bean instanceof LaneDataSource) {
+                return bean;
+            }
+            // свойства Hikari к этому моменту уже привязаны (postProcessBeforeInitialization)
+            if (bean instanceof HikariDataSource hikari) {
+                LaneDataSource.checkQuotas(lanes, hikari.getMaximumPoolSize());
+            }
+            return new LaneDataSource(ds);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.example.overload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.config.ConcurrencyLimitProperties;
+import org.springframework.http.server.PathContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Сопоставляет запрос с priority-классом из app.concurrency-limit.priorities (первый совпавший).
+ * Шаблоны — {@link RoutePattern}: "/api/auth/**", "GET /api/projects".
+ */
+public class PriorityClasses {
+
+    public static final String DEFAULT = "default";
+
+    public record Priority(String name, double share) { }
+
+    private record Rule(RoutePattern pattern, Priority priority) { }
+
+    private final List<Rule> rules = new ArrayList<>();
+    private final Priority fallback;
+
+    public PriorityClasses(ConcurrencyLimitProperties props) {
+        this.fallback = new Priority(DEFAULT, props.getDefaultShare());
+        for (ConcurrencyLimitProperties.PriorityClass pc : props.getPriorities()) {
+            Priority priority = new Priority(pc.getName(), pc.getShare());
+            for (String spec : pc.getPatterns()) {
+                rules.add(new Rule(RoutePattern.parse(spec), priority));
+            }
+        }
+    }
+
+    public Priority resolve(HttpServletRequest request) {
+        return resolve(request.getMethod(), RoutePattern.pathOf(request));
+    }
+
+    Priority resolve(String method, String path) {
+        return resolve(method, PathContainer.parsePath(path));
+    }
+
+    private Priority resolve(String method, PathContainer path) {
+        for (Rule rule : rules) {
+            if (rule.pattern().matches(method, path)) {
+                return rule.priority();
+            }
+        }
+        return fallback;
+    }
+
+    /** Все классы, включая default — чтобы заранее зарегистрировать метрики. */
+    public List<Priority> all() {
+        List<Priority> all = new ArrayList<>();
+        rules.forEach(rule -> {
+            if (!all.contains(rule.priority())) {
+                all.add(rule.priority());
+            }
+        });
+        all.add(fallback);
+        return all;
+    }
+}
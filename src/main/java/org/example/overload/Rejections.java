@@ -0,0 +1,34 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.exception.ApiError;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+
+/** Отказ из фильтра — тем же ApiError, что и GlobalExceptionHandler, плюс Retry-After. */
+final class Rejections {
+
+    private Rejections() {
+    }
+
+    static void write(ObjectMapper objectMapper, HttpServletRequest request, HttpServletResponse response,
+                      HttpStatus status, Duration retryAfter, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ApiError body = new ApiError(
+                Instant.now().toString(),
+                request.getRequestURI(),
+                status.getReasonPhrase(),
+                message
+        );
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+}
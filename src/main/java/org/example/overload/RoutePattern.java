@@ -0,0 +1,40 @@
+package org.example.overload;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Шаблон маршрута из настроек: путь в синтаксисе PathPattern, опционально с методами впереди —
+ * "/api/auth/**", "GET /api/projects", "POST,PUT,DELETE /api/**".
+ */
+record RoutePattern(Set<String> methods, PathPattern path) {
+
+    static RoutePattern parse(String spec) {
+        String trimmed = spec.trim();
+        int space = trimmed.indexOf(' ');
+        if (space < 0) {
+            return new RoutePattern(Set.of(), PathPatternParser.defaultInstance.parse(trimmed));
+        }
+        Set<String> methods = Arrays.stream(trimmed.substring(0, space).split(","))
+                .map(m -> m.trim().toUpperCase(Locale.ROOT))
+                .filter(m -> !m.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        return new RoutePattern(methods, PathPatternParser.defaultInstance.parse(trimmed.substring(space + 1).trim()));
+    }
+
+    boolean matches(String method, PathContainer requestPath) {
+        return (methods.isEmpty() || methods.contains(method)) && path.matches(requestPath);
+    }
+
+    /** Путь запроса без context-path — в том виде, в каком его ждут шаблоны. */
+    static PathContainer pathOf(HttpServletRequest request) {
+        return PathContainer.parsePath(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+}
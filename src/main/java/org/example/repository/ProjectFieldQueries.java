@@ -0,0 +1,33 @@
+package org.example.repository;
+
+import jakarta.persistence.Tuple;
+import org.example.dto.ProjectField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Чтения с урезанным списком колонок (?fields=): в SELECT попадают только запрошенные поля,
+ * элементы Tuple доступны по json-имени поля (alias). Реализация — ProjectFieldQueriesImpl (Criteria API).
+ */
+public interface ProjectFieldQueries {
+
+    // Страница с фильтром по подстроке имени (как findByNameContainingIgnoreCase) или без него
+    Page<Tuple> findFields(Set<ProjectField> fields, String nameFilter, Pageable pageable);
+
+    Optional<Tuple> findFieldsById(Long id, Set<ProjectField> fields);
+
+    // Подстрока с экранированными %, _ и \ → шаблон для like ... escape '\'; пустой фильтр — null
+    static String likePattern(String nameFilter) {
+        if (nameFilter == null || nameFilter.isBlank()) {
+            return null;
+        }
+        String escaped = nameFilter.trim()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
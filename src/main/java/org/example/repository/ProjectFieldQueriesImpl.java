@@ -0,0 +1,90 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.domain.Project;
+import org.example.dto.ProjectField;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+class ProjectFieldQueriesImpl implements ProjectFieldQueries {
+
+    private static final char ESCAPE = '\\';
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Page<Tuple> findFields(Set<ProjectField> fields, String nameFilter, Pageable pageable) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Project> root = select.from(Project.class);
+        select.multiselect(selection(root, fields));
+        String pattern = ProjectFieldQueries.likePattern(nameFilter);
+        if (pattern != null) {
+            select.where(nameLike(cb, root, pattern));
+        }
+        select.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<Tuple> query = em.createQuery(select);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<Tuple> content = query.getResultList();
+        // count не нужен, если страница первая и неполная — как в SimpleJpaRepository
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(pattern));
+    }
+
+    @Override
+    public Optional<Tuple> findFieldsById(Long id, Set<ProjectField> fields) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Tuple> select = cb.createTupleQuery();
+        Root<Project> root = select.from(Project.class);
+        select.multiselect(selection(root, fields))
+                .where(cb.equal(root.get("id"), id));
+        return em.createQuery(select).getResultStream().findFirst();
+    }
+
+    private long count(String pattern) {
+        CriteriaBuilder cb = em.getCriteriaBuilder();
+        CriteriaQuery<Long> select = cb.createQuery(Long.class);
+        Root<Project> root = select.from(Project.class);
+        select.select(cb.count(root));
+        if (pattern != null) {
+            select.where(nameLike(cb, root, pattern));
+        }
+        TypedQuery<Long> query = em.createQuery(select);
+        if (pattern != null) {
+            query.setParameter("pattern", pattern);
+        }
+        return query.getSingleResult();
+    }
+
+    private static List<Selection<?>> selection(Root<Project> root, Set<ProjectField> fields) {
+        return fields.stream()
+                .<Selection<?>>map(field -> root.get(field.json()).alias(field.json()))
+                .toList();
+    }
+
+    // lower(name) like lower(:pattern) — тот же вид, что в ProjectRepository, чтобы работал idx_projects_name_trgm
+    private static Predicate nameLike(CriteriaBuilder cb, Root<Project> root, String pattern) {
+        return cb.like(cb.lower(root.get("name")), cb.lower(cb.parameter(String.class, "pattern")), ESCAPE);
+    }
+}
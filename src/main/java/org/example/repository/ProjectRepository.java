@@ -4,19 +4,58 @@ import org.example.domain.Project;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface ProjectRepository extends JpaRepository<Project, Long> {
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectFieldQueries {
 
-    // Поиск по части имени (без учёта регистра)
+    // Запросы без учёта регистра пишем через lower(...): derived-запросы генерируют upper(...),
+    // а индексы у нас по lower(name) — ux_projects_name_ci (V4) и триграммный idx_projects_name_trgm (V7).
+
+    // Поиск по части имени (без учёта регистра); % и _ во входной строке экранируются
+    @Query("select p from Project p where lower(p.name) like lower(concat('%', ?#{escape([0])}, '%'))"
+            + " escape ?#{escapeCharacter()}")
     List<Project> findByNameContainingIgnoreCase(String part);
 
     // Есть ли проект с таким именем (без учёта регистра)
-    boolean existsByNameIgnoreCase(String name);
+    @Query("select count(p) > 0 from Project p where lower(p.name) = lower(:name)")
+    boolean existsByNameIgnoreCase(@Param("name") String name);
 
     // Есть ли проект с таким именем, но с ДРУГИМ id (для проверки при обновлении)
-    boolean existsByNameIgnoreCaseAndIdNot(String name, Long id);
+    @Query("select count(p) > 0 from Project p where lower(p.name) = lower(:name) and p.id <> :id")
+    boolean existsByNameIgnoreCaseAndIdNot(@Param("name") String name, @Param("id") Long id);
 
+    @Query("select p from Project p where lower(p.name) like lower(concat('%', ?#{escape([0])}, '%'))"
+            + " escape ?#{escapeCharacter()}")
     Page<Project> findByNameContainingIgnoreCase(String part, Pageable pageable);
-}
\ No newline at end of file
+
+    // Один DELETE ... WHERE id = ? (deleteById сначала делает SELECT). Возвращает число удалённых строк.
+    @Modifying
+    @Query("delete from Project p where p.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // Один UPDATE ... RETURNING: пусто → проекта нет, дубликат имени → нарушение ux_projects_name_ci
+    @Query(value = """
+            UPDATE projects
+               SET name = CAST(:name AS varchar),
+                   description = CAST(:description AS varchar)
+             WHERE id = :id
+            RETURNING id, name, description, created_at
+            """, nativeQuery = true)
+    Optional<Project> updateReturning(@Param("id") Long id,
+                                      @Param("name") String name,
+                                      @Param("description") String description);
+
+    // Пакетное чтение одним запросом: id = ANY(массив) — один bind-параметр и один план при любом числе ids
+    // (IN (:ids) разворачивается в столько параметров, сколько ids, и плодит разные тексты SQL)
+    @Query(value = """
+            SELECT id, name, description, created_at
+              FROM projects
+             WHERE id = ANY(CAST(:ids AS bigint[]))
+            """, nativeQuery = true)
+    List<Project> findAllByIdArray(@Param("ids") Long[] ids);
+}
@@ -4,11 +4,39 @@ import org.example.domain.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    boolean existsByEmailIgnoreCase(String email);
-    Optional<User> findByEmailIgnoreCase(String email);
+    // lower(...) = lower(...), а не upper() из derived-запроса — только так работает индекс ux_users_email_ci
+    @Query("select count(u) > 0 from User u where lower(u.email) = lower(:email)")
+    boolean existsByEmailIgnoreCase(@Param("email") String email);
+
+    @Query("select u from User u where lower(u.email) = lower(:email)")
+    Optional<User> findByEmailIgnoreCase(@Param("email") String email);
+
     Page<User> findByEmailContainingIgnoreCase(String emailPart, Pageable pageable);
+
+    // Один DELETE ... WHERE id = ?, возвращает число удалённых строк
+    @Modifying
+    @Query("delete from User u where u.id = :id")
+    int deleteByIdReturningCount(@Param("id") Long id);
+
+    // Частичное обновление одним UPDATE ... RETURNING (null = поле не меняем).
+    // Дубликат email → нарушение ux_users_email_ci.
+    @Query(value = """
+            UPDATE users
+               SET email         = COALESCE(CAST(:email AS text), email),
+                   password_hash = COALESCE(CAST(:passwordHash AS text), password_hash),
+                   role          = COALESCE(CAST(:role AS varchar), role)
+             WHERE id = :id
+            RETURNING id, email, password_hash, role, created_at
+            """, nativeQuery = true)
+    Optional<User> updateReturning(@Param("id") Long id,
+                                   @Param("email") String email,
+                                   @Param("passwordHash") String passwordHash,
+                                   @Param("role") String role);
 }
@@ -1,12 +1,22 @@
 package org.example.security;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.MalformedJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.example.observability.ServerTiming;
+import org.example.warmup.Warmup;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
@@ -16,10 +26,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwt;
     private final UserDetailsService uds;
+    private final MeterRegistry registry;
 
-    public JwtAuthenticationFilter(JwtService jwt, UserDetailsService uds) {
+    public JwtAuthenticationFilter(JwtService jwt, UserDetailsService uds, MeterRegistry registry) {
         this.jwt = jwt;
         this.uds = uds;
+        this.registry = registry;
     }
 
     @Override
@@ -32,22 +44,70 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         String auth = request.getHeader("Authorization");
         if (StringUtils.hasText(auth) && auth.startsWith("Bearer ")) {
             String token = auth.substring(7);
-            try {
-                String email = jwt.validateAndGetSubject(token);
+            // Любая проблема с токеном или пользователем — НЕ пускаем дальше как аутентифицированного:
+            // просто не ставим аутентификацию. Итог — потом словим 401 на защищённом URL.
+            String email = validate(token);
 
-                // Если ещё не аутентифицированы в контексте — аутентифицируем
-                if (SecurityContextHolder.getContext().getAuthentication() == null) {
-                    var userDetails = uds.loadUserByUsername(email);
+            // Если ещё не аутентифицированы в контексте — аутентифицируем
+            if (email != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+                UserDetails userDetails = loadUser(email);
+                if (userDetails != null) {
                     var authentication = new UsernamePasswordAuthenticationToken(
                             userDetails, null, userDetails.getAuthorities());
                     SecurityContextHolder.getContext().setAuthentication(authentication);
                 }
-            } catch (Exception ex) {
-                // Любая проблема с токеном — НЕ пускаем дальше как аутентифицированного:
-                // просто не ставим аутентификацию. Итог — потом словим 401 на защищённом URL.
             }
         }
 
         chain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Подпись и срок токена → jwt.validation{outcome}; null — токен отклонён
+    private String validate(String token) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            // фаза auth пишется и тогда, когда токен отклонён
+            return ServerTiming.time(ServerTiming.Phase.AUTH, () -> jwt.validateAndGetSubject(token));
+        } catch (Exception ex) {
+            outcome = failureReason(ex);
+            return null;
+        } finally {
+            record(sample, "jwt.validation", "Проверка подписи и срока JWT", outcome);
+        }
+    }
+
+    // Загрузка пользователя из subject — запрос в БД, отдельно от проверки токена → jwt.user.load{outcome}
+    private UserDetails loadUser(String email) {
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "success";
+        try {
+            return ServerTiming.time(ServerTiming.Phase.USERLOAD, () -> uds.loadUserByUsername(email));
+        } catch (Exception ex) {
+            outcome = failureReason(ex);
+            return null;
+        } finally {
+            record(sample, "jwt.user.load", "Загрузка пользователя по subject JWT", outcome);
+        }
+    }
+
+    private void record(Timer.Sample sample, String name, String description, String outcome) {
+        if (Warmup.isActive()) {
+            return;
+        }
+        sample.stop(Timer.builder(name)
+                .description(description)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(registry));
+    }
+
+    static String failureReason(Exception ex) {
+        if (ex instanceof ExpiredJwtException) return "expired";
+        if (ex instanceof SignatureException) return "bad_signature";
+        if (ex instanceof MalformedJwtException) return "malformed";
+        if (ex instanceof UsernameNotFoundException) return "unknown_user";
+        if (ex instanceof JwtException) return "invalid";
+        return "error";
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.security;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -7,7 +8,7 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 @Configuration
 public class JwtFilterConfig {
     @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwt, UserDetailsService uds) {
-        return new JwtAuthenticationFilter(jwt, uds);
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtService jwt, UserDetailsService uds, MeterRegistry registry) {
+        return new JwtAuthenticationFilter(jwt, uds, registry);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,61 @@
+package org.example.security;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.example.warmup.Warmup;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Обёртка над PasswordEncoder с таймером password.encoder{op=encode|matches}.
+ * BCrypt — самая дорогая по CPU операция в логине/регистрации, её надо видеть отдельно.
+ * Вызовы из прогрева ({@link Warmup}) не записываются.
+ */
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesOkTimer;
+    private final Timer matchesFailTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.encodeTimer = timer(registry, "encode", "n/a");
+        this.matchesOkTimer = timer(registry, "matches", "match");
+        this.matchesFailTimer = timer(registry, "matches", "mismatch");
+    }
+
+    private static Timer timer(MeterRegistry registry, String op, String result) {
+        return Timer.builder("password.encoder")
+                .description("Время хеширования/проверки пароля")
+                .tag("op", op)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        if (Warmup.isActive()) {
+            return delegate.encode(rawPassword);
+        }
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (Warmup.isActive()) {
+            return delegate.matches(rawPassword, encodedPassword);
+        }
+        long start = System.nanoTime();
+        boolean ok = delegate.matches(rawPassword, encodedPassword);
+        (ok ? matchesOkTimer : matchesFailTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return ok;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
@@ -0,0 +1,29 @@
+package org.example.service;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/** Разбор DataIntegrityViolationException: какой именно constraint/индекс нарушен. */
+final class ConstraintViolations {
+
+    private ConstraintViolations() {
+    }
+
+    static boolean isViolationOf(DataIntegrityViolationException ex, String constraintName) {
+        for (Throwable t = ex; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException cve
+                    && constraintName.equalsIgnoreCase(cve.getConstraintName())) {
+                return true;
+            }
+            // На случай, если драйвер не отдал имя constraint'а в Hibernate — смотрим в текст ошибки
+            String msg = t.getMessage();
+            if (msg != null && msg.contains(constraintName)) {
+                return true;
+            }
+            if (t.getCause() == t) {
+                break;
+            }
+        }
+        return false;
+    }
+}
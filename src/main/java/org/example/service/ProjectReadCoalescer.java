@@ -0,0 +1,158 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.dto.ProjectBatchDto;
+import org.example.dto.ProjectReadDto;
+import org.example.mapper.ProjectPageRows;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Склеивает одинаковые одновременные чтения проектов в один запрос к БД.
+ *
+ * Правила безопасности:
+ *  - в ключ входит набор authorities вызывающего, так что результат никогда
+ *    не уходит в запрос с другими правами (сам вызов сервиса всё равно проходит @PreAuthorize);
+ *  - внутри активной транзакции не склеиваем: там могут быть видны незакоммиченные изменения;
+ *  - после коммита записи в projects ({@link ProjectsChanged}) к идущим чтениям больше никто
+ *    не присоединяется: они могли начаться до записи. GET, пришедший после ответа на PUT/DELETE,
+ *    всегда идёт в БД сам и запись видит. Старый результат получают только те, кто присоединился
+ *    раньше, — их GET шёл одновременно с записью, и любой из двух ответов для них корректен.
+ */
+@Component
+public class ProjectReadCoalescer {
+
+    record ByIdKey(Long id, Set<String> authorities) { }
+
+    record ByIdsKey(List<Long> ids, Set<String> authorities) { }
+
+    record PageKey(int page, int size, String sort, String name, Set<String> authorities) { }
+
+    private final ProjectService service;
+    private final boolean enabled;
+    private final SingleFlight<ByIdKey, ProjectReadDto> byId;
+    private final SingleFlight<ByIdsKey, ProjectBatchDto> byIds;
+    private final SingleFlight<PageKey, Page<ProjectReadDto>> pages;
+    private final SingleFlight<PageKey, ProjectPageRows> rows;
+
+    public ProjectReadCoalescer(ProjectService service,
+                                MeterRegistry registry,
+                                @Value("${app.projects.coalescing.enabled:true}") boolean enabled) {
+        this.service = service;
+        this.enabled = enabled;
+
+        Counter byIdCounter = Counter.builder("projects.reads.coalesced")
+                .description("Чтения, которые присоединились к уже идущему запросу в БД")
+                .tag("op", "findById")
+                .register(registry);
+        Counter byIdsCounter = Counter.builder("projects.reads.coalesced")
+                .description("Чтения, которые присоединились к уже идущему запросу в БД")
+                .tag("op", "findByIds")
+                .register(registry);
+        Counter pageCounter = Counter.builder("projects.reads.coalesced")
+                .description("Чтения, которые присоединились к уже идущему запросу в БД")
+                .tag("op", "findPage")
+                .register(registry);
+        Counter rowsCounter = Counter.builder("projects.reads.coalesced")
+                .description("Чтения, которые присоединились к уже идущему запросу в БД")
+                .tag("op", "findPageRows")
+                .register(registry);
+
+        this.byId = new SingleFlight<>(byIdCounter::increment);
+        this.byIds = new SingleFlight<>(byIdsCounter::increment);
+        this.pages = new SingleFlight<>(pageCounter::increment);
+        this.rows = new SingleFlight<>(rowsCounter::increment);
+    }
+
+    public ProjectReadDto findById(Long id) {
+        Set<String> authorities = currentAuthorities();
+        if (!canCoalesce(authorities)) {
+            return service.findById(id);
+        }
+        return byId.execute(new ByIdKey(id, authorities), () -> service.findById(id));
+    }
+
+    // Одна доска, открытая многими клиентами, присылает один и тот же список ids
+    public ProjectBatchDto findByIds(List<Long> ids) {
+        Set<String> authorities = currentAuthorities();
+        if (!canCoalesce(authorities)) {
+            return service.findByIds(ids);
+        }
+        return byIds.execute(new ByIdsKey(List.copyOf(ids), authorities), () -> service.findByIds(ids));
+    }
+
+    public Page<ProjectReadDto> findPage(Pageable pageable, String nameFilter) {
+        Set<String> authorities = currentAuthorities();
+        if (!canCoalesce(authorities) || pageable.isUnpaged()) {
+            return service.findPage(pageable, nameFilter);
+        }
+        return pages.execute(pageKey(pageable, nameFilter, authorities), () -> service.findPage(pageable, nameFilter));
+    }
+
+    // Тот же список для JSON-ответа (GET /api/projects): строки в колонках вместо Page<ProjectReadDto>
+    public ProjectPageRows findPageRows(Pageable pageable, String nameFilter) {
+        Set<String> authorities = currentAuthorities();
+        if (!canCoalesce(authorities)) {
+            return service.findPageRows(pageable, nameFilter);
+        }
+        return rows.execute(pageKey(pageable, nameFilter, authorities), () -> service.findPageRows(pageable, nameFilter));
+    }
+
+    // После коммита — до того, как ответ на запись уйдёт клиенту; без транзакции — сразу
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProjectsChanged(ProjectsChanged event) {
+        byId.forgetInFlight();
+        byIds.forgetInFlight();
+        pages.forgetInFlight();
+        rows.forgetInFlight();
+    }
+
+    /* ===== helpers ===== */
+
+    private static PageKey pageKey(Pageable pageable, String nameFilter, Set<String> authorities) {
+        return new PageKey(
+                pageable.getPageNumber(),
+                pageable.getPageSize(),
+                pageable.getSort().toString(),
+                normalizeFilter(nameFilter),
+                authorities
+        );
+    }
+
+    private boolean canCoalesce(Set<String> authorities) {
+        return enabled
+                && authorities != null
+                && !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private static Set<String> currentAuthorities() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated()) {
+            return null;
+        }
+        return auth.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    // Фильтр регистронезависимый и триммится в сервисе → "AI " и "ai" дают один и тот же результат
+    private static String normalizeFilter(String nameFilter) {
+        if (nameFilter == null || nameFilter.isBlank()) {
+            return null;
+        }
+        return nameFilter.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,22 +1,44 @@
 package org.example.service;
 
+import org.example.dto.ProjectBatchDto;
 import org.example.dto.ProjectCreateDto;
+import org.example.dto.ProjectField;
 import org.example.dto.ProjectReadDto;
 import org.example.dto.ProjectUpdateDto;
+import org.example.mapper.ProjectPageRows;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 public interface ProjectService {
 
     // Получить страницу проектов (пример, если у тебя есть пагинация)
     @PreAuthorize("hasRole('USER')")
     Page<ProjectReadDto> findPage(Pageable pageable, String nameFilter);
 
+    // Та же страница для JSON-ответа: строки в колонках без сущностей и DTO (пишет ProjectPageJsonWriter)
+    @PreAuthorize("hasRole('USER')")
+    ProjectPageRows findPageRows(Pageable pageable, String nameFilter);
+
     // Получить один проект по id
     @PreAuthorize("hasRole('USER')")
     ProjectReadDto findById(Long id);
 
+    // То же, но только с полями fields (?fields=): колонки урезаются уже в SELECT
+    @PreAuthorize("hasRole('USER')")
+    Page<Map<String, Object>> findPage(Pageable pageable, String nameFilter, Set<ProjectField> fields);
+
+    @PreAuthorize("hasRole('USER')")
+    Map<String, Object> findById(Long id, Set<ProjectField> fields);
+
+    // Получить несколько проектов одним запросом: найденные — в порядке ids, остальные — в missing
+    @PreAuthorize("hasRole('USER')")
+    ProjectBatchDto findByIds(List<Long> ids);
+
     // Создать проект
     @PreAuthorize("hasRole('USER')")
     ProjectReadDto create(ProjectCreateDto dto);
@@ -2,32 +2,58 @@ package org.example.service;
 
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
 import org.example.domain.Project;
+import org.example.dto.ProjectBatchDto;
 import org.example.dto.ProjectCreateDto;
+import org.example.dto.ProjectField;
 import org.example.dto.ProjectReadDto;
 import org.example.dto.ProjectUpdateDto;
+import org.example.exception.BadRequestException;
 import org.example.exception.ConflictException;
 import org.example.exception.NotFoundException;
 import org.example.mapper.ProjectMapper;
+import org.example.mapper.ProjectPageJsonWriter;
+import org.example.mapper.ProjectPageRows;
+import org.example.observability.ServerTiming;
 import org.example.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional(readOnly = true)
 public class ProjectServiceJpa implements ProjectService {
 
+    // Уникальный индекс по lower(name), см. V4__projects_name_unique_ci.sql
+    static final String NAME_UNIQUE_INDEX = "ux_projects_name_ci";
+
     private final ProjectRepository repo;
+    private final ProjectPageJsonWriter pageJson;
+    private final ApplicationEventPublisher events;
 
     @PersistenceContext
     private EntityManager em;
 
-    public ProjectServiceJpa(ProjectRepository repo) {
+    // Потолок ids в одном findByIds (GET /api/projects?ids=...)
+    @Value("${app.projects.batch-get.max-ids:200}")
+    private int maxBatchIds = 200;
+
+    public ProjectServiceJpa(ProjectRepository repo, ProjectPageJsonWriter pageJson, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.pageJson = pageJson;
+        this.events = events;
     }
 
     @Override
@@ -47,18 +73,69 @@ public class ProjectServiceJpa implements ProjectService {
         entity.setName(name);
         entity.setDescription(description);
 
-        repo.saveAndFlush(entity);
+        try {
+            repo.saveAndFlush(entity);
+        } catch (DataIntegrityViolationException ex) {
+            // Гонка: параллельный create с тем же именем успел раньше
+            throw nameConflict(ex, name);
+        }
         // Подтягиваем дефолты из БД (created_at)
         em.refresh(entity);
+        events.publishEvent(new ProjectsChanged());
 
         return ProjectMapper.toReadDto(entity);
     }
 
     @Override
     public ProjectReadDto findById(Long id) {
-        return repo.findById(id)
-                .map(ProjectMapper::toReadDto)
+        Project entity = repo.findById(id)
                 .orElseThrow(() -> NotFoundException.of("Project", id));
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> ProjectMapper.toReadDto(entity));
+    }
+
+    @Override
+    public Map<String, Object> findById(Long id, Set<ProjectField> fields) {
+        Tuple row = repo.findFieldsById(id, fields)
+                .orElseThrow(() -> NotFoundException.of("Project", id));
+        return ProjectMapper.toFieldMap(row, fields);
+    }
+
+    @Override
+    public Page<Map<String, Object>> findPage(Pageable pageable, String nameFilter, Set<ProjectField> fields) {
+        Page<Tuple> page = repo.findFields(fields, nameFilter, pageable);
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> page.map(row -> ProjectMapper.toFieldMap(row, fields)));
+    }
+
+    @Override
+    public ProjectBatchDto findByIds(List<Long> ids) {
+        // дубликаты схлопываем, порядок первого появления сохраняем
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.size() > maxBatchIds) {
+            throw new BadRequestException("Too many ids: " + unique.size() + " (max " + maxBatchIds + ")");
+        }
+        if (unique.isEmpty()) {
+            return new ProjectBatchDto(List.of(), List.of());
+        }
+
+        Map<Long, Project> found = new HashMap<>();
+        for (Project p : repo.findAllByIdArray(unique.toArray(Long[]::new))) {
+            found.put(p.getId(), p);
+        }
+
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> {
+            List<ProjectReadDto> items = new ArrayList<>(found.size());
+            List<Long> missing = new ArrayList<>();
+            for (Long id : unique) {
+                Project p = found.get(id);
+                if (p != null) {
+                    items.add(ProjectMapper.toReadDto(p));
+                } else {
+                    missing.add(id);
+                }
+            }
+            return new ProjectBatchDto(items, missing);
+        });
     }
 
     public List<ProjectReadDto> findAll() {
@@ -70,21 +147,19 @@ public class ProjectServiceJpa implements ProjectService {
     @Override
     @Transactional
     public ProjectReadDto update(Long id, ProjectUpdateDto dto) {
-        Project entity = repo.findById(id)
-                .orElseThrow(() -> NotFoundException.of("Project", id));
-
         // Нормализация новых значений
         String newName = trim(dto.name);
         String newDesc = dto.description;
 
-        // Проверка коллизии имени с другими проектами
-        if (repo.existsByNameIgnoreCaseAndIdNot(newName, id)) {
-            throw ConflictException.of("Project", "name '" + newName + "' already exists");
+        // Один UPDATE ... RETURNING: 404 — по нулю строк, 409 — по нарушению уникального индекса
+        Project entity;
+        try {
+            entity = repo.updateReturning(id, newName, newDesc)
+                    .orElseThrow(() -> NotFoundException.of("Project", id));
+        } catch (DataIntegrityViolationException ex) {
+            throw nameConflict(ex, newName);
         }
-
-        // Обновляем поля у сущности напрямую
-        entity.setName(newName);
-        entity.setDescription(newDesc);
+        events.publishEvent(new ProjectsChanged());
 
         return ProjectMapper.toReadDto(entity);
     }
@@ -92,10 +167,11 @@ public class ProjectServiceJpa implements ProjectService {
     @Override
     @Transactional
     public void delete(Long id) {
-        if (!repo.existsById(id)) {
+        // Один DELETE ... WHERE id = ? (без existsById + SELECT внутри deleteById)
+        if (repo.deleteByIdReturningCount(id) == 0) {
             throw NotFoundException.of("Project", id);
         }
-        repo.deleteById(id);
+        events.publishEvent(new ProjectsChanged());
     }
 
     public Page<ProjectReadDto> findPage(Pageable pageable) {
@@ -107,13 +183,26 @@ public class ProjectServiceJpa implements ProjectService {
         return s == null ? null : s.trim();
     }
 
+    private static RuntimeException nameConflict(DataIntegrityViolationException ex, String name) {
+        if (ConstraintViolations.isViolationOf(ex, NAME_UNIQUE_INDEX)) {
+            return ConflictException.of("Project", "name '" + name + "' already exists");
+        }
+        return ex;
+    }
+
     @Override
     public Page<ProjectReadDto> findPage(Pageable pageable, String nameFilter) {
+        Page<Project> page;
         if (nameFilter == null || nameFilter.isBlank()) {
-            return repo.findAll(pageable).map(ProjectMapper::toReadDto);
+            page = repo.findAll(pageable);
+        } else {
+            page = repo.findByNameContainingIgnoreCase(nameFilter.trim(), pageable);
         }
-        String q = nameFilter.trim();
-        return repo.findByNameContainingIgnoreCase(q, pageable)
-                .map(ProjectMapper::toReadDto);
+        return ServerTiming.time(ServerTiming.Phase.MAP, () -> page.map(ProjectMapper::toReadDto));
+    }
+
+    @Override
+    public ProjectPageRows findPageRows(Pageable pageable, String nameFilter) {
+        return pageJson.read(pageable, nameFilter);
     }
 }
\ No newline at end of file
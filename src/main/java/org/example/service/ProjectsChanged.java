@@ -0,0 +1,5 @@
+package org.example.service;
+
+/** Событие «в projects записали»: публикует ProjectServiceJpa, слушает {@link ProjectReadCoalescer}. */
+public record ProjectsChanged() {
+}
@@ -0,0 +1,65 @@
+package org.example.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight: одновременные вызовы с одинаковым ключом разделяют один "полёт" загрузчика.
+ * Первый поток (лидер) выполняет загрузку, остальные ждут его результат (или его исключение).
+ * Ничего не кеширует: как только лидер закончил, ключ освобождается.
+ */
+public final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Runnable onCoalesced;
+
+    public SingleFlight(Runnable onCoalesced) {
+        this.onCoalesced = onCoalesced;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, mine);
+        if (existing != null) {
+            // Кто-то уже грузит то же самое — присоединяемся
+            onCoalesced.run();
+            return join(existing);
+        }
+        try {
+            V value = loader.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Новые вызовы больше не присоединяются к уже идущим загрузкам, а начинают свои.
+     * Идущие загрузки доводятся до конца и отдают результат тем, кто уже ждёт.
+     */
+    public void forgetInFlight() {
+        inFlight.clear();
+    }
+
+    /** Сколько ключей сейчас "в полёте" (для метрик/тестов). */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            // Пробрасываем исходное исключение лидера (NotFoundException и т.п.)
+            if (ex.getCause() instanceof RuntimeException re) throw re;
+            if (ex.getCause() instanceof Error err) throw err;
+            throw ex;
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.example.domain.UserRole;
 import org.example.exception.ConflictException;
 import org.example.exception.NotFoundException;
 import org.example.repository.UserRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -19,6 +20,9 @@ import java.time.OffsetDateTime;
 @Transactional
 public class UserServiceJpa implements UserService {
 
+    // Уникальный индекс по lower(email), см. V2__create_users.sql
+    static final String EMAIL_UNIQUE_INDEX = "ux_users_email_ci";
+
     private final UserRepository repo;
     private final PasswordEncoder encoder;
 
@@ -57,32 +61,30 @@ public class UserServiceJpa implements UserService {
 
     @Override
     public UserReadDto update(Long id, UserUpdateDto dto) {
-        User u = repo.findById(id)
-                .orElseThrow(() -> new NotFoundException("User %d not found".formatted(id)));
+        String newEmail = dto.email() == null ? null : safe(dto.email());
+        String newHash = (dto.password() != null && !dto.password().isBlank())
+                ? encoder.encode(dto.password())
+                : null;
+        String newRole = dto.role() == null ? null : dto.role().name();
 
-        if (dto.email() != null) {
-            String newEmail = safe(dto.email());
-            if (!newEmail.equalsIgnoreCase(u.getEmail()) &&
-                    repo.existsByEmailIgnoreCase(newEmail)) {
+        // Один UPDATE ... RETURNING вместо SELECT + exists + saveAndFlush
+        try {
+            User u = repo.updateReturning(id, newEmail, newHash, newRole)
+                    .orElseThrow(() -> new NotFoundException("User %d not found".formatted(id)));
+            return toReadDto(u);
+        } catch (DataIntegrityViolationException ex) {
+            if (ConstraintViolations.isViolationOf(ex, EMAIL_UNIQUE_INDEX)) {
                 throw new ConflictException("User with email '" + newEmail + "' already exists");
             }
-            u.setEmail(newEmail);
-        }
-        if (dto.password() != null && !dto.password().isBlank()) {
-            u.setPasswordHash(encoder.encode(dto.password()));
-        }
-        if (dto.role() != null) {
-            u.setRole(dto.role());
+            throw ex;
         }
-        return toReadDto(repo.saveAndFlush(u));
     }
 
     @Override
     public void delete(Long id) {
-        if (!repo.existsById(id)) {
+        if (repo.deleteByIdReturningCount(id) == 0) {
             throw new NotFoundException("User %d not found".formatted(id));
         }
-        repo.deleteById(id);
     }
 
     @Override
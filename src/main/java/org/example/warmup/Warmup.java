@@ -0,0 +1,47 @@
+package org.example.warmup;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.util.UUID;
+
+/**
+ * Признак «поток сейчас выполняет прогрев»: синтетическая нагрузка {@link WarmupRunner} не должна
+ * попадать в рабочие метрики (password.encoder, jwt.validation, jwt.user.load, http.server.*) и в замеры
+ * адаптивного лимита — холодные JIT-латентности исказили бы и перцентили, и сам лимит.
+ *
+ * В потоке прогрева признак ставит сам WarmupRunner, в потоках Tomcat — {@link WarmupRequestFilter}
+ * по заголовку {@link #HEADER}. Значение заголовка — случайный токен процесса: снаружи его не угадать,
+ * так что чужой запрос из метрик не выпадет.
+ */
+public final class Warmup {
+
+    public static final String HEADER = "X-Warmup";
+
+    private static final String TOKEN = UUID.randomUUID().toString();
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private Warmup() {
+    }
+
+    /** true — текущий поток выполняет прогрев; замеры в метрики не пишем. */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /** Запрос прогрева; нужен там, где признак потока ещё не выставлен (observation http.server.requests). */
+    public static boolean isWarmupRequest(HttpServletRequest request) {
+        return TOKEN.equals(request.getHeader(HEADER));
+    }
+
+    static String token() {
+        return TOKEN;
+    }
+
+    static void enter() {
+        ACTIVE.set(Boolean.TRUE);
+    }
+
+    static void exit() {
+        ACTIVE.remove();
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.warmup;
+
+import io.micrometer.observation.ObservationPredicate;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+
+@Configuration
+public class WarmupConfig {
+
+    // Первым: SqlStatsFilter, ServerTimingFilter и security-цепочка уже видят признак прогрева
+    @Bean
+    public FilterRegistrationBean<WarmupRequestFilter> warmupRequestFilter() {
+        var registration = new FilterRegistrationBean<>(new WarmupRequestFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.addUrlPatterns("/*");
+        return registration;
+    }
+
+    // http.server.requests: observation открывается в ServerHttpObservationFilter — смотрим на сам запрос
+    @Bean
+    public ObservationPredicate skipWarmupRequests() {
+        return (name, context) -> !(context instanceof ServerRequestObservationContext request
+                && Warmup.isWarmupRequest(request.getCarrier()));
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.warmup;
+
+import java.util.List;
+
+/**
+ * Итог прогрева: сколько итераций успели, за сколько, и как менялась латентность
+ * одной итерации (среднее по окнам, мкс) — по кривой видно, успел ли JIT выйти на плато.
+ */
+public record WarmupReport(int iterations, long durationMillis, List<Long> curveMicros, int failures) {
+
+    static WarmupReport skipped() {
+        return new WarmupReport(0, 0, List.of(), 0);
+    }
+
+    /** Среднее по {@code points} равным окнам; последнее окно забирает остаток. */
+    static List<Long> curve(long[] nanos, int count, int points) {
+        if (count == 0 || points <= 0) {
+            return List.of();
+        }
+        int windows = Math.min(points, count);
+        int size = count / windows;
+        Long[] result = new Long[windows];
+        for (int w = 0; w < windows; w++) {
+            int from = w * size;
+            int to = (w == windows - 1) ? count : from + size;
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+                sum += nanos[i];
+            }
+            result[w] = sum / (to - from) / 1_000;
+        }
+        return List.of(result);
+    }
+}
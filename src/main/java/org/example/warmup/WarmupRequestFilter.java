@@ -0,0 +1,29 @@
+package org.example.warmup;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/** Выставляет {@link Warmup#isActive()} на время запроса прогрева — раньше всех фильтров, что пишут метрики. */
+public class WarmupRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        if (!Warmup.isWarmupRequest(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Warmup.enter();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Warmup.exit();
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package org.example.warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.config.WarmupProperties;
+import org.example.domain.Project;
+import org.example.dto.ProjectReadDto;
+import org.example.mapper.ProjectMapper;
+import org.example.repository.ProjectRepository;
+import org.example.repository.UserRepository;
+import org.example.security.JwtService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.actuate.info.Info;
+import org.springframework.boot.actuate.info.InfoContributor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прогрев JIT до того, как инстанс попадёт в балансировщик.
+ *
+ * ApplicationRunner'ы выполняются до ApplicationReadyEvent, а readiness-проба
+ * (/actuator/health/readiness) переходит в ACCEPTING_TRAFFIC только после него —
+ * поэтому пока идёт прогрев, инстанс остаётся NOT READY.
+ *
+ * Одна итерация проходит тот же путь, что /api/auth/login + /api/projects:
+ * выпуск и проверка JWT синтетического пользователя, read-only запросы в репозитории,
+ * маппинг в DTO, сериализация страницы в JSON. Плюс настоящие HTTP-запросы на свой же порт —
+ * через Tomcat, servlet- и security-фильтры, MVC и обработку ошибок: /api/ping, /api/projects
+ * с токеном синтетического пользователя (его нет в БД — ответ 401 после проверки JWT и загрузки
+ * пользователя) и раз в bcryptEvery итераций /api/auth/login — 401, но с BCrypt-проверкой,
+ * которую Spring Security делает и для неизвестного email. Без веб-сервера (local.server.port
+ * не задан) BCrypt вызывается напрямую.
+ *
+ * Всё это — под {@link Warmup}: рабочие метрики и адаптивный лимит прогрева не видят.
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner, InfoContributor, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    // синтетический пользователь: в БД его нет, поиск по email отрабатывает «мимо»
+    private static final String SYNTHETIC_EMAIL = "warmup@warmup.invalid";
+    private static final Pageable FIRST_PAGE = PageRequest.of(0, 20);
+    private static final Duration HTTP_TIMEOUT = Duration.ofSeconds(5);
+
+    private final WarmupProperties props;
+    private final JwtService jwt;
+    private final ProjectRepository projects;
+    private final UserRepository users;
+    private final PasswordEncoder encoder;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTx;
+    private final Environment env;
+
+    private volatile WarmupReport report = WarmupReport.skipped();
+
+    public WarmupRunner(WarmupProperties props,
+                        JwtService jwt,
+                        ProjectRepository projects,
+                        UserRepository users,
+                        PasswordEncoder encoder,
+                        ObjectMapper objectMapper,
+                        PlatformTransactionManager txManager,
+                        Environment env) {
+        this.props = props;
+        this.jwt = jwt;
+        this.projects = projects;
+        this.users = users;
+        this.encoder = encoder;
+        this.objectMapper = objectMapper;
+        this.readOnlyTx = new TransactionTemplate(txManager);
+        this.readOnlyTx.setReadOnly(true);
+        this.env = env;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("warmup.iterations", this, r -> r.report.iterations())
+                .description("Iterations executed by the startup warm-up")
+                .register(registry);
+        TimeGauge.builder("warmup.duration", this, TimeUnit.MILLISECONDS, r -> r.report.durationMillis())
+                .description("Wall time spent in the startup warm-up")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!props.isEnabled()) {
+            return;
+        }
+
+        UserDetails principal = User.withUsername(SYNTHETIC_EMAIL)
+                .password("{noop}unused")
+                .roles("USER")
+                .build();
+        String rawPassword = UUID.randomUUID().toString();
+        String passwordHash = encoder.encode(rawPassword);
+        List<Project> synthetic = syntheticProjects();
+
+        int max = Math.max(1, props.getMaxIterations());
+        long[] latencies = new long[max];
+        long deadline = System.nanoTime() + props.getDuration().toNanos();
+        long started = System.nanoTime();
+        int iterations = 0;
+        int failures = 0;
+
+        Warmup.enter();
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(HTTP_TIMEOUT)
+                .build()) {
+            URI base = baseUri();
+            while (iterations < max && System.nanoTime() < deadline) {
+                long t0 = System.nanoTime();
+                try {
+                    iteration(iterations, principal, rawPassword, passwordHash, synthetic, http, base);
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                        break;
+                    }
+                    // прогрев не должен ронять старт; считаем и идём дальше
+                    if (failures++ == 0) {
+                        log.warn("Warm-up iteration failed: {}", e.toString());
+                    }
+                }
+                latencies[iterations++] = System.nanoTime() - t0;
+            }
+        } finally {
+            Warmup.exit();
+        }
+
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        report = new WarmupReport(iterations, durationMillis,
+                WarmupReport.curve(latencies, iterations, props.getCurvePoints()), failures);
+        log.info("Warm-up done: {} iterations in {} ms, {} failures; latency curve (µs/iteration): {}",
+                report.iterations(), report.durationMillis(), report.failures(), report.curveMicros());
+    }
+
+    private void iteration(int i, UserDetails principal, String rawPassword, String passwordHash,
+                           List<Project> synthetic, HttpClient http, URI base) throws Exception {
+        // JWT: выпуск + разбор/проверка подписи, как в AuthController и JwtAuthenticationFilter
+        String token = jwt.generateAccessToken(principal);
+        jwt.validateAndGetSubject(token);
+
+        // read-only запросы тех же репозиториев, что обслуживают /api/me и /api/projects
+        Page<Project> page = readOnlyTx.execute(status -> {
+            users.findByEmailIgnoreCase(SYNTHETIC_EMAIL);
+            return projects.findAll(FIRST_PAGE);
+        });
+
+        // маппинг + сериализация; при пустой БД подставляем синтетическую страницу
+        Page<Project> source = (page == null || page.isEmpty())
+                ? new PageImpl<>(synthetic, FIRST_PAGE, synthetic.size())
+                : page;
+        Page<ProjectReadDto> dtos = source.map(ProjectMapper::toReadDto);
+        objectMapper.writeValueAsBytes(dtos);
+        objectMapper.writeValueAsBytes(dtos.getContent().getFirst());
+
+        boolean bcrypt = props.getBcryptEvery() > 0 && i % props.getBcryptEvery() == 0;
+        if (base == null) {
+            if (bcrypt) {
+                encoder.matches(rawPassword, passwordHash);
+            }
+            return;
+        }
+
+        // тот же путь через HTTP; статус не проверяем — 401 здесь ожидаемый
+        send(http, HttpRequest.newBuilder(base.resolve("api/ping")).GET());
+        send(http, HttpRequest.newBuilder(base.resolve("api/projects?size=" + FIRST_PAGE.getPageSize()))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .GET());
+        if (bcrypt) {
+            byte[] login = objectMapper.writeValueAsBytes(new LoginBody(SYNTHETIC_EMAIL, rawPassword));
+            send(http, HttpRequest.newBuilder(base.resolve("api/auth/login"))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(login)));
+        }
+    }
+
+    private record LoginBody(String email, String password) {
+    }
+
+    private static void send(HttpClient http, HttpRequest.Builder request) throws IOException, InterruptedException {
+        http.send(request.header(Warmup.HEADER, Warmup.token()).timeout(HTTP_TIMEOUT).build(),
+                HttpResponse.BodyHandlers.discarding());
+    }
+
+    /** Свой HTTP-адрес; null — веб-сервера нет (тест без него, web-application-type: none). */
+    private URI baseUri() {
+        Integer port = env.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            return null;
+        }
+        // привязка к конкретному адресу — идём на него; на все интерфейсы — на localhost
+        String host = env.getProperty("server.address", "");
+        if (host.isEmpty() || host.equals("0.0.0.0") || host.equals("::")) {
+            host = "localhost";
+        } else if (host.contains(":")) {
+            host = "[" + host + "]";
+        }
+        String contextPath = env.getProperty("server.servlet.context-path", "");
+        return URI.create("http://" + host + ":" + port + contextPath + "/");
+    }
+
+    private static List<Project> syntheticProjects() {
+        OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+        List<Project> list = new ArrayList<>(FIRST_PAGE.getPageSize());
+        for (int i = 0; i < FIRST_PAGE.getPageSize(); i++) {
+            Project p = new Project();
+            p.setId((long) i + 1);
+            p.setName("warmup-" + i);
+            p.setDescription("synthetic project used for warm-up");
+            p.setCreatedAt(now.minusMinutes(i));
+            list.add(p);
+        }
+        return list;
+    }
+
+    public WarmupReport report() {
+        return report;
+    }
+
+    @Override
+    public void contribute(Info.Builder builder) {
+        builder.withDetail("warmup", report);
+    }
+}
@@ -0,0 +1,10 @@
+-- V5: курсоры фоновых backfill-задач (org.example.db.BackfillRunner).
+-- Каждая задача двигается батчами по ключу; last_key пишется в той же транзакции,
+-- что и батч, поэтому после рестарта задача продолжается с места остановки.
+CREATE TABLE IF NOT EXISTS backfill_progress (
+    name        VARCHAR(100) PRIMARY KEY,
+    last_key    BIGINT       NOT NULL DEFAULT 0,
+    rows_done   BIGINT       NOT NULL DEFAULT 0,
+    completed   BOOLEAN      NOT NULL DEFAULT FALSE,
+    updated_at  TIMESTAMPTZ  NOT NULL DEFAULT now()
+);
@@ -3,6 +3,7 @@ package org.example.auth;
 import org.example.domain.User;
 import org.example.domain.UserRole;
 import org.example.repository.UserRepository;
+import org.example.support.SqlStatsMatchers;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,12 +13,13 @@ import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.example.support.SqlStatsMatchers.statementsAtMost;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-@SpringBootTest
+@SpringBootTest(properties = SqlStatsMatchers.EXPOSE_HEADER)
 @AutoConfigureMockMvc
 class MeProfileIT {
 
@@ -63,6 +65,8 @@ class MeProfileIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.email").value("me@example.com"))
                 .andExpect(jsonPath("$.role").value("USER"))
-                .andExpect(jsonPath("$.id").isNumber());
+                .andExpect(jsonPath("$.id").isNumber())
+                // JwtAuthenticationFilter грузит пользователя + сам /api/me
+                .andExpect(statementsAtMost(2));
     }
 }
\ No newline at end of file
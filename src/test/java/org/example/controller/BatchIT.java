@@ -0,0 +1,157 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.domain.User;
+import org.example.domain.UserRole;
+import org.example.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * POST /api/batch на настоящем сервере: под-запросы диспатчатся через DispatcherServlet
+ * приложения, которого в MockMvc нет (там свой TestDispatcherServlet).
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class BatchIT {
+
+    @Autowired TestRestTemplate rest;
+    @Autowired UserRepository users;
+    @Autowired PasswordEncoder encoder;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired ObjectMapper objectMapper;
+
+    private String token;
+
+    @BeforeEach
+    void setup() throws Exception {
+        jdbc.execute("TRUNCATE TABLE projects RESTART IDENTITY CASCADE");
+        users.findByEmailIgnoreCase("batch@example.com").ifPresent(u -> users.deleteById(u.getId()));
+        var u = new User();
+        u.setEmail("batch@example.com");
+        u.setPasswordHash(encoder.encode("Qwerty_123"));
+        u.setRole(UserRole.USER);
+        users.saveAndFlush(u);
+
+        var login = rest.postForEntity("/api/auth/login", json("""
+                {"email":"batch@example.com","password":"Qwerty_123"}
+                """, null), String.class);
+        assertThat(login.getStatusCode()).isEqualTo(HttpStatus.OK);
+        token = objectMapper.readTree(login.getBody()).get("accessToken").asText();
+    }
+
+    private static HttpEntity<String> json(String body, String token) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (token != null) {
+            headers.setBearerAuth(token);
+        }
+        return new HttpEntity<>(body, headers);
+    }
+
+    private JsonNode batch(String body) throws Exception {
+        var resp = rest.postForEntity("/api/batch", json(body, token), String.class);
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.OK);
+        return objectMapper.readTree(resp.getBody());
+    }
+
+    @Test
+    void mixedBatch_eachSubRequestGetsItsOwnStatusAndBody() throws Exception {
+        JsonNode result = batch("""
+                {"requests":[
+                  {"method":"GET",  "path":"/api/me"},
+                  {"method":"POST", "path":"/api/projects", "body":{"name":"Batch One","description":"x"}},
+                  {"method":"GET",  "path":"/api/projects?name=batch%20one"},
+                  {"method":"GET",  "path":"/api/projects/999999"},
+                  {"method":"POST", "path":"/api/projects", "body":{"name":""}}
+                ]}
+                """);
+
+        JsonNode r = result.get("responses");
+        assertThat(r).hasSize(5);
+        assertThat(r.get(0).get("status").asInt()).isEqualTo(200);
+        assertThat(r.get(0).get("body").get("email").asText()).isEqualTo("batch@example.com");
+        assertThat(r.get(1).get("status").asInt()).isEqualTo(201);
+        assertThat(r.get(1).get("headers").get("Location").asText()).contains("/api/projects/");
+        // GET после POST видит созданный проект: запись — барьер для следующих чтений
+        assertThat(r.get(2).get("status").asInt()).isEqualTo(200);
+        assertThat(r.get(2).get("body").get("content").get(0).get("name").asText()).isEqualTo("Batch One");
+        assertThat(r.get(3).get("status").asInt()).isEqualTo(404);
+        assertThat(r.get(3).get("body").get("message").asText()).isEqualTo("Project 999999 not found");
+        assertThat(r.get(4).get("status").asInt()).isEqualTo(400);
+        assertThat(result.get("rolledBack").asBoolean()).isFalse();
+    }
+
+    @Test
+    void atomicBatch_failureRollsBackEverything() throws Exception {
+        JsonNode result = batch("""
+                {"atomic":true,"requests":[
+                  {"method":"POST", "path":"/api/projects", "body":{"name":"Atomic","description":"x"}},
+                  {"method":"POST", "path":"/api/projects", "body":{"name":"ATOMIC","description":"dup"}},
+                  {"method":"POST", "path":"/api/projects", "body":{"name":"Never","description":"x"}}
+                ]}
+                """);
+
+        JsonNode r = result.get("responses");
+        assertThat(r.get(0).get("status").asInt()).isEqualTo(201);
+        assertThat(r.get(1).get("status").asInt()).isEqualTo(409);
+        assertThat(r.get(2).get("status").asInt()).isEqualTo(424);
+        assertThat(result.get("rolledBack").asBoolean()).isTrue();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM projects", Long.class)).isZero();
+    }
+
+    @Test
+    void subRequestOutsideApi_isRejected() throws Exception {
+        JsonNode result = batch("""
+                {"requests":[
+                  {"method":"GET", "path":"/actuator/slowqueries"},
+                  {"method":"POST", "path":"/api/batch", "body":{"requests":[]}}
+                ]}
+                """);
+
+        assertThat(result.get("responses").get(0).get("status").asInt()).isEqualTo(400);
+        assertThat(result.get("responses").get(1).get("status").asInt()).isEqualTo(400);
+    }
+
+    @Test
+    void subRequestPathEscapingApi_isRejectedBeforeDispatch() throws Exception {
+        JsonNode result = batch("""
+                {"requests":[
+                  {"method":"GET", "path":"/api/../actuator/slowqueries"},
+                  {"method":"GET", "path":"/api/./me"},
+                  {"method":"GET", "path":"/api/me;jsessionid=x"},
+                  {"method":"GET", "path":"/api/%2E%2E/actuator/prometheus"},
+                  {"method":"GET", "path":"/api/projects%2F..%2F..%2Factuator"},
+                  {"method":"GET", "path":"/api//me"},
+                  {"method":"GET", "path":"/api/me"}
+                ]}
+                """);
+
+        JsonNode r = result.get("responses");
+        for (int i = 0; i < 6; i++) {
+            assertThat(r.get(i).get("status").asInt()).as(r.get(i).toString()).isEqualTo(400);
+            assertThat(r.get(i).get("body").get("message").asText()).contains("must be under /api/");
+        }
+        assertThat(r.get(6).get("status").asInt()).isEqualTo(200);
+    }
+
+    @Test
+    void batchWithoutToken_is401() {
+        var resp = rest.postForEntity("/api/batch", json("""
+                {"requests":[{"method":"GET","path":"/api/me"}]}
+                """, null), String.class);
+
+        assertThat(resp.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -1,24 +1,45 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.example.service.ProjectServiceJpa;
+import org.example.support.SqlStatsMatchers;
 import org.hamcrest.Matchers;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.test.context.TestSecurityContextHolder;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TimeZone;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.example.support.SqlStatsMatchers.statements;
+import static org.example.support.SqlStatsMatchers.statementsAtMost;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 /**
  * Интеграционные тесты REST-контроллера проектов.
  * Поднимаем реальный Spring-контекст и дергаем HTTP-эндпоинты через MockMvc.
+ * JVM — не в UTC (pgjdbc передаёт её зону и в сессию Postgres): createdAt обязан уходить в UTC независимо от неё.
  */
-@SpringBootTest
+@SpringBootTest(properties = SqlStatsMatchers.EXPOSE_HEADER)
 @AutoConfigureMockMvc
 @WithMockUser(username = "test@example.com", roles = "USER")
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
@@ -28,9 +49,45 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 )
 class ProjectRestControllerIT {
 
+    private static final TimeZone JVM_ZONE = TimeZone.getDefault();
+
     @Autowired
     MockMvc mockMvc;
 
+    @Autowired
+    JdbcTemplate jdbc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    ProjectServiceJpa service;
+
+    // До подъёма контекста: пул соединений и Hibernate видят уже эту зону
+    @BeforeAll
+    static void nonUtcJvm() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Tokyo"));
+    }
+
+    @AfterAll
+    static void restoreJvmZone() {
+        TimeZone.setDefault(JVM_ZONE);
+    }
+
+    // Создаёт проект через API и возвращает его id
+    private long createProject(String name) throws Exception {
+        var created = mockMvc.perform(post("/api/projects")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"%s","description":"x"}
+                                """.formatted(name)))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return ((Number) com.jayway.jsonpath.JsonPath.read(created, "$.id")).longValue();
+    }
+
     @Test
     void createProject_returns201_andBody() throws Exception {
         String body = """
@@ -77,7 +134,9 @@ class ProjectRestControllerIT {
                 .andExpect(jsonPath("$.content[0].createdAt", Matchers.endsWith("Z")))
                 // проверяем метаданные страницы
                 .andExpect(jsonPath("$.pageable.pageNumber").value(0))
-                .andExpect(jsonPath("$.first").value(true));
+                .andExpect(jsonPath("$.first").value(true))
+                // первая неполная страница: без отдельного count-запроса
+                .andExpect(statementsAtMost(2));
     }
 
     @Test
@@ -239,4 +298,225 @@ class ProjectRestControllerIT {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
     }
-}
\ No newline at end of file
+
+    @Test
+    void delete_existing_issuesSingleStatement() throws Exception {
+        long id = createProject("ToDelete");
+
+        mockMvc.perform(delete("/api/projects/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void delete_notExisting_issuesSingleStatement() throws Exception {
+        mockMvc.perform(delete("/api/projects/{id}", 999_999L))
+                .andExpect(status().isNotFound())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void update_existing_issuesSingleStatement() throws Exception {
+        long id = createProject("ToUpdate");
+
+        mockMvc.perform(put("/api/projects/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"Updated","description":"y"}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Updated"))
+                .andExpect(jsonPath("$.createdAt", Matchers.endsWith("Z")))
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void update_conflict_issuesSingleStatement() throws Exception {
+        createProject("Taken");
+        long id = createProject("Free");
+
+        mockMvc.perform(put("/api/projects/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"name":"TAKEN","description":"y"}
+                                """))
+                .andExpect(status().isConflict())
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getMany_returnsFoundInRequestOrder_andMissing_inSingleStatement() throws Exception {
+        long a = createProject("Alpha");
+        long b = createProject("Beta");
+
+        mockMvc.perform(get("/api/projects")
+                        .param("ids", b + "," + 999_999L + "," + a + "," + b))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(2))
+                .andExpect(jsonPath("$.items[0].name").value("Beta"))
+                .andExpect(jsonPath("$.items[1].name").value("Alpha"))
+                .andExpect(jsonPath("$.items[0].createdAt", Matchers.endsWith("Z")))
+                .andExpect(jsonPath("$.missing.length()").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(999_999))
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void getMany_tooManyIds_returns400_withoutQuery() throws Exception {
+        String ids = java.util.stream.LongStream.rangeClosed(1, 201)
+                .mapToObj(Long::toString)
+                .collect(java.util.stream.Collectors.joining(","));
+
+        mockMvc.perform(get("/api/projects").param("ids", ids))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", Matchers.containsString("max 200")))
+                .andExpect(statements(0));
+    }
+
+    @Test
+    void getMany_nonNumericId_returns400() throws Exception {
+        mockMvc.perform(get("/api/projects").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error").value("Bad Request"));
+    }
+
+    @Test
+    void list_withFields_returnsOnlyRequestedFields() throws Exception {
+        createProject("Sparse One");
+
+        mockMvc.perform(get("/api/projects").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").isNumber())
+                .andExpect(jsonPath("$.content[0].name").value("Sparse One"))
+                .andExpect(jsonPath("$.content[0].description").doesNotExist())
+                .andExpect(jsonPath("$.content[0].createdAt").doesNotExist())
+                // первая неполная страница — без отдельного count
+                .andExpect(statements(1));
+    }
+
+    @Test
+    void list_withFieldsAndNameFilter_appliesFilter() throws Exception {
+        createProject("AI Core");
+        createProject("Other");
+
+        mockMvc.perform(get("/api/projects").param("fields", "name,createdAt").param("name", "ai"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("AI Core"))
+                .andExpect(jsonPath("$.content[0].createdAt", Matchers.endsWith("Z")));
+    }
+
+    @Test
+    void get_withFields_returnsOnlyRequestedFields() throws Exception {
+        long id = createProject("Sparse Get");
+
+        mockMvc.perform(get("/api/projects/{id}", id).param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Sparse Get"))
+                .andExpect(jsonPath("$.id").doesNotExist())
+                .andExpect(jsonPath("$.description").doesNotExist());
+    }
+
+    @Test
+    void get_withFields_notExisting_returns404() throws Exception {
+        mockMvc.perform(get("/api/projects/{id}", 999_999L).param("fields", "id,name"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void list_withUnknownField_returns400_withoutQuery() throws Exception {
+        mockMvc.perform(get("/api/projects").param("fields", "id,passwordHash"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", Matchers.containsString("passwordHash")))
+                .andExpect(statements(0));
+    }
+
+    @Test
+    void list_acceptCbor_returnsCborPage() throws Exception {
+        createProject("Binary One");
+
+        byte[] body = mockMvc.perform(get("/api/projects").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = new CBORMapper().readTree(body);
+        assertThat(page.get("content").get(0).get("name").asText())
+                .isEqualTo("Binary One");
+        assertThat(page.get("totalElements").asLong()).isEqualTo(1);
+    }
+
+    @Test
+    void create_withSmileBody_acceptSmile_returns201() throws Exception {
+        var smile = new SmileMapper();
+        byte[] request = smile.writeValueAsBytes(Map.of("name", "Smile One", "description", "x"));
+
+        byte[] body = mockMvc.perform(post("/api/projects")
+                        .contentType("application/x-jackson-smile")
+                        .accept("application/x-jackson-smile")
+                        .content(request))
+                .andExpect(status().isCreated())
+                .andExpect(content().contentTypeCompatibleWith("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertThat(smile.readTree(body).get("name").asText()).isEqualTo("Smile One");
+    }
+
+    @Test
+    void list_withoutAccept_staysJson() throws Exception {
+        mockMvc.perform(get("/api/projects"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void list_json_isByteIdenticalToDtoPage() throws Exception {
+        assertThat(jdbc.queryForObject("SHOW TimeZone", String.class)).isEqualTo("Asia/Tokyo");
+        // Время с нулевыми секундами, с миллисекундами и с микросекундами — у toString() разная длина
+        jdbc.update("""
+                INSERT INTO projects (name, description, created_at) VALUES
+                  ('AI Core', 'Core "services"', '2025-10-24 12:00:00+00'),
+                  ('Проект ИИ', NULL, '2025-10-24 12:00:05.12+00'),
+                  ('Mainframe ai_tools', 'y', '2025-10-24 12:01:05.123456+00'),
+                  ('Beta', 'z', '1969-12-31 23:59:59.999999+00')
+                """);
+
+        assertSameAsDtoPage(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")), null);
+        // полная первая и вторая страницы — с count
+        assertSameAsDtoPage(PageRequest.of(0, 3, Sort.by(Sort.Direction.DESC, "createdAt")), null);
+        assertSameAsDtoPage(PageRequest.of(1, 3, Sort.by(Sort.Direction.DESC, "createdAt")), null);
+        assertSameAsDtoPage(PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "name")), null);
+        assertSameAsDtoPage(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")), "AI");
+
+        // оба пути могли бы ошибиться одинаково — сверяем и с литералами
+        mockMvc.perform(get("/api/projects").param("sort", "createdAt,asc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[*].createdAt", Matchers.contains(
+                        "1969-12-31T23:59:59.999999Z",
+                        "2025-10-24T12:00Z",
+                        "2025-10-24T12:00:05.120Z",
+                        "2025-10-24T12:01:05.123456Z")));
+    }
+
+    // Тот же Page<ProjectReadDto> через сущности и Jackson — эталон для построчной записи
+    private void assertSameAsDtoPage(PageRequest pageable, String name) throws Exception {
+        Sort.Order order = pageable.getSort().iterator().next();
+        var request = get("/api/projects")
+                .param("page", String.valueOf(pageable.getPageNumber()))
+                .param("size", String.valueOf(pageable.getPageSize()))
+                .param("sort", order.getProperty() + "," + order.getDirection().name().toLowerCase());
+        if (name != null) {
+            request.param("name", name);
+        }
+        byte[] streamed = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // MockMvc очищает SecurityContext потока после запроса, а сервис закрыт @PreAuthorize
+        SecurityContextHolder.setContext(TestSecurityContextHolder.getContext());
+        byte[] expected = objectMapper.writeValueAsBytes(service.findPage(pageable, name));
+        assertThat(new String(streamed, StandardCharsets.UTF_8))
+                .isEqualTo(new String(expected, StandardCharsets.UTF_8));
+    }
+}
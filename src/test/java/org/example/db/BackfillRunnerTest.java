@@ -0,0 +1,156 @@
+package org.example.db;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.BackfillProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BackfillRunnerTest {
+
+    /** Строка backfill_progress в памяти: SELECT ... FOR UPDATE и UPDATE'ы курсора раннера. */
+    static class ProgressJdbc extends JdbcTemplate {
+        long lastKey;
+        long rowsDone;
+        boolean completed;
+
+        @Override
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            try {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong("last_key")).thenReturn(lastKey);
+                when(rs.getLong("rows_done")).thenReturn(rowsDone);
+                when(rs.getBoolean("completed")).thenReturn(completed);
+                return List.of(rowMapper.mapRow(rs, 0));
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public int update(String sql, Object... args) {
+            if (sql.startsWith("UPDATE backfill_progress SET completed")) {
+                completed = true;
+            } else if (sql.startsWith("UPDATE backfill_progress SET last_key")) {
+                lastKey = (Long) args[0];
+                rowsDone = (Long) args[1];
+            }
+            return 1;
+        }
+    }
+
+    /** Таблица с ключами 1..rows; failOnBatch — номер вызова nextBatch, который падает. */
+    static class KeysBackfill implements Backfill {
+        final long rows;
+        final List<Long> afterKeys = new ArrayList<>();
+        int failOnBatch = -1;
+        int completions;
+
+        KeysBackfill(long rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public String name() {
+            return "test";
+        }
+
+        @Override
+        public List<Long> nextBatch(JdbcTemplate jdbc, long afterKey, int limit) {
+            afterKeys.add(afterKey);
+            if (afterKeys.size() == failOnBatch) {
+                throw new IllegalStateException("batch failed");
+            }
+            return LongStream.rangeClosed(afterKey + 1, Math.min(rows, afterKey + limit)).boxed().toList();
+        }
+
+        @Override
+        public void onComplete(JdbcTemplate jdbc) {
+            completions++;
+        }
+    }
+
+    ProgressJdbc jdbc;
+    SimpleMeterRegistry registry;
+    BackfillRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        var props = new BackfillProperties();
+        props.setBatchSize(3);
+        props.setPause(Duration.ZERO);
+        jdbc = new ProgressJdbc();
+        registry = new SimpleMeterRegistry();
+        runner = new BackfillRunner(List.of(), jdbc, mock(PlatformTransactionManager.class), props, registry);
+    }
+
+    @Test
+    void run_walksKeysInBatches_thenCompletesOnce() throws Exception {
+        var job = new KeysBackfill(7);
+
+        runner.run(job);
+
+        assertThat(job.afterKeys).containsExactly(0L, 3L, 6L, 7L);
+        assertThat(job.completions).isEqualTo(1);
+        assertThat(jdbc.completed).isTrue();
+        assertThat(jdbc.lastKey).isEqualTo(7);
+        assertThat(jdbc.rowsDone).isEqualTo(7);
+        assertThat(registry.get("backfill.rows").tag("job", "test").counter().count()).isEqualTo(7);
+    }
+
+    @Test
+    void run_resumesFromSavedCursor() throws Exception {
+        jdbc.lastKey = 4;
+        jdbc.rowsDone = 4;
+        var job = new KeysBackfill(7);
+
+        runner.run(job);
+
+        assertThat(job.afterKeys).containsExactly(4L, 7L);
+        assertThat(jdbc.rowsDone).isEqualTo(7);
+        assertThat(registry.get("backfill.rows").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void run_failedBatch_keepsCursor_nextRunContinuesFromIt() throws Exception {
+        var job = new KeysBackfill(7);
+        job.failOnBatch = 2;
+
+        assertThatThrownBy(() -> runner.run(job)).hasMessage("batch failed");
+        assertThat(jdbc.lastKey).isEqualTo(3);
+        assertThat(jdbc.completed).isFalse();
+
+        job.failOnBatch = -1;
+        job.afterKeys.clear();
+        runner.run(job);
+
+        assertThat(job.afterKeys).containsExactly(3L, 6L, 7L);
+        assertThat(jdbc.rowsDone).isEqualTo(7);
+        assertThat(job.completions).isEqualTo(1);
+    }
+
+    @Test
+    void run_completedJob_touchesNoData() throws Exception {
+        jdbc.completed = true;
+        var job = new KeysBackfill(7);
+
+        runner.run(job);
+
+        assertThat(job.afterKeys).isEmpty();
+        assertThat(job.completions).isZero();
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.db;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Java-миграции V4–V8 на уже заполненной таблице, как при выкатке на существующую БД:
+ * схема поднимается до V3 в отдельном schema, заливаются строки, потом — остальные миграции.
+ * Параллельно открыта транзакция старше сборки индексов: CREATE INDEX CONCURRENTLY обязан её
+ * дождаться, а не упасть по lock_timeout (и не зависнуть на транзакции лока самого Flyway).
+ */
+@SpringBootTest
+class OnlineMigrationsIT {
+
+    private static final String SCHEMA = "migrations_it";
+    private static final Duration OLD_TRANSACTION = Duration.ofSeconds(7);
+
+    @Autowired DataSource dataSource;
+    @Autowired JdbcTemplate jdbc;
+
+    @BeforeEach
+    @AfterEach
+    void dropSchema() {
+        jdbc.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    private Flyway flyway(String target) {
+        return Flyway.configure()
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .target(target)
+                .load();
+    }
+
+    @Test
+    void v4ToV8_onExistingRows_waitForOlderTransaction_insteadOfFailing() throws Exception {
+        flyway("3").migrate();
+        jdbc.update("INSERT INTO " + SCHEMA + ".projects (name, description)"
+                + " SELECT 'seeded-' || g, 'seeded' FROM generate_series(1, 5000) g");
+        jdbc.update("INSERT INTO " + SCHEMA + ".projects (name) VALUES ('Alpha'), ('ALPHA')");
+        long dupId = jdbc.queryForObject("SELECT id FROM " + SCHEMA + ".projects WHERE name = 'ALPHA'", Long.class);
+        // имя, которое дедупликация дала бы дубликату, уже занято
+        jdbc.update("INSERT INTO " + SCHEMA + ".projects (name) VALUES (?)", "alpha (#" + dupId + ")");
+        jdbc.update("INSERT INTO " + SCHEMA + ".users (email, password_hash, role, created_at)"
+                + " VALUES ('ok@example.com', 'x', 'USER', now()), ('legacy@example.com', 'x', 'admin ', now())");
+
+        // REPEATABLE READ держит снимок — его сборка индекса CONCURRENTLY ждёт до COMMIT
+        Connection old = dataSource.getConnection();
+        old.setAutoCommit(false);
+        old.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+        try (var st = old.createStatement()) {
+            st.execute("SELECT count(*) FROM " + SCHEMA + ".users");
+        }
+        CompletableFuture<Void> commitLater = CompletableFuture.runAsync(() -> {
+            try (old) {
+                old.commit();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }, CompletableFuture.delayedExecutor(OLD_TRANSACTION.toMillis(), TimeUnit.MILLISECONDS));
+
+        long started = System.nanoTime();
+        var result = flyway("latest").migrate();
+        Duration took = Duration.ofNanos(System.nanoTime() - started);
+        commitLater.get(30, TimeUnit.SECONDS);
+
+        assertThat(result.targetSchemaVersion).isEqualTo("8");
+        // дольше lock_timeout ALTER TABLE'ов: сборка дождалась старой транзакции, а не упала
+        assertThat(took).isGreaterThan(Duration.ofSeconds(5));
+        assertThat(indexIsValid("ux_projects_name_ci")).isTrue();
+        assertThat(indexIsValid("idx_projects_created_at")).isTrue();
+        assertThat(indexIsValid("idx_projects_name_trgm")).isTrue();
+        assertThat(jdbc.queryForList("SELECT name FROM " + SCHEMA + ".projects WHERE lower(name) LIKE 'alpha%' ORDER BY id",
+                String.class)).containsExactly("Alpha", "ALPHA (#" + dupId + ".2)", "alpha (#" + dupId + ")");
+        // старая роль не даёт проверить CHECK в миграции — это делает UsersRoleBackfill
+        assertThat(jdbc.queryForObject("""
+                SELECT c.convalidated FROM pg_constraint c JOIN pg_namespace n ON n.oid = c.connamespace
+                WHERE n.nspname = ? AND c.conname = 'ck_users_role'
+                """, Boolean.class, SCHEMA)).isFalse();
+    }
+
+    private boolean indexIsValid(String index) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("""
+                SELECT i.indisvalid FROM pg_index i
+                JOIN pg_class c ON c.oid = i.indexrelid JOIN pg_namespace n ON n.oid = c.relnamespace
+                WHERE n.nspname = ? AND c.relname = ?
+                """, Boolean.class, SCHEMA, index));
+    }
+}
@@ -0,0 +1,190 @@
+package org.example.db;
+
+import org.example.config.AdaptivePoolProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.IntToDoubleFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Симуляция: БД с ёмкостью 8 параллельных запросов, базовой латентностью 2 мс; сверх ёмкости
+ * латентность растёт пропорционально числу активных соединений. Нагрузка меняется ступенями.
+ * Смешанная нагрузка — базовая латентность шага зависит от доли тяжёлых запросов в нём.
+ */
+class PoolSizeControllerTest {
+
+    private static final int DB_CAPACITY = 8;
+    private static final double BASE_LATENCY_MILLIS = 2.0;
+
+    /** Модель пула и БД; size меняет только контроллер. */
+    private static final class Simulation {
+        final PoolSizeController controller = new PoolSizeController(new AdaptivePoolProperties());
+        final List<Integer> sizes = new ArrayList<>();
+        double dbSlowdown = 1.0;
+        // базовая латентность шага (без конкуренции); по умолчанию — постоянная
+        IntToDoubleFunction baseLatency = tick -> BASE_LATENCY_MILLIS;
+        int tick;
+        int size;
+
+        Simulation(int initialSize) {
+            this.size = initialSize;
+        }
+
+        List<Integer> run(int demand, int ticks) {
+            List<Integer> phase = new ArrayList<>();
+            for (int i = 0; i < ticks; i++) {
+                int active = Math.min(size, demand);
+                int waiting = Math.max(0, demand - size);
+                double latency = baseLatency.applyAsDouble(tick++) * dbSlowdown
+                        * Math.max(1.0, (double) active / DB_CAPACITY);
+                double acquireWait = waiting == 0 ? 0 : latency * waiting / size;
+                double cpu = Math.min(0.6, 0.05 * active);
+                var decision = controller.decide(
+                        new PoolSizeController.Sample(size, active, waiting, acquireWait, latency, cpu));
+                size = decision.to();
+                phase.add(size);
+                sizes.add(size);
+            }
+            return phase;
+        }
+    }
+
+    @Test
+    void stepChanges_convergeWithoutOscillation() {
+        var sim = new Simulation(5);
+
+        List<Integer> low1 = sim.run(4, 30);
+        List<Integer> high1 = sim.run(30, 40);
+        List<Integer> low2 = sim.run(3, 40);
+        List<Integer> high2 = sim.run(30, 40);
+
+        // под перегрузкой растём до «колена» БД (латентность в пределах коридора), но не дальше
+        assertThat(tail(high1, 20)).allSatisfy(size -> assertThat(size).isBetween(9, 10));
+        assertThat(tail(high2, 20)).allSatisfy(size -> assertThat(size).isBetween(9, 10));
+        // при низкой нагрузке лишние соединения отдаются
+        assertThat(tail(low1, 10)).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(8));
+        assertThat(tail(low2, 10)).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(6));
+
+        for (List<Integer> phase : List.of(low1, high1, low2, high2)) {
+            List<Integer> steady = tail(phase, 10);
+            assertThat(max(steady) - min(steady)).as("steady window %s", steady).isLessThanOrEqualTo(1);
+        }
+        assertThat(directionChanges(sim.sizes)).as("sizes %s", sim.sizes).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void mixedWorkload_cheapTicksDoNotPinBaseline() {
+        var sim = new Simulation(5);
+        var random = new SplittableRandom(7);
+        // point lookup 1 мс и отчёты 6 мс; доля отчётов за шаг плавает, а каждый 10-й шаг — одни lookup'ы
+        sim.baseLatency = tick -> {
+            double heavy = tick % 10 == 9 ? 0.0 : random.nextDouble(0.45, 0.55);
+            return 1.0 + 5.0 * heavy;
+        };
+
+        sim.run(4, 60);
+        List<Integer> high = sim.run(30, 60);
+
+        // с минимумом в baseline дешёвый шаг делал бы каждый обычный «перегрузкой БД» ×3.5 — и пул резался бы
+        assertThat(tail(high, 30)).allSatisfy(size -> assertThat(size).isBetween(8, 12));
+        assertThat(sim.controller.baselineMillis()).isBetween(3.0, 4.0);
+    }
+
+    @Test
+    void gradualShiftToHeavierMix_followedByBaseline() {
+        var sim = new Simulation(5);
+        sim.run(4, 60);
+        assertThat(sim.controller.baselineMillis()).isEqualTo(2.0);
+
+        // за 120 шагов запросы тяжелеют с 2 до 5 мс без всякой очереди: это новая норма, а не перегрузка БД
+        sim.baseLatency = tick -> Math.min(5.0, 2.0 + 3.0 * (tick - 60) / 120);
+        List<Integer> shifting = sim.run(4, 160);
+
+        assertThat(shifting).allSatisfy(size -> assertThat(size).isGreaterThanOrEqualTo(4));
+        assertThat(sim.controller.baselineMillis()).isEqualTo(5.0);
+        List<Integer> high = sim.run(30, 40);
+        assertThat(tail(high, 20)).allSatisfy(size -> assertThat(size).isBetween(9, 10));
+    }
+
+    @Test
+    void degradedDatabase_shrinksPoolInsteadOfPilingOn() {
+        var sim = new Simulation(5);
+        sim.run(30, 30);
+        int healthy = sim.size;
+
+        sim.dbSlowdown = 2.0;
+        sim.run(30, 5);
+
+        assertThat(sim.size).isLessThan(healthy);
+    }
+
+    @Test
+    void sizeStaysWithinBounds() {
+        var props = new AdaptivePoolProperties();
+        props.setMaxSize(6);
+        var controller = new PoolSizeController(props);
+
+        int size = 6;
+        for (int i = 0; i < 20; i++) {
+            size = controller.decide(new PoolSizeController.Sample(size, size, 50, 20, 2.0, 0.1)).to();
+        }
+        assertThat(size).isEqualTo(6);
+
+        for (int i = 0; i < 50; i++) {
+            size = controller.decide(new PoolSizeController.Sample(size, 0, 0, 0, 2.0, 0.1)).to();
+        }
+        assertThat(size).isEqualTo(props.getMinSize());
+    }
+
+    @Test
+    void cpuSaturated_doesNotGrow() {
+        var controller = new PoolSizeController(new AdaptivePoolProperties());
+
+        var decision = controller.decide(new PoolSizeController.Sample(5, 5, 10, 20, 2.0, 0.95));
+
+        assertThat(decision.changed()).isFalse();
+    }
+
+    @Test
+    void baseline_doesNotLearnFromSaturatedLatency() {
+        var controller = new PoolSizeController(new AdaptivePoolProperties());
+        controller.decide(new PoolSizeController.Sample(5, 2, 0, 0, 2.0, 0.1));
+
+        for (int i = 0; i < 100; i++) {
+            controller.decide(new PoolSizeController.Sample(10, 10, 20, 30, 2.8, 0.3));
+        }
+
+        assertThat(controller.baselineMillis()).isEqualTo(2.0);
+    }
+
+    private static List<Integer> tail(List<Integer> values, int n) {
+        return values.subList(values.size() - n, values.size());
+    }
+
+    private static int max(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).max().orElseThrow();
+    }
+
+    private static int min(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).min().orElseThrow();
+    }
+
+    private static int directionChanges(List<Integer> sizes) {
+        int changes = 0;
+        int lastDirection = 0;
+        for (int i = 1; i < sizes.size(); i++) {
+            int direction = Integer.signum(sizes.get(i) - sizes.get(i - 1));
+            if (direction != 0) {
+                if (lastDirection != 0 && direction != lastDirection) {
+                    changes++;
+                }
+                lastDirection = direction;
+            }
+        }
+        return changes;
+    }
+}
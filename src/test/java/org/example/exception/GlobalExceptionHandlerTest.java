@@ -0,0 +1,67 @@
+package org.example.exception;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.ErrorProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GlobalExceptionHandlerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/projects/123");
+
+    private GlobalExceptionHandler handler(boolean stackTraces) {
+        var props = new ErrorProperties();
+        props.setStackTraces(stackTraces);
+        return new GlobalExceptionHandler(props, registry);
+    }
+
+    @AfterEach
+    void resetToggle() {
+        DomainException.captureStackTraces(false);
+    }
+
+    @Test
+    void domainExceptions_areStacklessByDefault() {
+        handler(false);
+
+        assertThat(NotFoundException.of("Project", 1L).getStackTrace()).isEmpty();
+        assertThat(ConflictException.of("Project", "dup").getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void stackTracesToggle_capturesStack() {
+        handler(true);
+
+        assertThat(NotFoundException.of("Project", 1L).getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    void handleNotFound_rendersBodyAndCountsByType() {
+        var handler = handler(false);
+
+        var response = handler.handleNotFound(NotFoundException.of("Project", 123L), request);
+        handler.handleNotFound(NotFoundException.of("Project", 124L), request);
+        handler.handleConflict(ConflictException.of("Project", "dup"), request);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+        assertThat(response.getBody().message()).isEqualTo("Project 123 not found");
+        assertThat(response.getBody().path()).isEqualTo("/api/projects/123");
+        assertThat(response.getBody().timestamp()).matches("\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z");
+        assertThat(registry.get("http.server.errors")
+                .tags("status", "404", "exception", "NotFoundException").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("http.server.errors")
+                .tags("status", "409", "exception", "ConflictException").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void timestamps_cachedPerSecond() {
+        assertThat(ErrorTimestamps.at(1_761_762_003L)).isEqualTo("2025-10-29T18:20:03Z");
+        assertThat(ErrorTimestamps.at(1_761_762_003L)).isSameAs(ErrorTimestamps.at(1_761_762_003L));
+        assertThat(ErrorTimestamps.at(1_761_762_004L)).isEqualTo("2025-10-29T18:20:04Z");
+    }
+}
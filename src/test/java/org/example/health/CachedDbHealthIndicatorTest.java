@@ -0,0 +1,88 @@
+package org.example.health;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.HealthProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CachedDbHealthIndicatorTest {
+
+    @Mock DataSource dataSource;
+    @Mock Connection connection;
+    @Mock DatabaseMetaData metaData;
+
+    HealthProperties props;
+    SimpleMeterRegistry registry;
+    CachedDbHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        props = new HealthProperties();
+        registry = new SimpleMeterRegistry();
+        indicator = new CachedDbHealthIndicator(dataSource, props, registry);
+    }
+
+    @Test
+    void health_beforeFirstSample_isDown() {
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        verifyNoInteractions(dataSource);
+    }
+
+    @Test
+    void health_servesCachedResult_withoutTouchingDatabase() throws Exception {
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        indicator.sample();
+        var first = indicator.health();
+        var second = indicator.health();
+
+        assertThat(first.getStatus()).isEqualTo(Status.UP);
+        assertThat(first.getDetails()).containsEntry("database", "PostgreSQL").containsKey("ageMs");
+        assertThat(second.getStatus()).isEqualTo(Status.UP);
+        verify(dataSource, times(1)).getConnection();
+        assertThat(registry.get("health.db.check").timer().count()).isEqualTo(1);
+        assertThat(registry.get("health.db.status").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void sample_connectionFailure_isDown() throws Exception {
+        when(dataSource.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        indicator.sample();
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(registry.get("health.db.status").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    void health_staleResult_isDown() throws Exception {
+        props.getDb().setMaxAge(Duration.ZERO);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(metaData.getDatabaseProductName()).thenReturn("PostgreSQL");
+
+        indicator.sample();
+        var health = indicator.health();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getDetails()).containsEntry("reason", "stale result").containsEntry("lastStatus", "UP");
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.mapper;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IsoTimestampFormatterTest {
+
+    private final IsoTimestampFormatter formatter = new IsoTimestampFormatter();
+
+    @Test
+    void format_dropsZeroSecondsAndPadsFraction_likeOffsetDateTime() {
+        assertThat(format(micros("2025-10-24T12:00:00Z"))).isEqualTo("2025-10-24T12:00Z");
+        assertThat(format(micros("2025-10-24T12:00:05Z"))).isEqualTo("2025-10-24T12:00:05Z");
+        assertThat(format(micros("2025-10-24T12:00:05.120Z"))).isEqualTo("2025-10-24T12:00:05.120Z");
+        assertThat(format(micros("2025-10-24T12:00:00.000001Z"))).isEqualTo("2025-10-24T12:00:00.000001Z");
+    }
+
+    @Test
+    void format_leapDayAndBeforeEpoch() {
+        assertThat(format(micros("2024-02-29T23:59:59.999999Z"))).isEqualTo("2024-02-29T23:59:59.999999Z");
+        assertThat(format(-1)).isEqualTo("1969-12-31T23:59:59.999999Z");
+        assertThat(format(micros("0001-01-01T00:00Z"))).isEqualTo("0001-01-01T00:00Z");
+    }
+
+    @Test
+    void format_yearOutsideFourDigits_fallsBackToToString() {
+        long micros = micros("+10000-01-01T00:00Z");
+        assertThat(format(micros)).isEqualTo(expected(micros));
+        assertThat(format(micros("-0001-12-31T00:00Z"))).isEqualTo("-0001-12-31T00:00Z");
+    }
+
+    @Test
+    void format_matchesOffsetDateTime_forRandomMoments() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 100_000; i++) {
+            long micros = random.nextLong(micros("1900-01-01T00:00Z"), micros("2200-01-01T00:00Z"));
+            // часть значений — ровно на миллисекунде или секунде, чтобы проверить обе длины дроби
+            if (i % 3 == 0) {
+                micros -= Math.floorMod(micros, 1000);
+            } else if (i % 3 == 1) {
+                micros -= Math.floorMod(micros, 1_000_000);
+            }
+            assertThat(format(micros)).isEqualTo(expected(micros));
+        }
+    }
+
+    private String format(long epochMicros) {
+        int length = formatter.format(epochMicros);
+        return new String(formatter.buffer(), 0, length);
+    }
+
+    private static long micros(String iso) {
+        Instant instant = OffsetDateTime.parse(iso).toInstant();
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    private static String expected(long epochMicros) {
+        Instant instant = Instant.ofEpochSecond(Math.floorDiv(epochMicros, 1_000_000L),
+                Math.floorMod(epochMicros, 1_000_000L) * 1000L);
+        return OffsetDateTime.ofInstant(instant, ZoneOffset.UTC).toString();
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.observability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ConnectionInfo;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import org.example.config.ConnectionProfilerProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ConnectionProfilerTest {
+
+    final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    final ConnectionProfiler profiler = new ConnectionProfiler(new ConnectionProfilerProperties(), registry);
+
+    final DataSource dataSource = mock(DataSource.class);
+    // Как в datasource-proxy: getConnection отдаёт прокси, а close приходит на реальное соединение пула
+    final Connection proxy = mock(Connection.class);
+    final Connection pooled = mock(Connection.class);
+    final ConnectionInfo info = connectionInfo("1");
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionName(null);
+    }
+
+    @Test
+    void acquireAndRelease_recordsWaitAndHold_outsideRequest() throws Exception {
+        acquire(info);
+        assertThat(profiler.openConnections()).isEqualTo(1);
+
+        release(info);
+
+        assertThat(profiler.openConnections()).isZero();
+        assertThat(registry.get("db.connection.acquire").tag("endpoint", Endpoints.UNMAPPED).timer().count())
+                .isEqualTo(1);
+        var hold = registry.get("db.connection.hold")
+                .tag("endpoint", Endpoints.UNMAPPED)
+                .tag("transaction", "none")
+                .timer();
+        assertThat(hold.count()).isEqualTo(1);
+        assertThat(hold.totalTime(TimeUnit.NANOSECONDS)).isPositive();
+    }
+
+    @Test
+    void closeOfUnknownConnection_isIgnored() throws Exception {
+        acquire(info);
+
+        release(connectionInfo("2"));
+
+        assertThat(profiler.openConnections()).isEqualTo(1);
+        assertThat(registry.find("db.connection.hold").timer()).isNull();
+    }
+
+    @Test
+    void firstQuery_tagsHoldWithTransactionName() throws Exception {
+        acquire(info);
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionName("org.example.service.ProjectServiceJpa.update");
+        var execution = new ExecutionInfo();
+        execution.setConnectionId(info.getConnectionId());
+        profiler.beforeQuery(execution, List.of());
+
+        release(info);
+
+        assertThat(registry.get("db.connection.hold").tag("transaction", "ProjectServiceJpa.update").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void shortName_keepsClassAndMethod() {
+        assertThat(ConnectionProfiler.shortName("org.example.service.ProjectServiceJpa.update"))
+                .isEqualTo("ProjectServiceJpa.update");
+        assertThat(ConnectionProfiler.shortName("update")).isEqualTo("update");
+        assertThat(ConnectionProfiler.shortName(null)).isEqualTo("none");
+    }
+
+    private void acquire(ConnectionInfo connection) throws Exception {
+        var getConnection = MethodExecutionContext.Builder.create()
+                .target(dataSource)
+                .method(DataSource.class.getMethod("getConnection"))
+                .result(proxy)
+                .connectionInfo(connection)
+                .build();
+        profiler.beforeMethod(getConnection);
+        profiler.afterMethod(getConnection);
+    }
+
+    private void release(ConnectionInfo connection) throws Exception {
+        var close = MethodExecutionContext.Builder.create()
+                .target(pooled)
+                .method(Connection.class.getMethod("close"))
+                .connectionInfo(connection)
+                .build();
+        profiler.beforeMethod(close);
+        profiler.afterMethod(close);
+    }
+
+    private static ConnectionInfo connectionInfo(String id) {
+        ConnectionInfo info = new ConnectionInfo();
+        info.setConnectionId(id);
+        return info;
+    }
+}
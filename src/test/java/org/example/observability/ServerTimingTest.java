@@ -0,0 +1,63 @@
+package org.example.observability;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServerTimingTest {
+
+    @AfterEach
+    void close() {
+        ServerTiming.close();
+        SqlStats.close();
+    }
+
+    @Test
+    void sqlInsideUserload_isNotCountedAgainInDb() {
+        SqlStats sql = SqlStats.open();
+        ServerTiming timing = ServerTiming.open(false);
+
+        ServerTiming.time(ServerTiming.Phase.USERLOAD, () -> {
+            sql.recordQuery("select * from users where email = ?", 3_000_000, 1);
+            return null;
+        });
+        sql.recordQuery("select * from projects", 5_000_000, 20);
+
+        assertThat(timing.phases()).containsKey(ServerTiming.Phase.USERLOAD);
+        assertThat(timing.phases()).containsEntry(ServerTiming.Phase.DB, 5_000_000L);
+    }
+
+    @Test
+    void onlyPhaseSql_noDbPhase() {
+        SqlStats sql = SqlStats.open();
+        ServerTiming timing = ServerTiming.open(false);
+
+        ServerTiming.time(ServerTiming.Phase.USERLOAD, () -> {
+            sql.recordQuery("select * from users where email = ?", 3_000_000, 1);
+            return null;
+        });
+
+        assertThat(timing.phases()).doesNotContainKey(ServerTiming.Phase.DB);
+    }
+
+    @Test
+    void failedAction_isStillTimed() {
+        ServerTiming timing = ServerTiming.open(false);
+
+        assertThatThrownBy(() -> ServerTiming.time(ServerTiming.Phase.AUTH, () -> {
+            busyWait();
+            throw new IllegalArgumentException("bad token");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(timing.phases()).containsKey(ServerTiming.Phase.AUTH);
+    }
+
+    private static void busyWait() {
+        long until = System.nanoTime() + 100_000;
+        while (System.nanoTime() < until) {
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.observability;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/** EXPLAIN медленного SQL на настоящем PostgreSQL: SQL из JDBC с "?", без значений параметров. */
+@SpringBootTest
+class SlowQueryLogIT {
+
+    @Autowired SlowQueryLog slowQueries;
+
+    @Test
+    void slowQuery_withPlaceholders_getsGenericPlan() {
+        String sql = "select p1_0.id, p1_0.name from projects p1_0 where lower(p1_0.name) like lower(?) escape '\\'"
+                + " order by p1_0.created_at desc offset ? rows fetch first ? rows only";
+
+        slowQueries.submit(new SlowQueryLog.Event(Instant.now(), sql, List.of("String", "Integer", "Integer"),
+                "GET /api/projects", 500, true));
+
+        String fingerprint = SqlText.fingerprint(sql);
+        await().untilAsserted(() -> assertThat(slowQueries.plans()).containsKey(fingerprint));
+        assertThat(slowQueries.plans().get(fingerprint).plan())
+                .doesNotStartWith("EXPLAIN failed")
+                .contains("projects");
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.observability;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlTextTest {
+
+    @Test
+    void normalize_stripsLiteralsAndCollapsesWhitespace() {
+        String sql = "select p1_0.id from projects p1_0\n  where p1_0.name = 'Secret' and p1_0.id > 42";
+
+        assertThat(SqlText.normalize(sql))
+                .isEqualTo("select p1_0.id from projects p1_0 where p1_0.name = ? and p1_0.id > ?");
+    }
+
+    @Test
+    void normalize_collapsesInLists() {
+        assertThat(SqlText.normalize("select * from users where id in (?, ?,?)"))
+                .isEqualTo("select * from users where id in (?...)");
+    }
+
+    @Test
+    void normalize_keepsEscapedQuotesInsideOneLiteral() {
+        assertThat(SqlText.normalize("select 1 from users where email = 'o''brien@example.com'"))
+                .isEqualTo("select ? from users where email = ?");
+    }
+
+    @Test
+    void fingerprint_sameShapeDifferentValues_isEqual() {
+        assertThat(SqlText.fingerprint("select * from projects where id = 1"))
+                .isEqualTo(SqlText.fingerprint("select *  from projects where id = 2"))
+                .hasSize(16);
+        assertThat(SqlText.fingerprint("select * from projects where id = 1"))
+                .isNotEqualTo(SqlText.fingerprint("select * from users where id = 1"));
+    }
+
+    @Test
+    void toPositional_numbersPlaceholders_outsideLiterals() {
+        assertThat(SqlText.toPositional("select * from t where a = ? and b = '?' and c like ? escape ?"))
+                .isEqualTo("select * from t where a = $1 and b = '?' and c like $2 escape $3");
+    }
+
+    @Test
+    void placeholderCount_ignoresQuestionMarksInLiterals() {
+        assertThat(SqlText.placeholderCount("select * from t where a = ? and b = '?' and c like ? escape ?"))
+                .isEqualTo(3);
+        assertThat(SqlText.placeholderCount("select 1")).isZero();
+    }
+}
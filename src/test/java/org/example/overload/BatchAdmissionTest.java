@@ -0,0 +1,122 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.BulkheadProperties;
+import org.example.config.ConcurrencyLimitProperties;
+import org.example.config.FairShareProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchAdmissionTest {
+
+    private final Authentication alice = UsernamePasswordAuthenticationToken.authenticated(
+            "alice", null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+
+    FairScheduler scheduler;
+    BatchAdmission admission;
+
+    private static BulkheadProperties.Lane lane(String name, int maxConcurrent, String... patterns) {
+        var lane = new BulkheadProperties.Lane();
+        lane.setName(name);
+        lane.setPatterns(List.of(patterns));
+        lane.setMaxConcurrent(maxConcurrent);
+        lane.setMaxWait(Duration.ofMillis(10));
+        return lane;
+    }
+
+    private static MockHttpServletRequest request(String method, String path, String size) {
+        var request = new MockHttpServletRequest(method, path);
+        if (size != null) {
+            request.setParameter("size", size);
+        }
+        return request;
+    }
+
+    @BeforeEach
+    void setUp() {
+        var registry = new SimpleMeterRegistry();
+        var fairShareProps = new FairShareProperties();
+        fairShareProps.setCapacity(32);
+        fairShareProps.setMaxInFlightPerPrincipal(32);
+        fairShareProps.setCostPageSize(100);
+        scheduler = new FairScheduler(fairShareProps);
+        var bulkheadProps = new BulkheadProperties();
+        bulkheadProps.setLanes(List.of(
+                lane("write", 1, "POST,PUT,PATCH,DELETE /api/**"),
+                lane("read", 4, "GET /api/**")));
+        admission = new BatchAdmission(
+                new ConcurrencyLimitFilter(new ConcurrencyLimitProperties(), new ObjectMapper(), registry),
+                new FairShareFilter(fairShareProps, scheduler, new ObjectMapper(), registry),
+                new Bulkheads(bulkheadProps, registry),
+                bulkheadProps);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Bulkheads.close();
+    }
+
+    @Test
+    void isBatch_onlyPostToBatchPath() {
+        assertThat(BatchAdmission.isBatch(request("POST", "/api/batch", null))).isTrue();
+        assertThat(BatchAdmission.isBatch(request("GET", "/api/batch", null))).isFalse();
+        assertThat(BatchAdmission.isBatch(request("POST", "/api/projects", null))).isFalse();
+    }
+
+    @Test
+    void subRequest_paysItsOwnCost_andRunsInItsOwnLane() {
+        try (var permit = admission.admit(request("GET", "/api/projects", "1000"), alice)) {
+            assertThat(permit.isGranted()).isTrue();
+            assertThat(Bulkheads.current().name()).isEqualTo("read");
+            assertThat(scheduler.inFlight()).isEqualTo(10);
+        }
+
+        assertThat(Bulkheads.current()).isNull();
+        assertThat(scheduler.inFlight()).isZero();
+    }
+
+    @Test
+    void atomicBatch_paysSumUpFront_andUsesWriteLaneIfAnySubRequestWrites() {
+        var subs = List.of(
+                request("GET", "/api/projects", "500"),
+                request("POST", "/api/projects", null),
+                request("GET", "/api/projects", "300"));
+
+        try (var permit = admission.admitAll(subs, alice)) {
+            assertThat(permit.isGranted()).isTrue();
+            assertThat(Bulkheads.current().name()).isEqualTo("write");
+            assertThat(scheduler.inFlight()).isEqualTo(5 + 1 + 3);
+        }
+
+        assertThat(scheduler.inFlight()).isZero();
+    }
+
+    @Test
+    void laneFull_rejectsWith503_andReturnsFairShareTicket() {
+        try (var held = admission.admit(request("PUT", "/api/projects/1", null), alice)) {
+            assertThat(held.isGranted()).isTrue();
+
+            try (var rejected = admission.admit(request("DELETE", "/api/projects/2", null), alice)) {
+                assertThat(rejected.isGranted()).isFalse();
+                assertThat(rejected.status()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                assertThat(rejected.reason()).contains("write");
+            }
+            assertThat(scheduler.inFlight()).isEqualTo(1);
+            // полоса удерживающего под-запроса в потоке не сброшена отказом
+            assertThat(Bulkheads.current().name()).isEqualTo("write");
+        }
+        assertThat(scheduler.inFlight()).isZero();
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.overload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.config.BulkheadProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.server.PathContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkheadsTest {
+
+    @Mock DataSource target;
+
+    SimpleMeterRegistry registry;
+    Bulkheads bulkheads;
+
+    private static BulkheadProperties.Lane lane(String name, int maxConnections, String... patterns) {
+        var lane = new BulkheadProperties.Lane();
+        lane.setName(name);
+        lane.setPatterns(List.of(patterns));
+        lane.setMaxConnections(maxConnections);
+        lane.setConnectionWait(Duration.ofMillis(10));
+        return lane;
+    }
+
+    @BeforeEach
+    void setUp() {
+        var props = new BulkheadProperties();
+        props.setLanes(List.of(
+                lane("auth", 0, "POST /api/auth/**"),
+                lane("write", 1, "POST,PUT,PATCH,DELETE /api/**"),
+                lane("read", 2, "GET /api/**")));
+        registry = new SimpleMeterRegistry();
+        bulkheads = new Bulkheads(props, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Bulkheads.close();
+    }
+
+    private String laneOf(String method, String path) {
+        Bulkheads.Lane lane = bulkheads.resolve(method, PathContainer.parsePath(path));
+        return lane == null ? null : lane.name();
+    }
+
+    @Test
+    void resolve_firstMatchingLaneWins() {
+        assertThat(laneOf("POST", "/api/auth/login")).isEqualTo("auth");
+        assertThat(laneOf("POST", "/api/projects")).isEqualTo("write");
+        assertThat(laneOf("DELETE", "/api/projects/7")).isEqualTo("write");
+        assertThat(laneOf("GET", "/api/projects")).isEqualTo("read");
+        assertThat(laneOf("GET", "/actuator/health")).isNull();
+    }
+
+    @Test
+    void connectionQuota_exhausted_throwsTransientException() throws SQLException {
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        var dataSource = new LaneDataSource(target);
+        Bulkheads.open(bulkheads.resolve("PUT", PathContainer.parsePath("/api/projects/1")));
+
+        Connection first = dataSource.getConnection();
+
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        assertThat(registry.get("bulkhead.connections.timeouts").tag("lane", "write").counter().count())
+                .isEqualTo(1);
+
+        first.close();
+        first.close(); // повторный close не возвращает разрешение дважды
+        Connection second = dataSource.getConnection();
+        assertThat(second).isNotNull();
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+    }
+
+    @Test
+    void connectionQuota_isPerLane() throws SQLException {
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        var dataSource = new LaneDataSource(target);
+
+        Bulkheads.open(bulkheads.resolve("POST", PathContainer.parsePath("/api/projects")));
+        dataSource.getConnection();
+        Bulkheads.open(bulkheads.resolve("GET", PathContainer.parsePath("/api/projects")));
+
+        assertThat(dataSource.getConnection()).isNotNull();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void noLaneOrNoQuota_notLimited() throws SQLException {
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+        var dataSource = new LaneDataSource(target);
+
+        for (int i = 0; i < 5; i++) {
+            dataSource.getConnection();
+        }
+        Bulkheads.open(bulkheads.resolve("POST", PathContainer.parsePath("/api/auth/login")));
+        for (int i = 0; i < 5; i++) {
+            dataSource.getConnection();
+        }
+
+        verify(target, times(10)).getConnection();
+    }
+
+    @Test
+    void statementConnection_isLaneProxy_soClosingItReleasesQuota() throws SQLException {
+        Connection pooled = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        when(target.getConnection()).thenReturn(pooled);
+        when(pooled.prepareStatement("select 1")).thenReturn(statement);
+        var dataSource = new LaneDataSource(target);
+        Bulkheads.open(bulkheads.resolve("PUT", PathContainer.parsePath("/api/projects/1")));
+
+        Connection connection = dataSource.getConnection();
+        PreparedStatement prepared = connection.prepareStatement("select 1");
+
+        assertThat(prepared.getConnection()).isSameAs(connection);
+        assertThat(prepared.unwrap(PreparedStatement.class)).isSameAs(statement);
+        prepared.getConnection().close();
+        verify(pooled).close();
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+
+    @Test
+    void checkQuotas_quotaNotBelowPoolSize_failsAtStartup() {
+        var lanes = List.of(lane("write", 4, "POST /api/**"), lane("read", 8, "GET /api/**"));
+
+        LaneDataSource.checkQuotas(lanes, 10);
+        assertThatThrownBy(() -> LaneDataSource.checkQuotas(lanes, 8))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("'read' max-connections=8");
+        // без квоты (0) — не проверяется
+        LaneDataSource.checkQuotas(List.of(lane("auth", 0, "POST /api/auth/**")), 1);
+    }
+
+    @Test
+    void failedAcquire_releasesQuota() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("boom")).thenAnswer(inv -> mock(Connection.class));
+        var dataSource = new LaneDataSource(target);
+        Bulkheads.open(bulkheads.resolve("PUT", PathContainer.parsePath("/api/projects/1")));
+
+        assertThatThrownBy(dataSource::getConnection).hasMessage("boom");
+
+        assertThat(dataSource.getConnection()).isNotNull();
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.overload;
+
+import org.example.exception.DeadlineExceededException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Внесение отказа: «медленная БД» через pg_sleep. Запрос должен упереться в свой дедлайн,
+ * SQL — отмениться на стороне PostgreSQL, а клиент — получить 503, а не висеть до конца pg_sleep.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(username = "deadline-it@example.com", roles = "USER")
+@Import(DeadlineFaultInjectionIT.SlowEndpoint.class)
+class DeadlineFaultInjectionIT {
+
+    /**
+     * Эндпоинт только для этого теста: бин объявлен здесь и подключается @Import. Сканированием
+     * компонентов ни конфигурация, ни контроллер не находятся (@TestConfiguration и классы внутри
+     * тестового класса Boot исключает), так что в контексты других тестов /api/test/slow не попадает.
+     */
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SlowEndpoint {
+
+        @Bean
+        SlowController slowController(JdbcTemplate jdbc) {
+            return new SlowController(jdbc);
+        }
+    }
+
+    /** Транзакция с SQL заданной длительности. */
+    @RestController
+    static class SlowController {
+        private final JdbcTemplate jdbc;
+
+        SlowController(JdbcTemplate jdbc) {
+            this.jdbc = jdbc;
+        }
+
+        @GetMapping("/api/test/slow")
+        @Transactional(readOnly = true)
+        public String slow(@RequestParam double seconds) {
+            jdbc.queryForList("SELECT pg_sleep(?)", seconds);
+            return "done";
+        }
+    }
+
+    @Autowired MockMvc mockMvc;
+    @Autowired JdbcTemplate jdbc;
+
+    @AfterEach
+    void closeDeadline() {
+        Deadline.close();
+    }
+
+    @Test
+    void slowQuery_pastDeadline_cancelledWith503() throws Exception {
+        long start = System.nanoTime();
+
+        mockMvc.perform(get("/api/test/slow").param("seconds", "10").header("X-Request-Timeout", "1s"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists("Retry-After"))
+                .andExpect(jsonPath("$.message").value("Request deadline exceeded"));
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(4));
+    }
+
+    @Test
+    void subSecondDeadline_cancelledByWatchdog_beforeJdbcTimeout() throws Exception {
+        long start = System.nanoTime();
+
+        mockMvc.perform(get("/api/test/slow").param("seconds", "10").header("X-Request-Timeout", "200ms"))
+                .andExpect(status().isServiceUnavailable());
+
+        // JDBC-таймаут округляется до секунды; раньше неё запрос снимает сторож
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(950));
+    }
+
+    @Test
+    void fastQuery_withinDeadline_succeeds() throws Exception {
+        mockMvc.perform(get("/api/test/slow").param("seconds", "0.05").header("X-Request-Timeout", "2s"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void expiredDeadline_sqlIsNotSent() throws InterruptedException {
+        Deadline.open(Duration.ofMillis(1));
+        Thread.sleep(5);
+
+        assertThatThrownBy(() -> jdbc.queryForList("SELECT 1")).isInstanceOf(DeadlineExceededException.class);
+    }
+}
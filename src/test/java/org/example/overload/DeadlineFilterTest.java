@@ -0,0 +1,63 @@
+package org.example.overload;
+
+import org.example.config.DeadlineProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DeadlineFilterTest {
+
+    private static DeadlineFilter filter() {
+        var props = new DeadlineProperties();
+        props.setDefaultTimeout(Duration.ofSeconds(10));
+        props.setMaxTimeout(Duration.ofSeconds(30));
+        Map<String, Duration> endpoints = new LinkedHashMap<>();
+        endpoints.put("GET /api/projects", Duration.ofSeconds(3));
+        props.setEndpoints(endpoints);
+        return new DeadlineFilter(props);
+    }
+
+    private static MockHttpServletRequest request(String method, String uri, String header) {
+        var request = new MockHttpServletRequest(method, uri);
+        if (header != null) {
+            request.addHeader("X-Request-Timeout", header);
+        }
+        return request;
+    }
+
+    @Test
+    void timeoutFor_endpointRule_thenDefault() {
+        var filter = filter();
+
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", null))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(filter.timeoutFor(request("POST", "/api/projects", null))).isEqualTo(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void timeoutFor_headerOverridesRule() {
+        var filter = filter();
+
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "1500"))).isEqualTo(Duration.ofMillis(1500));
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "750ms"))).isEqualTo(Duration.ofMillis(750));
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "5s"))).isEqualTo(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void timeoutFor_headerCappedAtMax() {
+        assertThat(filter().timeoutFor(request("GET", "/api/projects", "1h"))).isEqualTo(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void timeoutFor_garbageOrNonPositiveHeader_ignored() {
+        var filter = filter();
+
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "soon"))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "0"))).isEqualTo(Duration.ofSeconds(3));
+        assertThat(filter.timeoutFor(request("GET", "/api/projects", "-5s"))).isEqualTo(Duration.ofSeconds(3));
+    }
+}
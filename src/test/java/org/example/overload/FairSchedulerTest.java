@@ -0,0 +1,124 @@
+package org.example.overload;
+
+import org.example.config.FairShareProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FairSchedulerTest {
+
+    private static FairShareProperties props(int capacity) {
+        var props = new FairShareProperties();
+        props.setCapacity(capacity);
+        props.setMaxInFlightPerPrincipal(capacity);
+        return props;
+    }
+
+    /** Освобождает занятое по одному и записывает, чей билет выдан следующим. */
+    private static List<String> drain(FairScheduler scheduler, FairScheduler.Ticket running,
+                                      List<FairScheduler.Ticket> waiting) {
+        List<String> order = new ArrayList<>();
+        List<FairScheduler.Ticket> pending = new ArrayList<>(waiting);
+        FairScheduler.Ticket current = running;
+        while (!pending.isEmpty()) {
+            scheduler.release(current);
+            current = pending.stream().filter(FairScheduler.Ticket::isGranted).findFirst().orElseThrow();
+            pending.remove(current);
+            order.add(current.principal);
+        }
+        return order;
+    }
+
+    @Test
+    void noContention_grantedImmediately() {
+        var scheduler = new FairScheduler(props(4));
+
+        var ticket = scheduler.submit("a", 1, 1);
+
+        assertThat(ticket.isGranted()).isTrue();
+        assertThat(scheduler.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    void heavyUser_doesNotStarveOthers() {
+        var scheduler = new FairScheduler(props(1));
+        var running = scheduler.submit("hammer", 1, 1);
+        List<FairScheduler.Ticket> waiting = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            waiting.add(scheduler.submit("hammer", 1, 1));
+        }
+        waiting.add(scheduler.submit("alice", 1, 1));
+        waiting.add(scheduler.submit("bob", 1, 1));
+
+        List<String> order = drain(scheduler, running, waiting);
+
+        // alice и bob обслуживаются в первом же круге, а не после шести запросов hammer
+        assertThat(order.subList(0, 3)).containsExactlyInAnyOrder("hammer", "alice", "bob");
+    }
+
+    @Test
+    void weight_givesProportionalShare() {
+        var scheduler = new FairScheduler(props(1));
+        var running = scheduler.submit("user", 1, 1);
+        List<FairScheduler.Ticket> waiting = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            waiting.add(scheduler.submit("admin", 2, 1));
+            waiting.add(scheduler.submit("user", 1, 1));
+        }
+
+        List<String> first6 = drain(scheduler, running, waiting).subList(0, 6);
+
+        assertThat(first6.stream().filter("admin"::equals).count()).isEqualTo(4);
+    }
+
+    @Test
+    void expensiveRequest_needsMoreRounds() {
+        var scheduler = new FairScheduler(props(4));
+        var running = scheduler.submit("x", 1, 4);
+        var big = scheduler.submit("big", 1, 4);
+        List<FairScheduler.Ticket> small = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            small.add(scheduler.submit("small", 1, 1));
+        }
+
+        scheduler.release(running);
+
+        // дефицит big ещё не накоплен — сначала проходят дешёвые запросы small
+        assertThat(small).allMatch(FairScheduler.Ticket::isGranted);
+        assertThat(big.isGranted()).isFalse();
+    }
+
+    @Test
+    void perPrincipalQueueLimit_rejects() {
+        var props = props(1);
+        props.setMaxQueuedPerPrincipal(2);
+        var scheduler = new FairScheduler(props);
+        scheduler.submit("a", 1, 1);
+        scheduler.submit("a", 1, 1);
+        scheduler.submit("a", 1, 1);
+
+        var rejected = scheduler.submit("a", 1, 1);
+
+        assertThat(rejected.isGranted()).isFalse();
+        assertThat(rejected.rejection()).isEqualTo(FairScheduler.Rejection.PRINCIPAL_QUEUE_FULL);
+        assertThat(scheduler.submit("b", 1, 1).rejection()).isNull();
+    }
+
+    @Test
+    void timeout_removesTicketAndEmptyQueue() throws InterruptedException {
+        var scheduler = new FairScheduler(props(1));
+        scheduler.submit("a", 1, 1);
+        var waiting = scheduler.submit("b", 1, 1);
+
+        boolean granted = scheduler.await(waiting, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(granted).isFalse();
+        assertThat(waiting.rejection()).isEqualTo(FairScheduler.Rejection.TIMEOUT);
+        assertThat(scheduler.queued()).isZero();
+        assertThat(scheduler.activeFlows()).isZero();
+    }
+}
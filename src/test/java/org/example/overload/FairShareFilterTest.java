@@ -0,0 +1,157 @@
+package org.example.overload;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.example.config.ConcurrencyLimitProperties;
+import org.example.config.FairShareProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** FairShareFilter за ConcurrencyLimitFilter, как в security-цепочке (между ними — проверка JWT). */
+class FairShareFilterTest {
+
+    private static final int LIMIT = 10;
+    private static final int PER_PRINCIPAL = 2;
+
+    SimpleMeterRegistry registry;
+    FairScheduler scheduler;
+    ConcurrencyLimitFilter limiter;
+    FairShareFilter fairShare;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        var limitProps = new ConcurrencyLimitProperties();
+        limitProps.setInitialLimit(LIMIT);
+        limitProps.setMinLimit(LIMIT);
+        limitProps.setDefaultShare(1.0);
+        var fairShareProps = new FairShareProperties();
+        fairShareProps.setMaxInFlightPerPrincipal(PER_PRINCIPAL);
+        fairShareProps.setQueueTimeout(Duration.ofSeconds(5));
+        scheduler = new FairScheduler(fairShareProps);
+        limiter = new ConcurrencyLimitFilter(limitProps, new ObjectMapper(), registry);
+        fairShare = new FairShareFilter(fairShareProps, scheduler, new ObjectMapper(), registry);
+    }
+
+    private static Authentication user(String name) {
+        return UsernamePasswordAuthenticationToken.authenticated(name, null, AuthorityUtils.createAuthorityList("ROLE_USER"));
+    }
+
+    private int status(Authentication auth, FilterChain handler) throws Exception {
+        var request = new MockHttpServletRequest("GET", "/api/projects");
+        var response = new MockHttpServletResponse();
+        try {
+            limiter.doFilter(request, response, (rq, rs) -> {
+                SecurityContextHolder.getContext().setAuthentication(auth);
+                fairShare.doFilter(rq, rs, handler);
+            });
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private double limiterInflight() {
+        return registry.get("http.server.concurrency.inflight").gauge().value();
+    }
+
+    @Test
+    void floodingUser_queuesWithoutHoldingLimiterSlots_otherUserStillServed() throws Exception {
+        var release = new CountDownLatch(1);
+        FilterChain blocking = (rq, rs) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        // больше лимита: с очередью внутри лимита половина flood и alice получили бы 503
+        int flood = LIMIT + 5;
+        ExecutorService pool = Executors.newFixedThreadPool(flood);
+        try {
+            List<CompletableFuture<Integer>> flooded = new ArrayList<>();
+            for (int i = 0; i < flood; i++) {
+                flooded.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return status(user("flood"), blocking);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }, pool));
+            }
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (scheduler.queued() < flood - PER_PRINCIPAL && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(scheduler.queued()).isEqualTo(flood - PER_PRINCIPAL);
+            // в лимите только выполняющиеся запросы, ждущие в очереди слот отдали
+            assertThat(limiterInflight()).isEqualTo(PER_PRINCIPAL);
+
+            var served = new CountDownLatch(1);
+            assertThat(status(user("alice"), (rq, rs) -> served.countDown())).isEqualTo(200);
+            assertThat(served.getCount()).isZero();
+
+            release.countDown();
+            for (var f : flooded) {
+                assertThat(f.get(10, TimeUnit.SECONDS)).isEqualTo(200);
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        assertThat(limiterInflight()).isZero();
+        assertThat(scheduler.inFlight()).isZero();
+        assertThat(registry.get("http.server.shed").counters()).allMatch(c -> c.count() == 0);
+    }
+
+    @Test
+    void limiterFullAfterQueueWait_rejects503_andReturnsTicket() throws Exception {
+        // alice уже выполняет свои PER_PRINCIPAL запросов — следующий встанет в очередь
+        List<FairScheduler.Ticket> running = new ArrayList<>();
+        for (int i = 0; i < PER_PRINCIPAL; i++) {
+            running.add(scheduler.submit("alice", 1, 1));
+        }
+        var queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return status(user("alice"), (rq, rs) -> { });
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (scheduler.queued() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(scheduler.queued()).isEqualTo(1);
+
+        // пока запрос ждал, весь лимит заняли другие
+        for (int i = 0; i < LIMIT; i++) {
+            assertThat(limiter.tryEnter(new MockHttpServletRequest("GET", "/api/projects"))).isTrue();
+        }
+        scheduler.release(running.get(0));
+
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isEqualTo(503);
+        assertThat(scheduler.inFlight()).isEqualTo(PER_PRINCIPAL - 1);
+        assertThat(limiterInflight()).isEqualTo(LIMIT);
+        scheduler.release(running.get(1));
+        assertThat(scheduler.inFlight()).isZero();
+    }
+}
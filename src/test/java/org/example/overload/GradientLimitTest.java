@@ -0,0 +1,92 @@
+package org.example.overload;
+
+import org.example.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+
+    private static final long WINDOW = Duration.ofSeconds(1).toNanos();
+    private static final long MS = 1_000_000;
+
+    private long now;
+
+    /** Одно окно: samples замеров с заданной латентностью и in-flight, в конце — замер, закрывающий окно. */
+    private void window(GradientLimit limit, long rttNanos, int inflight) {
+        for (int i = 0; i < 20; i++) {
+            limit.onSample(rttNanos, inflight, now + i);
+        }
+        now += WINDOW;
+        limit.onSample(rttNanos, inflight, now);
+    }
+
+    @Test
+    void stableLatency_underLoad_growsLimit() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties(), now);
+
+        for (int i = 0; i < 10; i++) {
+            window(limit, 10 * MS, limit.limit());
+        }
+
+        assertThat(limit.limit()).isGreaterThan(50);
+    }
+
+    @Test
+    void latencyBeyondTolerance_shrinksLimit() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties(), now);
+        window(limit, 10 * MS, 50);
+        int before = limit.limit();
+
+        for (int i = 0; i < 5; i++) {
+            window(limit, 40 * MS, limit.limit());
+        }
+
+        assertThat(limit.limit()).isLessThan(before);
+    }
+
+    @Test
+    void appLimited_doesNotGrow() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties(), now);
+
+        for (int i = 0; i < 10; i++) {
+            window(limit, 10 * MS, 5);
+        }
+
+        assertThat(limit.limit()).isEqualTo(50);
+        assertThat(limit.longRttNanos()).isEqualTo(10.0 * MS);
+    }
+
+    @Test
+    void staysWithinBounds() {
+        var props = new ConcurrencyLimitProperties();
+        props.setMaxLimit(60);
+        props.setMinLimit(30);
+        var limit = new GradientLimit(props, now);
+
+        for (int i = 0; i < 50; i++) {
+            window(limit, 10 * MS, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(60);
+
+        for (int i = 0; i < 20; i++) {
+            window(limit, 500 * MS, limit.limit());
+        }
+        assertThat(limit.limit()).isEqualTo(30);
+    }
+
+    @Test
+    void tooFewSamples_windowSkipped() {
+        var limit = new GradientLimit(new ConcurrencyLimitProperties(), now);
+
+        for (int i = 0; i < 5; i++) {
+            now += WINDOW;
+            limit.onSample(10 * MS, 50, now);
+        }
+
+        assertThat(limit.longRttNanos()).isZero();
+        assertThat(limit.limit()).isEqualTo(50);
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.overload;
+
+import org.example.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PriorityClassesTest {
+
+    private static PriorityClasses classes() {
+        var critical = new ConcurrencyLimitProperties.PriorityClass();
+        critical.setName("critical");
+        critical.setShare(1.0);
+        critical.setPatterns(List.of("/actuator/health/**", "/api/auth/**"));
+
+        var bulk = new ConcurrencyLimitProperties.PriorityClass();
+        bulk.setName("bulk");
+        bulk.setShare(0.5);
+        bulk.setPatterns(List.of("get /api/projects"));
+
+        var props = new ConcurrencyLimitProperties();
+        props.setPriorities(List.of(critical, bulk));
+        return new PriorityClasses(props);
+    }
+
+    @Test
+    void resolve_matchesPathPatterns() {
+        var classes = classes();
+
+        assertThat(classes.resolve("GET", "/actuator/health/readiness").name()).isEqualTo("critical");
+        assertThat(classes.resolve("POST", "/api/auth/login").name()).isEqualTo("critical");
+    }
+
+    @Test
+    void resolve_methodPrefix_restrictsMatch() {
+        var classes = classes();
+
+        assertThat(classes.resolve("GET", "/api/projects").share()).isEqualTo(0.5);
+        assertThat(classes.resolve("POST", "/api/projects").name()).isEqualTo(PriorityClasses.DEFAULT);
+        assertThat(classes.resolve("GET", "/api/projects/1").name()).isEqualTo(PriorityClasses.DEFAULT);
+    }
+
+    @Test
+    void all_listsEachClassOnceWithDefaultLast() {
+        assertThat(classes().all()).extracting(PriorityClasses.Priority::name)
+                .containsExactly("critical", "bulk", PriorityClasses.DEFAULT);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.repository;
+
+import org.example.dto.ProjectField;
+import org.example.support.QueryPlanAssert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Регрессия планов: каждый «горячий» запрос репозиториев должен идти по своему индексу.
+ * Если запрос перепишут так, что индекс перестанет подходить (например, upper() вместо lower()),
+ * тест упадёт с планами всех выполненных SQL в сообщении.
+ */
+@SpringBootTest
+class RepositoryQueryPlanIT {
+
+    private static final String PREFIX = "plan-it-";
+
+    @Autowired UserRepository users;
+    @Autowired ProjectRepository projects;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager txManager;
+
+    QueryPlanAssert plans;
+
+    @BeforeEach
+    void seed() {
+        plans = new QueryPlanAssert(jdbc, txManager);
+        cleanup();
+        jdbc.update("""
+                INSERT INTO users (email, password_hash, role, created_at)
+                SELECT '%s' || g || '@example.com', 'x', 'USER', now()
+                FROM generate_series(1, 500) g
+                """.formatted(PREFIX));
+        jdbc.update("""
+                INSERT INTO projects (name, description, created_at)
+                SELECT '%s' || g, 'seeded', now() - g * interval '1 minute'
+                FROM generate_series(1, 500) g
+                """.formatted(PREFIX));
+        jdbc.execute("ANALYZE users");
+        jdbc.execute("ANALYZE projects");
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbc.update("DELETE FROM users WHERE email LIKE ?", PREFIX + "%");
+        jdbc.update("DELETE FROM projects WHERE name LIKE ?", PREFIX + "%");
+    }
+
+    @Test
+    void findByEmailIgnoreCase_usesEmailIndex() {
+        plans.assertUsesIndex(() -> users.findByEmailIgnoreCase("Plan-IT-42@Example.com"), "ux_users_email_ci");
+    }
+
+    @Test
+    void existsByEmailIgnoreCase_usesEmailIndex() {
+        plans.assertUsesIndex(() -> users.existsByEmailIgnoreCase("PLAN-IT-7@EXAMPLE.COM"), "ux_users_email_ci");
+    }
+
+    @Test
+    void existsByNameIgnoreCase_usesNameIndex() {
+        plans.assertUsesIndex(() -> projects.existsByNameIgnoreCase("Plan-IT-3"), "ux_projects_name_ci");
+    }
+
+    @Test
+    void existsByNameIgnoreCaseAndIdNot_usesNameIndex() {
+        plans.assertUsesIndex(() -> projects.existsByNameIgnoreCaseAndIdNot("Plan-IT-3", 1L), "ux_projects_name_ci");
+    }
+
+    @Test
+    void findByNameContainingIgnoreCase_usesTrigramIndex() {
+        plans.assertUsesIndex(() -> projects.findByNameContainingIgnoreCase("it-4", PageRequest.of(0, 20)),
+                "idx_projects_name_trgm");
+    }
+
+    @Test
+    void findAll_sortedByCreatedAt_usesCreatedAtIndex() {
+        plans.assertUsesIndex(
+                () -> projects.findAll(PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))),
+                "idx_projects_created_at");
+    }
+
+    @Test
+    void findFields_withNameFilter_usesTrigramIndex() {
+        plans.assertUsesIndex(
+                () -> projects.findFields(EnumSet.of(ProjectField.ID, ProjectField.NAME), "it-4", PageRequest.of(0, 20)),
+                "idx_projects_name_trgm");
+    }
+
+    @Test
+    void findFields_selectsOnlyRequestedColumns() {
+        Map<String, Set<String>> bySql = plans.indexesBySql(() -> projects.findFields(
+                EnumSet.of(ProjectField.ID, ProjectField.NAME), null,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt"))));
+
+        assertThat(bySql.keySet()).anySatisfy(sql -> {
+            String selectList = sql.substring(0, sql.toLowerCase().indexOf(" from "));
+            assertThat(selectList).contains("name").doesNotContain("description").doesNotContain("created_at");
+        });
+        assertThat(bySql.values()).anySatisfy(used -> assertThat(used).contains("idx_projects_created_at"));
+    }
+}
@@ -4,18 +4,23 @@ import org.example.domain.Project;
 import org.example.dto.ProjectCreateDto;
 import org.example.dto.ProjectReadDto;
 import org.example.dto.ProjectUpdateDto;
+import org.example.exception.BadRequestException;
 import org.example.exception.ConflictException;
 import org.example.exception.NotFoundException;
 import org.example.repository.ProjectRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.*;
 
 import jakarta.persistence.EntityManager;
+import java.sql.SQLException;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.List;
@@ -35,6 +40,9 @@ class ProjectServiceJpaTest {
     @Mock
     EntityManager em;
 
+    @Mock
+    ApplicationEventPublisher events;
+
     @InjectMocks
     ProjectServiceJpa service;
 
@@ -128,27 +136,70 @@ class ProjectServiceJpaTest {
                 .hasMessageContaining("Project 999 not found");
     }
 
+    /* ===================== findByIds ===================== */
+
+    private static Project project(long id, String name) {
+        var p = new Project();
+        setField(p, "id", id);
+        p.setName(name);
+        p.setDescription("x");
+        p.setCreatedAt(OffsetDateTime.parse("2025-10-24T08:00:00Z"));
+        return p;
+    }
+
+    @Test
+    void findByIds_singleQuery_requestOrder_dedupedIds_andMissing() {
+        when(repo.findAllByIdArray(new Long[] { 3L, 1L, 2L }))
+                .thenReturn(List.of(project(1L, "A"), project(3L, "C")));
+
+        var batch = service.findByIds(List.of(3L, 1L, 3L, 2L));
+
+        verify(repo, times(1)).findAllByIdArray(any());
+        assertThat(batch.items()).extracting(ProjectReadDto::name).containsExactly("C", "A");
+        assertThat(batch.missing()).containsExactly(2L);
+    }
+
+    @Test
+    void findByIds_overLimit_throwsBadRequest_withoutQuery() {
+        setField(service, "maxBatchIds", 2);
+
+        assertThatThrownBy(() -> service.findByIds(List.of(1L, 2L, 3L)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageContaining("max 2");
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void findByIds_empty_noQuery() {
+        var batch = service.findByIds(List.of());
+
+        assertThat(batch.items()).isEmpty();
+        assertThat(batch.missing()).isEmpty();
+        verifyNoInteractions(repo);
+    }
+
     /* ===================== update ===================== */
 
     @Test
-    void update_ok_changesFields_andReturnsDto() {
-        var existing = new Project();
-        setField(existing, "id", 10L);
-        existing.setName("Old");
-        existing.setDescription("d1");
-        existing.setCreatedAt(OffsetDateTime.parse("2025-10-24T14:00:00Z"));
+    void update_ok_singleUpdateReturning_andReturnsDto() {
+        var updated = new Project();
+        setField(updated, "id", 10L);
+        updated.setName("New");
+        updated.setDescription("d2");
+        updated.setCreatedAt(OffsetDateTime.parse("2025-10-24T14:00:00Z"));
 
-        when(repo.findById(10L)).thenReturn(Optional.of(existing));
-        when(repo.existsByNameIgnoreCaseAndIdNot("New", 10L)).thenReturn(false);
+        when(repo.updateReturning(10L, "New", "d2")).thenReturn(Optional.of(updated));
 
         var dto = new ProjectUpdateDto();
-        setField(dto, "name", "New");
+        setField(dto, "name", "  New ");
         setField(dto, "description", "d2");
 
         ProjectReadDto res = service.update(10L, dto);
 
-        verify(repo).findById(10L);
-        verify(repo).existsByNameIgnoreCaseAndIdNot("New", 10L);
+        verify(repo).updateReturning(10L, "New", "d2");
+        verify(repo, never()).findById(any());
+        verify(repo, never()).existsByNameIgnoreCaseAndIdNot(any(), any());
+        verify(events).publishEvent(any(ProjectsChanged.class));
 
         assertThat(res.id()).isEqualTo(10L);
         assertThat(res.name()).isEqualTo("New");
@@ -159,7 +210,7 @@ class ProjectServiceJpaTest {
 
     @Test
     void update_notFound_throws404() {
-        when(repo.findById(10L)).thenReturn(Optional.empty());
+        when(repo.updateReturning(10L, "New", "d2")).thenReturn(Optional.empty());
 
         var dto = new ProjectUpdateDto();
         setField(dto, "name", "New");
@@ -167,17 +218,15 @@ class ProjectServiceJpaTest {
 
         assertThatThrownBy(() -> service.update(10L, dto))
                 .isInstanceOf(NotFoundException.class);
+        verifyNoInteractions(events);
     }
 
     @Test
     void update_conflictName_throws409() {
-        var existing = new Project();
-        setField(existing, "id", 10L);
-        existing.setName("Old");
-        existing.setDescription("d1");
-        when(repo.findById(10L)).thenReturn(Optional.of(existing));
-
-        when(repo.existsByNameIgnoreCaseAndIdNot("Alpha", 10L)).thenReturn(true);
+        var violation = new DataIntegrityViolationException("duplicate key",
+                new ConstraintViolationException("duplicate key", new SQLException("dup"),
+                        ProjectServiceJpa.NAME_UNIQUE_INDEX));
+        when(repo.updateReturning(10L, "Alpha", "d2")).thenThrow(violation);
 
         var dto = new ProjectUpdateDto();
         setField(dto, "name", "Alpha");
@@ -188,25 +237,41 @@ class ProjectServiceJpaTest {
                 .hasMessageContaining("already exists");
     }
 
+    @Test
+    void update_otherIntegrityViolation_isNotMappedTo409() {
+        var violation = new DataIntegrityViolationException("value too long",
+                new ConstraintViolationException("value too long", new SQLException("x"), null));
+        when(repo.updateReturning(10L, "Alpha", "d2")).thenThrow(violation);
+
+        var dto = new ProjectUpdateDto();
+        setField(dto, "name", "Alpha");
+        setField(dto, "description", "d2");
+
+        assertThatThrownBy(() -> service.update(10L, dto))
+                .isSameAs(violation);
+    }
+
     /* ===================== delete ===================== */
 
     @Test
-    void delete_ok_callsRepoDelete() {
-        when(repo.existsById(5L)).thenReturn(true);
+    void delete_ok_singleDeleteStatement() {
+        when(repo.deleteByIdReturningCount(5L)).thenReturn(1);
 
         service.delete(5L);
 
-        verify(repo).existsById(5L);
-        verify(repo).deleteById(5L);
+        verify(repo).deleteByIdReturningCount(5L);
+        verify(repo, never()).existsById(any());
+        verify(repo, never()).deleteById(any());
+        verify(events).publishEvent(any(ProjectsChanged.class));
     }
 
     @Test
     void delete_notFound_throws404() {
-        when(repo.existsById(5L)).thenReturn(false);
+        when(repo.deleteByIdReturningCount(5L)).thenReturn(0);
 
         assertThatThrownBy(() -> service.delete(5L))
                 .isInstanceOf(NotFoundException.class);
-        verify(repo, never()).deleteById(any());
+        verifyNoInteractions(events);
     }
 
     /* ===================== findPage (с фильтром / без) ===================== */
@@ -0,0 +1,115 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    @Test
+    void concurrentCalls_sameKey_shareOneLoad() throws Exception {
+        AtomicInteger coalesced = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        var flight = new SingleFlight<String, String>(coalesced::incrementAndGet);
+
+        int callers = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(pool.submit(() -> flight.execute("k", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+
+            // ждём, пока все, кроме лидера, присоединятся
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalesced.get() < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            for (Future<String> f : results) {
+                assertThat(f.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(coalesced.get()).isEqualTo(callers - 1);
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void sequentialCalls_areNotCoalesced() {
+        AtomicInteger coalesced = new AtomicInteger();
+        AtomicInteger loads = new AtomicInteger();
+        var flight = new SingleFlight<String, Integer>(coalesced::incrementAndGet);
+
+        flight.execute("k", loads::incrementAndGet);
+        flight.execute("k", loads::incrementAndGet);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(coalesced.get()).isZero();
+    }
+
+    @Test
+    void leaderFailure_isRethrown_andKeyIsReleased() {
+        var flight = new SingleFlight<String, String>(() -> { });
+
+        assertThatThrownBy(() -> flight.execute("k", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("boom");
+
+        assertThat(flight.inFlightCount()).isZero();
+        assertThat(flight.execute("k", () -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void afterForget_newCallStartsOwnLoad_insteadOfJoiningOlderOne() throws Exception {
+        AtomicInteger coalesced = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var flight = new SingleFlight<String, String>(coalesced::incrementAndGet);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            // чтение началось до записи
+            Future<String> before = pool.submit(() -> flight.execute("k", () -> {
+                started.countDown();
+                await(release);
+                return "before write";
+            }));
+            assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+            flight.forgetInFlight();
+
+            assertThat(flight.execute("k", () -> "after write")).isEqualTo("after write");
+            release.countDown();
+            assertThat(before.get(5, TimeUnit.SECONDS)).isEqualTo("before write");
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        assertThat(coalesced.get()).isZero();
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.observability.GenericPlan;
+import org.example.observability.SqlStats;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Проверка планов запросов репозиториев:
+ * {@code plans.assertUsesIndex(() -> repo.findByEmailIgnoreCase("a@b.c"), "ux_users_email_ci")}.
+ *
+ * Выполняет действие, забирает SQL, который реально ушёл в JDBC (через SqlStats — нужен
+ * app.sql-stats.enabled=true), и для каждого statement делает
+ * generic-план в JSON ({@link GenericPlan}: значения параметров не нужны) с выключенным seq scan:
+ * на маленькой тестовой таблице планировщик честно выбрал бы seq scan, а так он берёт
+ * индекс всегда, когда индекс вообще применим к запросу.
+ */
+public final class QueryPlanAssert {
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final ObjectMapper json = new ObjectMapper();
+
+    public QueryPlanAssert(JdbcTemplate jdbc, PlatformTransactionManager txManager) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+    }
+
+    /** Хотя бы один SQL, выполненный action, использует индекс index. */
+    public void assertUsesIndex(Runnable action, String index) {
+        Map<String, Set<String>> plans = indexesBySql(action);
+        assertThat(plans).as("no SQL captured").isNotEmpty();
+        assertThat(plans.values().stream().anyMatch(used -> used.contains(index)))
+                .as("expected index %s, plans used: %s", index, plans)
+                .isTrue();
+    }
+
+    /** SQL, выполненные action → имена индексов в их планах. */
+    public Map<String, Set<String>> indexesBySql(Runnable action) {
+        Map<String, Set<String>> result = new LinkedHashMap<>();
+        for (String sql : capture(action)) {
+            result.put(sql, indexesUsed(sql));
+        }
+        return result;
+    }
+
+    public Set<String> indexesUsed(String sql) {
+        String plan = tx.execute(status -> {
+            jdbc.execute("SET LOCAL enable_seqscan = off");
+            return jdbc.execute((ConnectionCallback<String>) c ->
+                    String.join("\n", GenericPlan.explain(c, sql, "(FORMAT JSON)")));
+        });
+        try {
+            Set<String> indexes = new LinkedHashSet<>();
+            collectIndexes(json.readTree(plan).get(0).get("Plan"), indexes);
+            return indexes;
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot parse plan for: " + sql, e);
+        }
+    }
+
+    private static List<String> capture(Runnable action) {
+        SqlStats stats = SqlStats.open();
+        try {
+            action.run();
+            return new ArrayList<>(stats.queries());
+        } finally {
+            SqlStats.close();
+        }
+    }
+
+    private static void collectIndexes(JsonNode node, Set<String> into) {
+        if (node == null) {
+            return;
+        }
+        if (node.hasNonNull("Index Name")) {
+            into.add(node.get("Index Name").asText());
+        }
+        JsonNode children = node.get("Plans");
+        if (children != null) {
+            children.forEach(child -> collectIndexes(child, into));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.support;
+
+import org.example.observability.SqlStatsFilter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ResultMatcher'ы для MockMvc по заголовку X-SQL-Stats:
+ * {@code .andExpect(SqlStatsMatchers.statementsAtMost(2))}.
+ * Требует app.sql-stats.expose-header=true (по умолчанию выключен — тест включает сам:
+ * {@code @SpringBootTest(properties = SqlStatsMatchers.EXPOSE_HEADER)}).
+ */
+public final class SqlStatsMatchers {
+
+    public static final String EXPOSE_HEADER = "app.sql-stats.expose-header=true";
+
+    private static final Pattern STATEMENTS = Pattern.compile("statements=(\\d+)");
+
+    private SqlStatsMatchers() {
+    }
+
+    public static ResultMatcher statementsAtMost(int max) {
+        return result -> assertThat(statements(result.getResponse().getHeader(SqlStatsFilter.HEADER)))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isLessThanOrEqualTo(max);
+    }
+
+    public static ResultMatcher statements(int expected) {
+        return result -> assertThat(statements(result.getResponse().getHeader(SqlStatsFilter.HEADER)))
+                .as("SQL statements for %s", result.getRequest().getRequestURI())
+                .isEqualTo(expected);
+    }
+
+    private static int statements(String header) {
+        assertThat(header).as(SqlStatsFilter.HEADER + " header").isNotNull();
+        Matcher m = STATEMENTS.matcher(header);
+        assertThat(m.find()).as("statements in '%s'", header).isTrue();
+        return Integer.parseInt(m.group(1));
+    }
+}
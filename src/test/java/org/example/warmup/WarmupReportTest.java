@@ -0,0 +1,34 @@
+package org.example.warmup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupReportTest {
+
+    @Test
+    void curve_averagesEqualWindows_inMicros() {
+        long[] nanos = { 4_000, 2_000, 1_000, 1_000, 500, 500 };
+
+        assertThat(WarmupReport.curve(nanos, nanos.length, 3)).containsExactly(3L, 1L, 0L);
+    }
+
+    @Test
+    void curve_lastWindowTakesRemainder() {
+        long[] nanos = { 10_000, 10_000, 2_000, 2_000, 2_000 };
+
+        assertThat(WarmupReport.curve(nanos, nanos.length, 2)).containsExactly(10L, 2L);
+    }
+
+    @Test
+    void curve_fewerIterationsThanPoints_onePointPerIteration() {
+        long[] nanos = { 5_000, 3_000, 0, 0 };
+
+        assertThat(WarmupReport.curve(nanos, 2, 10)).containsExactly(5L, 3L);
+    }
+
+    @Test
+    void curve_noIterations_isEmpty() {
+        assertThat(WarmupReport.curve(new long[4], 0, 10)).isEmpty();
+    }
+}
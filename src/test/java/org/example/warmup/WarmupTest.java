@@ -0,0 +1,50 @@
+package org.example.warmup;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.security.TimedPasswordEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WarmupTest {
+
+    @Test
+    void passwordEncoder_doesNotRecordWarmupCalls() {
+        var registry = new SimpleMeterRegistry();
+        @SuppressWarnings("deprecation")
+        var encoder = new TimedPasswordEncoder(NoOpPasswordEncoder.getInstance(), registry);
+
+        Warmup.enter();
+        try {
+            assertThat(encoder.matches("x", encoder.encode("x"))).isTrue();
+        } finally {
+            Warmup.exit();
+        }
+        assertThat(registry.get("password.encoder").timers()).allMatch(t -> t.count() == 0);
+
+        encoder.matches("x", "x");
+        assertThat(registry.get("password.encoder").tag("result", "match").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requestFilter_marksOnlyRequestsWithProcessToken() throws Exception {
+        var filter = new WarmupRequestFilter();
+        var seen = new AtomicBoolean();
+
+        var forged = new MockHttpServletRequest("GET", "/api/ping");
+        forged.addHeader(Warmup.HEADER, "guess");
+        filter.doFilter(forged, new MockHttpServletResponse(), (rq, rs) -> seen.set(Warmup.isActive()));
+        assertThat(seen).isFalse();
+
+        var warmup = new MockHttpServletRequest("GET", "/api/ping");
+        warmup.addHeader(Warmup.HEADER, Warmup.token());
+        filter.doFilter(warmup, new MockHttpServletResponse(), (rq, rs) -> seen.set(Warmup.isActive()));
+        assertThat(seen).isTrue();
+        assertThat(Warmup.isActive()).isFalse();
+    }
+}